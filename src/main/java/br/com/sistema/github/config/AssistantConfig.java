@@ -1,6 +1,15 @@
 package br.com.sistema.github.config;
 
+import java.util.List;
+
+import br.com.sistema.github.service.ChatModelMetrics;
+import br.com.sistema.github.service.ConversationMemoryStore;
+import br.com.sistema.github.service.TokenEstimator;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.memory.chat.TokenWindowChatMemory;
 import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
+import dev.langchain4j.model.googleai.GoogleAiGeminiStreamingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -23,12 +32,15 @@ public class AssistantConfig {
     @Value("${spring.langchain4j.google-ai.gemini.temperature:0.7}")
     private Double temperature;
     
+    @Value("${spring.github.chat.memory.max-tokens-per-conversation:8000}")
+    private int maxTokensPerConversation;
+    
     // ===============================
     // Criar Bean GoogleAiGeminiChatModel
     // ===============================
     
     @Bean
-    public GoogleAiGeminiChatModel googleAiGeminiChatModel() {
+    public GoogleAiGeminiChatModel googleAiGeminiChatModel(MeterRegistry meterRegistry) {
         log.info("========================================");
         log.info("🤖 Inicializando GoogleAiGeminiChatModel");
         log.info("========================================");
@@ -47,6 +59,7 @@ public class AssistantConfig {
                     .apiKey(geminiApiKey)
                     .modelName(modelName)
                     .temperature(temperature)
+                    .listeners(List.of(new ChatModelMetrics(meterRegistry, modelName, "blocking")))
                     .build();
             
             log.info("✅ GoogleAiGeminiChatModel criado com sucesso!");
@@ -57,4 +70,39 @@ public class AssistantConfig {
             throw new RuntimeException("Falha ao criar GoogleAiGeminiChatModel", e);
         }
     }
+    
+    // ===============================
+    // Criar Bean GoogleAiGeminiStreamingChatModel (/chat/stream)
+    // ===============================
+    
+    @Bean
+    public GoogleAiGeminiStreamingChatModel googleAiGeminiStreamingChatModel(MeterRegistry meterRegistry) {
+        log.info("🤖 Inicializando GoogleAiGeminiStreamingChatModel ({})", modelName);
+        
+        if (geminiApiKey == null || geminiApiKey.trim().isEmpty()) {
+            throw new IllegalArgumentException("Google Gemini API Key não está configurada!");
+        }
+        
+        return GoogleAiGeminiStreamingChatModel.builder()
+                .apiKey(geminiApiKey)
+                .modelName(modelName)
+                .temperature(temperature)
+                .listeners(List.of(new ChatModelMetrics(meterRegistry, modelName, "streaming")))
+                .build();
+    }
+    
+    // ===============================
+    // Memória por conversa (janela deslizante limitada em tokens)
+    // ===============================
+    
+    @Bean
+    public ChatMemoryProvider chatMemoryProvider(ConversationMemoryStore memoryStore, TokenEstimator tokenEstimator) {
+        log.info("🧠 Memória de chat: janela de {} tokens por conversa", maxTokensPerConversation);
+        
+        return memoryId -> TokenWindowChatMemory.builder()
+                .id(memoryId)
+                .maxTokens(maxTokensPerConversation, tokenEstimator)
+                .chatMemoryStore(memoryStore)
+                .build();
+    }
 }
\ No newline at end of file
@@ -55,6 +55,7 @@ public class CorsConfig {
                 "Accept",              // Tipo aceito
                 "X-Requested-With",    // AJAX requests
                 "X-API-Key",           // API Keys customizadas
+                "X-GitHub-Token",      // Token GitHub do usuário (multiusuário)
                 "Cache-Control"        // Controle de cache
         ));
         
@@ -0,0 +1,144 @@
+package br.com.sistema.github.config;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import br.com.sistema.github.gateway.CachingGitHubConnector;
+import br.com.sistema.github.gateway.GitHubHttpCache;
+import br.com.sistema.github.gateway.GitHubRateLimiter;
+import br.com.sistema.github.gateway.JdkHttpGitHubConnector;
+import br.com.sistema.github.gateway.MeteredGitHubConnector;
+import br.com.sistema.github.gateway.RateLimitingGitHubConnector;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@Slf4j
+public class GitHubClientConfig {
+
+    // ===============================
+    // Propriedades de Configuração
+    // ===============================
+
+    @Value("${spring.github.token}")
+    private String githubToken;
+
+    @Value("${spring.github.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${spring.github.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${spring.github.http.connector:httpclient}")
+    private String connectorType;
+
+    @Value("${spring.github.http.version:HTTP_2}")
+    private HttpClient.Version httpVersion;
+
+    @Value("${spring.github.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${spring.github.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${spring.github.http.warm-up:true}")
+    private boolean warmUp;
+
+    // ===============================
+    // Cliente HTTP compartilhado (pool de conexões, HTTP/2, timeouts)
+    // ===============================
+
+    // Fechado no shutdown do contexto: espera as chamadas em andamento (limitadas pelo readTimeout)
+    // O keep-alive do pool é da JVM: -Djdk.httpclient.keepalive.timeout=<segundos> na linha de comando
+    @Bean(destroyMethod = "close")
+    public HttpClient gitHubHttpClient() {
+        log.info("🔌 HttpClient do GitHub: {}, connectTimeout={}ms, readTimeout={}ms",
+                httpVersion, connectTimeoutMs, readTimeoutMs);
+        return HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                // Chamadas bloqueantes vêm de virtual threads; os callbacks internos também
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    // ===============================
+    // Conector HTTP usado por todas as chamadas ao GitHub
+    // Cache -> Rate limit -> Métricas -> HTTP: leituras em cache não consomem cota
+    // ===============================
+
+    @Bean
+    public GitHubConnector gitHubConnector(HttpClient gitHubHttpClient, GitHubHttpCache httpCache,
+                                           GitHubRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        GitHubConnector transport = switch (connectorType.toLowerCase(Locale.ROOT)) {
+            case "default" -> GitHubConnector.DEFAULT;
+            default -> new JdkHttpGitHubConnector(gitHubHttpClient, Duration.ofMillis(readTimeoutMs));
+        };
+        GitHubConnector connector = new MeteredGitHubConnector(transport, meterRegistry);
+
+        if (rateLimitEnabled) {
+            connector = new RateLimitingGitHubConnector(connector, rateLimiter);
+        } else {
+            log.info("🚦 Rate limit do GitHub desabilitado");
+        }
+
+        if (cacheEnabled) {
+            connector = new CachingGitHubConnector(connector, httpCache);
+        } else {
+            log.info("🗄️ Cache HTTP do GitHub desabilitado");
+        }
+
+        return connector;
+    }
+
+    // ===============================
+    // Cliente GitHub único (thread-safe) para toda a aplicação
+    // ===============================
+
+    @Bean
+    public GitHub gitHub(GitHubConnector gitHubConnector) throws IOException {
+        GitHubBuilder builder = new GitHubBuilder().withConnector(gitHubConnector);
+        if (githubToken != null && !githubToken.isBlank()) {
+            builder.withOAuthToken(githubToken);
+        } else {
+            log.warn("❌ github.token não configurado: chamadas ao GitHub vão falhar");
+        }
+        return builder.build();
+    }
+
+    // ===============================
+    // Aquecimento: TLS + conexão HTTP/2 abertos antes do primeiro request real
+    // ===============================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!warmUp || githubToken == null || githubToken.isBlank()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // /rate_limit não consome cota e valida o token
+            GHRateLimit rateLimit = event.getApplicationContext().getBean(GitHub.class).getRateLimit();
+            log.info("✅ Conexão com o GitHub aquecida em {} ms (cota restante: {})",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), rateLimit.getCore().getRemaining());
+        } catch (IOException e) {
+            log.warn("⚠️ Falha ao aquecer a conexão com o GitHub: {}", e.getMessage());
+        }
+    }
+}
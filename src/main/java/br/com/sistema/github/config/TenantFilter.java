@@ -0,0 +1,89 @@
+package br.com.sistema.github.config;
+
+import java.io.IOException;
+
+import org.kohsuke.github.HttpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.sistema.github.gateway.GitHubClientPool;
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Atende cada request da API em nome do usuário dono do token enviado em
+ * {@code X-GitHub-Token}. Sem o header o request é recusado com 401: cair no
+ * usuário configurado ({@code spring.github.token}) daria a qualquer anônimo os
+ * repositórios, os caches e a cota do dono. Só com {@code require-token=false}
+ * (instalação de um usuário só, rede fechada) o request sem token vira o dono.
+ *
+ * A API não guarda sessão: o token vai em todo request e o cliente GitHub do
+ * usuário fica no {@link GitHubClientPool}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-GitHub-Token";
+
+    private final GitHubClientPool clientPool;
+
+    @Value("${spring.github.tenants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.github.tenants.require-token:true}")
+    private boolean requireToken;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(TOKEN_HEADER);
+        if (token == null || token.isBlank()) {
+            if (requireToken) {
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Header " + TOKEN_HEADER + " obrigatório");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        GitHubTenant tenant;
+        try {
+            tenant = clientPool.resolve(token.strip());
+        } catch (HttpException e) {
+            if (e.getResponseCode() == 401 || e.getResponseCode() == 403) {
+                log.warn("🔒 Token GitHub recusado ({}) em {}", e.getResponseCode(), request.getRequestURI());
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Token GitHub inválido");
+            } else {
+                log.error("❌ Erro ao validar token GitHub", e);
+                response.sendError(HttpStatus.BAD_GATEWAY.value(), "GitHub indisponível");
+            }
+            return;
+        } catch (IOException e) {
+            log.error("❌ Erro ao validar token GitHub", e);
+            response.sendError(HttpStatus.BAD_GATEWAY.value(), "GitHub indisponível");
+            return;
+        }
+
+        GitHubTenant previous = TenantContext.enter(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+}
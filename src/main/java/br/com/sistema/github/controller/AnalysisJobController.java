@@ -0,0 +1,115 @@
+package br.com.sistema.github.controller;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.sistema.github.dtos.request.AnalyzeGitHubFilesRequest;
+import br.com.sistema.github.models.AnalysisJob;
+import br.com.sistema.github.service.AnalysisJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/github/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Jobs de análise", description = "Análises longas em segundo plano, com acompanhamento do progresso")
+public class AnalysisJobController {
+
+    private final AnalysisJobService jobService;
+
+    @Value("${spring.github.jobs.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    // ====================================
+    // Enfileira uma análise e devolve o job
+    // ====================================
+    @PostMapping("/analyze")
+    @Operation(summary = "Enfileirar análise", description = "Cria um job de análise de arquivos e responde na hora com o id para acompanhamento")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job enfileirado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AnalysisJob.class))),
+        @ApiResponse(responseCode = "400", description = "Request inválido"),
+        @ApiResponse(responseCode = "429", description = "Fila de jobs cheia (ver Retry-After)")
+    })
+    public ResponseEntity<AnalysisJob> submit(
+            @RequestBody AnalyzeGitHubFilesRequest request,
+
+            @Parameter(description = "Prazo do job em segundos, contado a partir do envio (padrão e máximo configuráveis)")
+            @RequestParam(value = "deadlineSeconds", required = false) Long deadlineSeconds) {
+
+        log.info("📋 Job de análise recebido: {}", request.repositoryName());
+
+        if (!request.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return jobService.submit(request, deadlineSeconds)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/api/v1/github/jobs/" + job.id()))
+                        .body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                        .build());
+    }
+
+    // ====================================
+    // Estado e progresso do job (polling)
+    // ====================================
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar job", description = "Estado, progresso da fase atual e, ao terminar, o resultado da análise")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AnalysisJob.class))),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado ou já expirado da retenção")
+    })
+    public ResponseEntity<AnalysisJob> get(@PathVariable("id") String id) {
+        return ResponseEntity.of(jobService.get(id));
+    }
+
+    // ====================================
+    // Progresso via Server-Sent Events
+    // ====================================
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar job (SSE)", description = "Eventos 'progress' a cada arquivo/lote concluído e 'done' com o estado final")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream iniciado"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<SseEmitter> events(@PathVariable("id") String id) {
+        return ResponseEntity.of(jobService.events(id));
+    }
+
+    // ====================================
+    // Cancela o job (na fila ou executando)
+    // ====================================
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancelar job", description = "Cancela o job; se já terminou, apenas devolve o estado final")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado do job após o cancelamento"),
+        @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    public ResponseEntity<AnalysisJob> cancel(@PathVariable("id") String id) {
+        log.info("🛑 Cancelamento do job {}", id);
+        return ResponseEntity.of(jobService.cancel(id));
+    }
+}
@@ -1,6 +1,18 @@
 package br.com.sistema.github.controller;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.HttpException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -8,14 +20,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import br.com.sistema.github.dtos.request.AnalyzeGitHubFilesRequest;
+import br.com.sistema.github.dtos.request.CommitFilesRequest;
 import br.com.sistema.github.dtos.request.GitHubChatRequest;
 import br.com.sistema.github.dtos.response.AssistantResponse;
+import br.com.sistema.github.dtos.response.CodeSearchResponse;
 import br.com.sistema.github.dtos.response.GitHubFilesResponse;
 import br.com.sistema.github.dtos.response.GitHubRepoResponse;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.models.CommitResult;
+import br.com.sistema.github.models.FileChange;
+import br.com.sistema.github.service.ChatStreamService;
+import br.com.sistema.github.service.CodeSearchService;
+import br.com.sistema.github.service.GitHubAnalysisService;
 import br.com.sistema.github.service.GitHubAssistantService;
 import br.com.sistema.github.service.GitHubDataStructureService;
+import br.com.sistema.github.service.RepositoryCatalog;
+import br.com.sistema.github.service.RepositoryTreeService;
+import br.com.sistema.github.service.RequestExecutor;
+import br.com.sistema.github.service.RequestExecutor.Endpoint;
+import br.com.sistema.github.service.RequestRejectedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,6 +61,12 @@ public class GitHubController {
     
     private final GitHubAssistantService assistantService;
     private final GitHubDataStructureService dataService;
+    private final GitHubAnalysisService analysisService;
+    private final RepositoryTreeService treeService;
+    private final ChatStreamService chatStreamService;
+    private final CodeSearchService codeSearchService;
+    private final RepositoryCatalog repositoryCatalog;
+    private final RequestExecutor requestExecutor;
     
     // ====================================
     // Chat com o assistente GitHub
@@ -43,18 +75,35 @@ public class GitHubController {
     @Operation(summary = "Chat com assistente GitHub", description = "Envie uma mensagem em linguagem natural para o assistente processar")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Mensagem processada com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssistantResponse.class))),
-        @ApiResponse(responseCode = "400", description = "Request inválido")
+        @ApiResponse(responseCode = "400", description = "Request inválido"),
+        @ApiResponse(responseCode = "429", description = "Muitas requisições simultâneas (ver Retry-After)")
     })
-    public ResponseEntity<AssistantResponse> chat(@RequestBody GitHubChatRequest request) {
+    public CompletableFuture<ResponseEntity<AssistantResponse>> chat(@RequestBody GitHubChatRequest request) {
         log.info("💬 Chat recebido");
         
         if (!request.isValid()) {
-            return ResponseEntity.badRequest().body(AssistantResponse.error(request.message(), "Mensagem não pode ser vazia"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(AssistantResponse.error(request.message(), "Mensagem não pode ser vazia")));
         }
         
+        return requestExecutor.submit(Endpoint.CHAT, () -> processChat(request));
+    }
+    
+    private ResponseEntity<AssistantResponse> processChat(GitHubChatRequest request) {
         try {
-            String response = assistantService.processMessage(request.message());
-            return ResponseEntity.ok(AssistantResponse.success(request.message(), response));
+            String conversationId;
+            String response;
+            
+            if (request.hasConversationId()) {
+                conversationId = request.conversationId();
+                response = assistantService.processMessage(conversationId, request.message());
+            } else {
+                // Conversa nova: sem histórico, a resposta pode vir do cache
+                conversationId = UUID.randomUUID().toString();
+                response = assistantService.processNewConversation(conversationId, request.message());
+            }
+            
+            return ResponseEntity.ok(AssistantResponse.success(request.message(), response, conversationId));
             
         } catch (Exception e) {
             log.error("❌ Erro ao processar chat", e);
@@ -62,6 +111,37 @@ public class GitHubController {
         }
     }
     
+    // ====================================
+    // Chat com resposta incremental (Server-Sent Events)
+    // ====================================
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Chat em streaming", description = "Envia tokens parciais e eventos de tool via SSE (eventos: token, tool, done, error). O evento done traz o conversationId")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream iniciado", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Request inválido"),
+        @ApiResponse(responseCode = "429", description = "Muitos streams simultâneos (ver Retry-After)")
+    })
+    public ResponseEntity<SseEmitter> chatStream(@RequestBody GitHubChatRequest request) {
+        log.info("💬 Chat em streaming recebido");
+        
+        if (!request.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        RequestExecutor.Permit permit;
+        try {
+            permit = requestExecutor.admit(Endpoint.CHAT_STREAM);
+        } catch (RequestRejectedException e) {
+            // Sem corpo: o cliente pediu text/event-stream
+            return ResponseEntity.status(rejectionStatus(e))
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+        
+        String conversationId = request.hasConversationId() ? request.conversationId() : UUID.randomUUID().toString();
+        return ResponseEntity.ok(chatStreamService.stream(conversationId, request.message(), permit::release));
+    }
+    
     // ====================================
     // Lista repositórios do usuário
     // ====================================
@@ -82,6 +162,61 @@ public class GitHubController {
         }
     }
     
+    // ====================================
+    // Busca no catálogo local de repositórios
+    // ====================================
+    @GetMapping("/repositories/search")
+    @Operation(summary = "Buscar repositórios", description = "Busca por nome, prefixo ou palavra-chave (tolera erros de digitação) no catálogo local, com filtros e ordenação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = GitHubRepoResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    })
+    public ResponseEntity<GitHubRepoResponse> searchRepositories(
+            @Parameter(description = "Texto a buscar (vazio = todos)")
+            @RequestParam(value = "q", defaultValue = "") String query,
+            
+            @Parameter(description = "Linguagem principal, ex: Java")
+            @RequestParam(value = "language", required = false) String language,
+            
+            @Parameter(description = "Visibilidade: public ou private")
+            @RequestParam(value = "visibility", required = false) String visibility,
+            
+            @Parameter(description = "Mínimo de estrelas")
+            @RequestParam(value = "minStars", required = false) Integer minStars,
+            
+            @Parameter(description = "Ordenação: relevance, stars, name ou updated")
+            @RequestParam(value = "sort", defaultValue = "relevance") String sort,
+            
+            @Parameter(description = "Quantidade máxima de resultados")
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        
+        log.info("🔍 Busca de repositórios: \"{}\"", query);
+        
+        if (visibility != null && !visibility.isBlank()
+                && !"public".equalsIgnoreCase(visibility) && !"private".equalsIgnoreCase(visibility)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            List<RepoInfo> repos = repositoryCatalog.search(RepositoryCatalog.Query.builder()
+                    .text(query)
+                    .language(language)
+                    .privateOnly(visibility == null || visibility.isBlank() ? null : "private".equalsIgnoreCase(visibility))
+                    .minStars(minStars)
+                    .sort(RepositoryCatalog.Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT)))
+                    .limit(limit)
+                    .build());
+            return ResponseEntity.ok(new GitHubRepoResponse(repos.size(), repos));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+            
+        } catch (Exception e) {
+            log.error("❌ Erro ao buscar repositórios", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     // ====================================
     // Lista arquivos de um repositório
     // ====================================
@@ -117,37 +252,164 @@ public class GitHubController {
             log.info("✅ {} arquivos retornados", response.getTotalFiles());
             return ResponseEntity.ok(response);
             
+        } catch (GHFileNotFoundException e) {
+            log.warn("❌ Repositório ou diretório não encontrado: {} / {}", repositoryName, path);
+            return ResponseEntity.notFound().build();
+            
         } catch (Exception e) {
             log.error("❌ Erro ao listar arquivos", e);
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    // ====================================
+    // Árvore completa de um repositório (uma chamada recursiva)
+    // ====================================
+    @GetMapping("/repositories/{name}/tree")
+    @Operation(summary = "Árvore completa do repositório", description = "Retorna todos os arquivos e diretórios do branch padrão em uma única hierarquia")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Árvore montada com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Repositório não encontrado")
+    })
+    public ResponseEntity<GitHubFilesResponse> getTree(
+            @Parameter(description = "Nome do repositório")
+            @PathVariable("name") String repositoryName) {
+        
+        log.info("🌳 Árvore: {}", repositoryName);
+        
+        try {
+            GitHubFilesResponse response = treeService.getRepositoryTree(repositoryName);
+            log.info("✅ {} arquivos na árvore (truncada: {})", response.getTotalFiles(), response.getTruncated());
+            return ResponseEntity.ok(response);
+            
+        } catch (GHFileNotFoundException e) {
+            log.warn("❌ Repositório não encontrado: {}", repositoryName);
+            return ResponseEntity.notFound().build();
+            
+        } catch (Exception e) {
+            log.error("❌ Erro ao montar árvore", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // ====================================
+    // Busca textual no código de um repositório (BM25)
+    // ====================================
+    @GetMapping("/repositories/{name}/search")
+    @Operation(summary = "Buscar no código", description = "Busca lexical (BM25) nos arquivos do branch padrão; identificadores camelCase/snake_case também casam por partes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Consulta vazia"),
+        @ApiResponse(responseCode = "404", description = "Repositório não encontrado")
+    })
+    public ResponseEntity<CodeSearchResponse> searchCode(
+            @Parameter(description = "Nome do repositório")
+            @PathVariable("name") String repositoryName,
+            
+            @Parameter(description = "Termos ou identificadores a buscar")
+            @RequestParam("q") String query,
+            
+            @Parameter(description = "Quantidade máxima de arquivos (1-100)")
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        
+        log.info("🔤 Busca no código: {} / \"{}\"", repositoryName, query);
+        
+        if (query == null || query.isBlank() || limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            CodeSearchResponse response = codeSearchService.search(repositoryName, query, limit);
+            log.info("✅ {} arquivos encontrados em {} ms", response.hits().size(), response.tookMs());
+            return ResponseEntity.ok(response);
+            
+        } catch (GHFileNotFoundException e) {
+            log.warn("❌ Repositório não encontrado: {}", repositoryName);
+            return ResponseEntity.notFound().build();
+            
+        } catch (Exception e) {
+            log.error("❌ Erro ao buscar no código", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // ====================================
+    // Várias alterações em um único commit (Git Data API)
+    // ====================================
+    @PostMapping("/repositories/{name}/commits")
+    @Operation(summary = "Commit em lote", description = "Cria, atualiza e deleta vários arquivos em um único commit atômico")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Commit criado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommitResult.class))),
+        @ApiResponse(responseCode = "400", description = "Request inválido"),
+        @ApiResponse(responseCode = "404", description = "Repositório ou branch não encontrado"),
+        @ApiResponse(responseCode = "409", description = "O branch recebeu outro commit durante a gravação"),
+        @ApiResponse(responseCode = "422", description = "CREATE de arquivo existente, ou UPDATE/DELETE de arquivo inexistente")
+    })
+    public ResponseEntity<CommitResult> commitFiles(
+            @Parameter(description = "Nome do repositório")
+            @PathVariable("name") String repositoryName,
+            
+            @RequestBody CommitFilesRequest request) {
+        
+        log.info("📦 Commit em lote: {} ({} alterações)", repositoryName,
+                request.changes() == null ? 0 : request.changes().size());
+        
+        if (!request.isValid()) {
+            log.warn("❌ Commit inválido: {}", FileChange.validate(request.changes()));
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            CommitResult result = dataService.commitFiles(repositoryName, request.branch(), request.message(), request.changes());
+            log.info("✅ Commit {} criado", result.sha());
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("❌ Commit recusado: {}", e.getMessage());
+            return ResponseEntity.unprocessableEntity().build();
+            
+        } catch (GHFileNotFoundException e) {
+            log.warn("❌ Repositório ou branch não encontrado: {} / {}", repositoryName, request.branch());
+            return ResponseEntity.notFound().build();
+            
+        } catch (HttpException e) {
+            log.error("❌ GitHub recusou o commit", e);
+            return ResponseEntity.status(e.getResponseCode() == 422 ? HttpStatus.BAD_REQUEST : HttpStatus.BAD_GATEWAY).build();
+            
+        } catch (IOException e) {
+            if (e.getCause() instanceof HttpException http && http.getResponseCode() == 422) {
+                log.warn("❌ {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            log.error("❌ Erro ao gravar commit", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     // ====================================
     // Analisa arquivos selecionados com IA
     // ====================================
     @PostMapping("/analyze")
     @Operation(summary = "Analisar arquivos", description = "Analisa múltiplos arquivos usando IA")
-    @ApiResponse(responseCode = "200", description = "Análise concluída")
-    public ResponseEntity<AssistantResponse> analyzeFiles(@RequestBody AnalyzeGitHubFilesRequest request) {
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Análise concluída"),
+        @ApiResponse(responseCode = "429", description = "Muitas análises simultâneas (ver Retry-After)")
+    })
+    public CompletableFuture<ResponseEntity<AssistantResponse>> analyzeFiles(@RequestBody AnalyzeGitHubFilesRequest request) {
         
         log.info("🔍 Analisando arquivos: {}", request.repositoryName());
         
         if (!request.isValid()) {
-            return ResponseEntity.badRequest().body(AssistantResponse.error("Análise", "Request inválido"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(AssistantResponse.error("Análise", "Request inválido")));
         }
         
+        return requestExecutor.submit(Endpoint.ANALYZE, () -> processAnalysis(request));
+    }
+    
+    private ResponseEntity<AssistantResponse> processAnalysis(AnalyzeGitHubFilesRequest request) {
         try {
-            StringBuilder filesContent = new StringBuilder();
-            filesContent.append(String.format("Análise de %d arquivos do repositório %s:\n\n", request.selectedFilePaths().size(), request.repositoryName()));
-            
-            for (String filePath : request.selectedFilePaths()) {
-                String content = dataService.readFileContent(request.repositoryName(), filePath);
-                filesContent.append(content).append("\n\n");
-            }
-            
-            String analysisPrompt = String.format("Faça uma análise %s dos seguintes arquivos:\n\n%s", request.analysisType(), filesContent);
-            String analysis = assistantService.processMessage(analysisPrompt);
+            String analysis = analysisService.analyze(request);
             return ResponseEntity.ok(AssistantResponse.success("Análise de arquivos", analysis));
             
         } catch (Exception e) {
@@ -156,6 +418,20 @@ public class GitHubController {
         }
     }
     
+    // ====================================
+    // Endpoint lotado: 429 (ou 503 no desligamento) com Retry-After
+    // ====================================
+    @ExceptionHandler(RequestRejectedException.class)
+    public ResponseEntity<AssistantResponse> rejected(RequestRejectedException e) {
+        return ResponseEntity.status(rejectionStatus(e))
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(AssistantResponse.error(e.getEndpoint().path(), e.getMessage()));
+    }
+    
+    private static HttpStatus rejectionStatus(RequestRejectedException e) {
+        return e.isShuttingDown() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+    }
+    
     // ====================================
     // Health check do serviço
     // ====================================
@@ -0,0 +1,69 @@
+package br.com.sistema.github.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.sistema.github.service.GitHubWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/webhooks")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Webhooks", description = "Eventos do GitHub para invalidação de caches e índices")
+public class GitHubWebhookController {
+
+    private final GitHubWebhookService webhookService;
+
+    // ====================================
+    // Recebe push / issues / repository (assinatura HMAC obrigatória)
+    // ====================================
+    @PostMapping("/github")
+    @Operation(summary = "Webhook do GitHub", description = "Valida X-Hub-Signature-256 e invalida só o que o evento alterou")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Evento processado"),
+        @ApiResponse(responseCode = "400", description = "Payload inválido"),
+        @ApiResponse(responseCode = "401", description = "Assinatura ausente ou inválida"),
+        @ApiResponse(responseCode = "503", description = "spring.github.webhook.secret não configurado")
+    })
+    public ResponseEntity<String> receive(
+            @RequestHeader(value = "X-GitHub-Event", required = false) String event,
+            @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId,
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestBody byte[] body) {
+
+        if (!webhookService.isConfigured()) {
+            log.warn("🪝 Webhook recebido sem segredo configurado: ignorado");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        if (!webhookService.isValidSignature(body, signature)) {
+            log.warn("🪝 Assinatura inválida no webhook {} ({})", event, deliveryId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(webhookService.handle(event, body));
+
+        } catch (IOException e) {
+            log.warn("🪝 Payload inválido no webhook {} ({}): {}", event, deliveryId, e.getMessage());
+            return ResponseEntity.badRequest().body("Payload inválido");
+
+        } catch (Exception e) {
+            log.error("❌ Erro ao processar webhook {} ({})", event, deliveryId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
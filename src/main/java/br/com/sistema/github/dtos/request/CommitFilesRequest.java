@@ -0,0 +1,37 @@
+package br.com.sistema.github.dtos.request;
+
+import java.util.List;
+
+import br.com.sistema.github.models.FileChange;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Request para gravar várias alterações em um único commit")
+public record CommitFilesRequest(
+
+    @Schema(
+        description = "Mensagem do commit",
+        example = "refactor: renomeia UserService para AccountService",
+        required = true
+    )
+    String message,
+
+    @Schema(
+        description = "Branch de destino (opcional, padrão: branch padrão do repositório)",
+        example = "main"
+    )
+    String branch,
+
+    @Schema(
+        description = "Alterações do commit (um caminho aparece no máximo uma vez)",
+        required = true
+    )
+    List<FileChange> changes
+
+) {
+    // ====================================
+    // Validação básica
+    // ====================================
+    public boolean isValid() {
+        return message != null && !message.trim().isEmpty() && FileChange.validate(changes) == null;
+    }
+}
@@ -10,7 +10,13 @@ public record GitHubChatRequest(
         example = "Liste meus repositórios públicos com mais de 10 stars",
         required = true
     )
-    String message
+    String message,
+    
+    @Schema(
+        description = "Identificador da conversa (opcional). Envie o valor retornado na resposta anterior para manter o contexto; sem ele, uma nova conversa é iniciada",
+        example = "3f1c2a9e-8b7d-4e62-9a0f-1d2c3b4a5e6f"
+    )
+    String conversationId
     
 ) {
     // ====================================
@@ -19,4 +25,8 @@ public record GitHubChatRequest(
     public boolean isValid() {
         return message != null && !message.trim().isEmpty();
     }
+    
+    public boolean hasConversationId() {
+        return conversationId != null && !conversationId.isBlank();
+    }
 }
\ No newline at end of file
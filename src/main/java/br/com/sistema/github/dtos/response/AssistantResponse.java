@@ -20,6 +20,9 @@ public record AssistantResponse(
     @Schema(description = "Dados da resposta")
     String data,
     
+    @Schema(description = "Identificador da conversa (envie no próximo /chat para manter o contexto)")
+    String conversationId,
+    
     @Schema(description = "Mensagem de erro (se houver)")
     String error,
     
@@ -31,12 +34,20 @@ public record AssistantResponse(
     // Cria resposta de sucesso
     // ====================================
     public static AssistantResponse success(String question, String data) {
+        return success(question, data, null);
+    }
+    
+    // ====================================
+    // Cria resposta de sucesso de uma conversa
+    // ====================================
+    public static AssistantResponse success(String question, String data, String conversationId) {
         return new AssistantResponse(
                 true,
                 "GitHubAssistant",
                 "chat",
                 question,
                 data,
+                conversationId,
                 null,
                 java.time.LocalDateTime.now().toString()
         );
@@ -52,6 +63,7 @@ public record AssistantResponse(
                 "error",
                 question,
                 null,
+                null,
                 error,
                 java.time.LocalDateTime.now().toString()
         );
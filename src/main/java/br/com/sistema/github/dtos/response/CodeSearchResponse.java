@@ -0,0 +1,51 @@
+package br.com.sistema.github.dtos.response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Schema(description = "Resultado da busca lexical (BM25) no código de um repositório")
+@Builder
+public record CodeSearchResponse(
+        
+    @Schema(description = "Nome do repositório", example = "spring-boot-api")
+    String repositoryName,
+    
+    @Schema(description = "Consulta", example = "getUserById")
+    String query,
+    
+    @Schema(description = "SHA do commit indexado", example = "3f2a9c1e8b...")
+    String commitSha,
+    
+    @Schema(description = "Arquivos no índice", example = "1284")
+    Integer indexedFiles,
+    
+    @Schema(description = "Índice ainda sendo montado/atualizado: resultados parciais", example = "false")
+    Boolean indexing,
+    
+    @Schema(description = "Tempo da consulta no índice (ms)", example = "2")
+    Double tookMs,
+    
+    @Schema(description = "Arquivos mais relevantes")
+    List<CodeHit> hits
+    
+) {
+    @Schema(description = "Arquivo encontrado")
+    @Builder
+    public record CodeHit(
+            
+        @Schema(description = "Caminho do arquivo", example = "src/main/java/UserService.java")
+        String path,
+        
+        @Schema(description = "Pontuação BM25", example = "12.7")
+        Double score,
+        
+        @Schema(description = "Linha (1-based) com mais termos da consulta", example = "42")
+        Integer line,
+        
+        @Schema(description = "Conteúdo dessa linha", example = "public User getUserById(Long id) {")
+        String preview
+        
+    ) {}
+}
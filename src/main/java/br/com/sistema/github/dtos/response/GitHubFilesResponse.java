@@ -25,6 +25,15 @@ public class GitHubFilesResponse {
     @Schema(description = "Árvore de arquivos e diretórios")
     private List<FileNode> files;
     
+    @Schema(description = "SHA do commit listado (modo árvore)", example = "3f2a9c1e8b...")
+    private String commitSha;
+    
+    @Schema(description = "SHA da árvore Git listada (modo árvore)", example = "9b1d7e4a2c...")
+    private String treeSha;
+    
+    @Schema(description = "Se a árvore foi truncada; diretórios com loaded=false devem ser carregados sob demanda", example = "false")
+    private Boolean truncated;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -44,6 +53,9 @@ public class GitHubFilesResponse {
         @Schema(description = "Tamanho em bytes (se for arquivo)", example = "2048")
         private Long size;
         
+        @Schema(description = "SHA Git do blob/árvore", example = "a1b2c3d4e5...")
+        private String sha;
+        
         @Schema(description = "Se foi carregado (lazy loading)", example = "true")
         private Boolean loaded;
         
@@ -1,5 +1,6 @@
 package br.com.sistema.github.dtos.response;
 
+import java.util.Date;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -38,8 +39,14 @@ public record GitHubRepoResponse(
         @Schema(description = "Número de forks", example = "7")
         Integer forks,
         
+        @Schema(description = "Número de issues abertas", example = "3")
+        Integer openIssues,
+        
         @Schema(description = "Se é repositório privado", example = "false")
-        Boolean isPrivate
+        Boolean isPrivate,
+        
+        @Schema(description = "Última atualização do repositório", example = "2025-01-22T10:35:00Z")
+        Date updatedAt
         
     ) {}
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package br.com.sistema.github.gateway;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapa caminho -> SHA do blob para o commit mais recente conhecido de cada repositório.
+ *
+ * Alimentado pela árvore recursiva. Enquanto o commit foi confirmado há menos de
+ * {@code path-ttl-seconds}, {@link GitHubGateway#readFile} resolve o SHA aqui e
+ * lê o blob do disco sem tocar a rede. As chaves são por usuário
+ * ({@link TenantContext#scope}): o mesmo nome pode ser de donos diferentes.
+ */
+@Component
+public class BlobShaIndex {
+
+    private static final int MAX_REPOSITORIES = 256;
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Snapshot> snapshots = new LinkedHashMap<>(32, 0.75f, true);
+
+    @Autowired
+    public BlobShaIndex(@Value("${spring.github.blob-store.path-ttl-seconds:60}") long ttlSeconds) {
+        this(Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    BlobShaIndex(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    // ====================================
+    // Registra (ou reconfirma) o commit atual de um repositório
+    // ====================================
+    public synchronized void confirm(String repositoryName, String commitSha, Map<String, String> blobShaByPath) {
+        String key = TenantContext.scope(repositoryName);
+        Snapshot current = snapshots.get(key);
+        Map<String, String> paths = current != null && current.commitSha().equals(commitSha)
+                ? current.blobShaByPath()
+                : blobShaByPath;
+        snapshots.put(key, new Snapshot(commitSha, paths, clock.instant()));
+
+        if (snapshots.size() > MAX_REPOSITORIES) {
+            Iterator<String> eldest = snapshots.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    // ====================================
+    // SHA do blob, se o commit ainda estiver dentro do TTL
+    // ====================================
+    public synchronized String lookup(String repositoryName, String path) {
+        Snapshot snapshot = snapshots.get(TenantContext.scope(repositoryName));
+        if (snapshot == null || snapshot.confirmedAt().plus(ttl).isBefore(clock.instant())) {
+            return null;
+        }
+        return snapshot.blobShaByPath().get(normalize(path));
+    }
+
+    public synchronized void invalidate(String repositoryName) {
+        snapshots.remove(TenantContext.scope(repositoryName));
+    }
+
+    // ====================================
+    // Esquece só os caminhos alterados (push); os demais continuam válidos
+    // ====================================
+    public synchronized void forget(String repositoryName, Collection<String> paths) {
+        String key = TenantContext.scope(repositoryName);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, String> remaining = new HashMap<>(snapshot.blobShaByPath());
+        paths.forEach(path -> remaining.remove(normalize(path)));
+        snapshots.put(key, new Snapshot(snapshot.commitSha(), remaining, snapshot.confirmedAt()));
+    }
+
+    private static String normalize(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private record Snapshot(String commitSha, Map<String, String> blobShaByPath, Instant confirmedAt) {}
+}
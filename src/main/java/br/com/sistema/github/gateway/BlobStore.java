@@ -0,0 +1,229 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache persistente em disco de blobs Git, endereçado pelo SHA do blob.
+ *
+ * Um SHA identifica os bytes de forma definitiva, então uma entrada nunca
+ * precisa ser revalidada. Os arquivos ficam em {@code <dir>/ab/cdef...}; o total
+ * é limitado por bytes com remoção LRU, e a ordem LRU usa o mtime dos arquivos
+ * para sobreviver a reinícios. Blobs grandes são lidos via memory-map.
+ *
+ * É só uma otimização: bytes que não batem com o SHA não são gravados, e falha
+ * de disco na gravação vira log, nunca erro para quem leu ou gravou no GitHub.
+ */
+@Component
+@Slf4j
+public class BlobStore {
+
+    private static final Pattern SHA = Pattern.compile("[0-9a-f]{40}|[0-9a-f]{64}");
+    private static final long MMAP_THRESHOLD_BYTES = 64 * 1024;
+
+    @Value("${spring.github.blob-store.dir:${java.io.tmpdir}/github-assistant/blobs}")
+    private Path directory;
+
+    @Value("${spring.github.blob-store.max-bytes:536870912}")
+    private long maxBytes;
+
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(1024, 0.75f, true);
+    private long totalBytes;
+
+    // ====================================
+    // Reconstrói o índice LRU a partir do disco
+    // ====================================
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> blobs;
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            blobs = files.filter(Files::isRegularFile)
+                    .filter(path -> SHA.matcher(shaOf(path)).matches())
+                    .sorted(Comparator.comparing(BlobStore::lastModified))
+                    .toList();
+        }
+
+        synchronized (this) {
+            for (Path blob : blobs) {
+                long size = Files.size(blob);
+                sizes.put(shaOf(blob), size);
+                totalBytes += size;
+            }
+            evictIfNeeded();
+        }
+
+        log.info("🗃️ Blob store: {} ({} blobs, {} bytes)", directory, sizes.size(), totalBytes);
+    }
+
+    // ====================================
+    // Lê um blob (texto UTF-8), se presente
+    // ====================================
+    public Optional<String> read(String sha) {
+        if (!isValidSha(sha)) {
+            return Optional.empty();
+        }
+
+        synchronized (this) {
+            if (sizes.get(sha) == null) {
+                return Optional.empty();
+            }
+        }
+
+        Path path = pathOf(sha);
+        try {
+            String content = decode(path);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(content);
+
+        } catch (IOException e) {
+            // Removido por fora ou corrompido: trata como ausente
+            log.warn("🗃️ Blob {} ilegível, descartando: {}", sha, e.getMessage());
+            forget(sha);
+            return Optional.empty();
+        }
+    }
+
+    // ====================================
+    // Grava um blob (escrita atômica: temporário + move)
+    // ====================================
+    public void write(String sha, byte[] content) {
+        if (!isValidSha(sha) || content.length > maxBytes) {
+            return;
+        }
+        if (!sha.equals(gitBlobSha(content, sha.length() == 40 ? "SHA-1" : "SHA-256"))) {
+            log.warn("🗃️ Conteúdo não confere com o blob {}, não gravado", sha);
+            return;
+        }
+
+        synchronized (this) {
+            if (sizes.containsKey(sha)) {
+                return;
+            }
+        }
+
+        Path target = pathOf(sha);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), sha, ".tmp");
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Disco cheio, permissão...: segue sem cache, a leitura/gravação no GitHub já deu certo
+            log.warn("🗃️ Falha ao gravar blob {}: {}", sha, e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            if (sizes.put(sha, (long) content.length) == null) {
+                totalBytes += content.length;
+            }
+            evictIfNeeded();
+        }
+    }
+
+    public synchronized boolean contains(String sha) {
+        return sha != null && sizes.containsKey(sha);
+    }
+
+    public synchronized long bytes() {
+        return totalBytes;
+    }
+
+    private synchronized void forget(String sha) {
+        Long size = sizes.remove(sha);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(pathOf(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("🗃️ Falha ao remover blob {}: {}", entry.getKey(), e.getMessage());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private static String decode(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MMAP_THRESHOLD_BYTES) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // lê até encher
+                }
+                return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            }
+            return StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)).toString();
+        }
+    }
+
+    // SHA do objeto Git: hash de "blob <tamanho>\0" + conteúdo
+    static String gitBlobSha(byte[] content, String algorithm) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " indisponível", e);
+        }
+    }
+
+    private Path pathOf(String sha) {
+        return directory.resolve(sha.substring(0, 2)).resolve(sha.substring(2));
+    }
+
+    private static String shaOf(Path path) {
+        Path parent = path.getParent();
+        return (parent == null ? "" : parent.getFileName().toString()) + path.getFileName();
+    }
+
+    private static boolean isValidSha(String sha) {
+        return sha != null && SHA.matcher(sha).matches();
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
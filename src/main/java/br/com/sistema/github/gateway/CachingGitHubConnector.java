@@ -0,0 +1,220 @@
+package br.com.sistema.github.gateway;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link GitHubConnector} que atende leituras (GET) a partir do {@link GitHubHttpCache}.
+ *
+ * Entradas frescas são devolvidas sem rede; entradas vencidas são revalidadas com
+ * {@code If-None-Match} / {@code If-Modified-Since}. Escritas (POST/PUT/PATCH/DELETE)
+ * passam direto e invalidam as leituras do repositório afetado.
+ */
+@Slf4j
+public class CachingGitHubConnector implements GitHubConnector {
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    // O corpo guardado já está descomprimido e os headers de rate limit ficam velhos
+    private static final Set<String> STORED_HEADERS_EXCLUDED = caseInsensitive(
+            "Content-Encoding", "Content-Length", "Transfer-Encoding",
+            "X-RateLimit-Limit", "X-RateLimit-Remaining", "X-RateLimit-Reset",
+            "X-RateLimit-Used", "X-RateLimit-Resource");
+
+    static final Set<String> REVALIDATION_HEADERS_EXCLUDED = caseInsensitive(
+            "Content-Encoding", "Content-Length", "Transfer-Encoding");
+
+    private final GitHubConnector delegate;
+    private final GitHubHttpCache cache;
+
+    public CachingGitHubConnector(GitHubConnector delegate, GitHubHttpCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        if (!"GET".equalsIgnoreCase(request.method())) {
+            GitHubConnectorResponse response = delegate.send(request);
+            invalidateWrittenRepository(request.url());
+            return response;
+        }
+
+        String key = GitHubHttpCache.key(request);
+        // O github-api força "no-cache" quando desconfia de um 404 servido de cache
+        boolean bypass = "no-cache".equalsIgnoreCase(request.header("Cache-Control"));
+        GitHubHttpCache.Entry cached = bypass ? null : cache.lookup(key);
+
+        if (cached != null && cache.isFresh(cached)) {
+            cache.recordHit();
+            return new CachedResponse(request, cached.headers(), cached.body());
+        }
+
+        GitHubConnectorResponse response = delegate.send(cached != null ? new ConditionalRequest(request, cached) : request);
+
+        if (cached != null && response.statusCode() == HTTP_NOT_MODIFIED) {
+            Map<String, List<String>> headers = merge(cached.headers(), response.allHeaders());
+            response.close();
+
+            cache.store(key, cached.revalidatedAt(cache.now(), filter(headers, STORED_HEADERS_EXCLUDED)));
+            cache.recordRevalidation();
+            return new CachedResponse(request, headers, cached.body());
+        }
+
+        cache.recordMiss();
+
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (response.statusCode() != HTTP_OK || (etag == null && lastModified == null)) {
+            return response;
+        }
+
+        byte[] body;
+        try (response) {
+            body = response.bodyStream().readAllBytes();
+        }
+
+        Map<String, List<String>> headers = filter(response.allHeaders(), REVALIDATION_HEADERS_EXCLUDED);
+        cache.store(key, cache.newEntry(request.url(), filter(headers, STORED_HEADERS_EXCLUDED), etag, lastModified, body));
+        return new CachedResponse(request, headers, body);
+    }
+
+    // ====================================
+    // Escrita em /repos/{owner}/{repo}/... invalida as leituras daquele repositório
+    // ====================================
+    private void invalidateWrittenRepository(URL url) {
+        String[] segments = GitHubHttpCache.pathOf(url.toString()).split("/");
+        if (segments.length >= 4 && "repos".equals(segments[1])) {
+            int removed = cache.invalidateRepository(segments[2], segments[3]);
+            log.debug("🗄️ {} entradas invalidadas após escrita em {}/{}", removed, segments[2], segments[3]);
+        }
+    }
+
+    private static Map<String, List<String>> merge(Map<String, List<String>> base, Map<String, List<String>> overrides) {
+        Map<String, List<String>> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        base.forEach((name, values) -> {
+            if (name != null) {
+                merged.put(name, values);
+            }
+        });
+        overrides.forEach((name, values) -> {
+            if (name != null && !REVALIDATION_HEADERS_EXCLUDED.contains(name)) {
+                merged.put(name, values);
+            }
+        });
+        return merged;
+    }
+
+    static Map<String, List<String>> filter(Map<String, List<String>> headers, Set<String> excluded) {
+        Map<String, List<String>> filtered = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            // HttpURLConnection expõe a status line com nome null
+            if (name != null && !excluded.contains(name)) {
+                filtered.put(name, values);
+            }
+        });
+        return filtered;
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(List.of(names));
+        return set;
+    }
+
+    // ====================================
+    // Request original + validadores da entrada em cache
+    // ====================================
+    private static final class ConditionalRequest implements GitHubConnectorRequest {
+
+        private final GitHubConnectorRequest request;
+        private final Map<String, List<String>> headers;
+
+        ConditionalRequest(GitHubConnectorRequest request, GitHubHttpCache.Entry cached) {
+            this.request = request;
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.headers.putAll(request.allHeaders());
+            if (cached.etag() != null) {
+                this.headers.put("If-None-Match", List.of(cached.etag()));
+            }
+            if (cached.lastModified() != null) {
+                this.headers.put("If-Modified-Since", List.of(cached.lastModified()));
+            }
+        }
+
+        @Override
+        public String method() {
+            return request.method();
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String header(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : String.join(",", values);
+        }
+
+        @Override
+        public String contentType() {
+            return request.contentType();
+        }
+
+        @Override
+        public InputStream body() {
+            return request.body();
+        }
+
+        @Override
+        public URL url() {
+            return request.url();
+        }
+
+        @Override
+        public boolean hasBody() {
+            return request.hasBody();
+        }
+    }
+
+    // ====================================
+    // Resposta 200 montada a partir dos bytes em cache
+    // ====================================
+    private static final class CachedResponse extends GitHubConnectorResponse {
+
+        private final byte[] body;
+
+        CachedResponse(GitHubConnectorRequest request, Map<String, List<String>> headers, byte[] body) {
+            super(request, HTTP_OK, headers);
+            this.body = body;
+        }
+
+        // Bytes guardados já descomprimidos (Content-Encoding fica fora dos headers)
+        @Override
+        public InputStream bodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            // Nada a liberar: o corpo está em memória
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clientes {@link GitHub} por usuário, para requests que trazem o próprio token.
+ *
+ * Todos os clientes usam o mesmo {@link GitHubConnector} (cache HTTP, rate limit,
+ * métricas e o pool de conexões HTTP/2 do {@code HttpClient}); o que muda é só o
+ * token. O pool é um LRU limitado a {@code max-clients}, e clientes sem uso há
+ * {@code idle-minutes} saem na varredura. Ao sair, a partição de rate limit do
+ * usuário também é descartada.
+ *
+ * O primeiro request de um token chama {@code GET /user}: valida o token e descobre
+ * o login (dono dos repositórios). Requests simultâneos do mesmo token novo fazem
+ * uma só chamada.
+ */
+@Component
+@Slf4j
+public class GitHubClientPool {
+
+    private final GitHubConnector connector;
+    private final GitHubRateLimiter rateLimiter;
+    private final int maxClients;
+    private final Duration idleTimeout;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, PooledClient> clients = new LinkedHashMap<>(64, 0.75f, true);
+    private final SingleFlight<String, GitHubTenant> logins = new SingleFlight<>();
+
+    private final Counter lruEvictions;
+    private final Counter idleEvictions;
+
+    @Autowired
+    public GitHubClientPool(
+            GitHubConnector connector,
+            GitHubRateLimiter rateLimiter,
+            @Value("${spring.github.tenants.max-clients:200}") int maxClients,
+            @Value("${spring.github.tenants.idle-minutes:30}") long idleMinutes,
+            MeterRegistry meterRegistry) {
+        this(connector, rateLimiter, maxClients, Duration.ofMinutes(idleMinutes), meterRegistry, Clock.systemUTC());
+    }
+
+    GitHubClientPool(GitHubConnector connector, GitHubRateLimiter rateLimiter, int maxClients,
+                     Duration idleTimeout, MeterRegistry meterRegistry, Clock clock) {
+        this.connector = connector;
+        this.rateLimiter = rateLimiter;
+        this.maxClients = Math.max(1, maxClients);
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+
+        this.lruEvictions = evictionCounter(meterRegistry, "lru");
+        this.idleEvictions = evictionCounter(meterRegistry, "idle");
+        Gauge.builder("github.tenants.clients", this, GitHubClientPool::size)
+                .description("Clientes GitHub por usuário no pool")
+                .register(meterRegistry);
+
+        log.info("👥 Pool de clientes GitHub: até {} usuários, ociosidade {} min", this.maxClients, idleTimeout.toMinutes());
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("github.tenants.evictions")
+                .description("Clientes GitHub removidos do pool")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // ====================================
+    // Usuário dono do token (GET /user só na primeira vez)
+    // ====================================
+    public GitHubTenant resolve(String token) throws IOException {
+        String id = GitHubTenant.fingerprint(token);
+        PooledClient pooled = touch(id);
+        if (pooled != null) {
+            return pooled.tenant();
+        }
+        return logins.execute(id, () -> open(id, token));
+    }
+
+    // ====================================
+    // Cliente do usuário (recriado se saiu do pool durante um trabalho longo)
+    // ====================================
+    public GitHub client(GitHubTenant tenant) throws IOException {
+        PooledClient pooled = touch(tenant.id());
+        if (pooled != null) {
+            return pooled.github();
+        }
+        return add(tenant, build(tenant.token())).github();
+    }
+
+    // Usuários do pool com um login (webhooks)
+    public synchronized List<GitHubTenant> tenantsOf(String username) {
+        List<GitHubTenant> tenants = new ArrayList<>();
+        for (PooledClient pooled : clients.values()) {
+            if (pooled.tenant().username().equalsIgnoreCase(username)) {
+                tenants.add(pooled.tenant());
+            }
+        }
+        return tenants;
+    }
+
+    public synchronized int size() {
+        return clients.size();
+    }
+
+    // ====================================
+    // Varredura: remove clientes ociosos
+    // ====================================
+    @Scheduled(fixedDelayString = "${spring.github.tenants.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        Instant cutoff = clock.instant().minus(idleTimeout);
+        List<String> evicted = new ArrayList<>();
+
+        synchronized (this) {
+            Iterator<Map.Entry<String, PooledClient>> it = clients.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, PooledClient> entry = it.next();
+                if (entry.getValue().lastUsed().isBefore(cutoff)) {
+                    it.remove();
+                    evicted.add(entry.getKey());
+                }
+            }
+        }
+
+        evicted.forEach(rateLimiter::forget);
+        idleEvictions.increment(evicted.size());
+        if (!evicted.isEmpty()) {
+            log.info("👥 {} clientes GitHub ociosos removidos do pool", evicted.size());
+        }
+    }
+
+    private GitHubTenant open(String id, String token) throws IOException {
+        GitHub github = build(token);
+        String username;
+        try {
+            // Já na partição de rate limit do próprio usuário
+            username = TenantContext.callAs(new GitHubTenant(id, null, token), () -> github.getMyself().getLogin());
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+
+        GitHubTenant tenant = new GitHubTenant(id, username, token);
+        add(tenant, github);
+        log.info("👥 Novo usuário no pool: {}", username);
+        return tenant;
+    }
+
+    private GitHub build(String token) throws IOException {
+        return new GitHubBuilder()
+                .withConnector(connector)
+                .withOAuthToken(token)
+                .build();
+    }
+
+    private synchronized PooledClient touch(String id) {
+        PooledClient pooled = clients.get(id);
+        if (pooled == null) {
+            return null;
+        }
+        PooledClient touched = pooled.usedAt(clock.instant());
+        clients.put(id, touched);
+        return touched;
+    }
+
+    private PooledClient add(GitHubTenant tenant, GitHub github) {
+        PooledClient pooled = new PooledClient(tenant, github, clock.instant());
+        String evicted = null;
+
+        synchronized (this) {
+            clients.put(tenant.id(), pooled);
+            if (clients.size() > maxClients) {
+                Iterator<String> eldest = clients.keySet().iterator();
+                evicted = eldest.next();
+                eldest.remove();
+            }
+        }
+
+        if (evicted != null) {
+            rateLimiter.forget(evicted);
+            lruEvictions.increment();
+        }
+        return pooled;
+    }
+
+    private record PooledClient(GitHubTenant tenant, GitHub github, Instant lastUsed) {
+
+        PooledClient usedAt(Instant instant) {
+            return new PooledClient(tenant, github, instant);
+        }
+    }
+}
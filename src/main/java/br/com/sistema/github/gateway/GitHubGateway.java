@@ -0,0 +1,588 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.kohsuke.github.GHBlob;
+import org.kohsuke.github.GHCommit;
+import org.kohsuke.github.GHCommitQueryBuilder;
+import org.kohsuke.github.GHContent;
+import org.kohsuke.github.GHDirection;
+import org.kohsuke.github.GHIssue;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHRef;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHRepositorySearchBuilder;
+import org.kohsuke.github.GHTree;
+import org.kohsuke.github.GHTreeBuilder;
+import org.kohsuke.github.GHTreeEntry;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.HttpException;
+import org.kohsuke.github.PagedIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.models.CommitInfo;
+import br.com.sistema.github.models.CommitPage;
+import br.com.sistema.github.models.CommitQuery;
+import br.com.sistema.github.models.CommitResult;
+import br.com.sistema.github.models.FileChange;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.IssueInfo;
+import br.com.sistema.github.models.TreeEntry;
+import br.com.sistema.github.models.TreeListing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada tipada de acesso à GitHub API.
+ *
+ * Retorna objetos de domínio ({@link RepoInfo}, {@link FileNode}, {@link FileContent}...)
+ * diretamente, sem formatação de texto. Os endpoints REST consomem esses objetos
+ * como estão, e as {@code @Tool} do assistente só renderizam texto na borda.
+ *
+ * Leituras idênticas em andamento ao mesmo tempo (várias abas abrindo a mesma
+ * listagem, por exemplo) são agrupadas em uma só chamada ({@link SingleFlight});
+ * por isso as listas retornadas são imutáveis.
+ *
+ * As chamadas saem em nome do usuário do request ({@link TenantContext}): o próprio
+ * token, vindo do {@link GitHubClientPool}, ou o usuário configurado.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubGateway {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${spring.github.token}")
+    private String githubToken;
+
+    @Value("${spring.github.username}")
+    private String githubUsername;
+
+    @Value("${spring.github.commit.max-parallel-uploads:4}")
+    private int maxParallelUploads;
+
+    // Cliente único e thread-safe (ver GitHubClientConfig)
+    private final GitHub github;
+    // Usuários que enviam o próprio token (X-GitHub-Token)
+    private final GitHubClientPool clientPool;
+    private final BlobStore blobStore;
+    private final BlobShaIndex blobShaIndex;
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+
+    // ====================================
+    // Cliente do usuário do request (TenantContext) ou o compartilhado,
+    // criado uma vez na subida e aquecido no ApplicationReadyEvent
+    // ====================================
+    private GitHub getGitHub() throws IOException {
+        GitHubTenant tenant = TenantContext.current();
+        if (tenant != null) {
+            return clientPool.client(tenant);
+        }
+        if (githubToken == null || githubToken.isEmpty()) {
+            throw new IOException("❌ github.token não configurado");
+        }
+        if (githubUsername == null || githubUsername.isEmpty()) {
+            throw new IOException("❌ github.username não configurado");
+        }
+        return github;
+    }
+
+    private GHRepository getRepository(String repositoryName) throws IOException {
+        return getGitHub().getRepository(getUsername() + "/" + repositoryName);
+    }
+
+    public String getUsername() {
+        GitHubTenant tenant = TenantContext.current();
+        return tenant != null ? tenant.username() : githubUsername;
+    }
+
+    // ====================================
+    // Lista todos os repositórios do usuário
+    // ====================================
+    public List<RepoInfo> listRepositories() throws IOException {
+        return coalesce("repos", () -> List.copyOf(fetchRepositories()));
+    }
+
+    private List<RepoInfo> fetchRepositories() throws IOException {
+        List<RepoInfo> repos = new ArrayList<>();
+
+        for (GHRepository repo : getGitHub().getUser(getUsername())
+                .listRepositories()
+                .withPageSize(MAX_PAGE_SIZE)) {
+            repos.add(toRepoInfo(repo));
+        }
+
+        return repos;
+    }
+
+    // ====================================
+    // Repositórios alterados desde um instante (Search API, mais recentes primeiro)
+    // ====================================
+    public List<RepoInfo> listRepositoriesUpdatedSince(Instant since) throws IOException {
+        List<RepoInfo> repos = new ArrayList<>();
+
+        for (GHRepository repo : getGitHub().searchRepositories()
+                .user(getUsername())
+                .q("fork:true")
+                .sort(GHRepositorySearchBuilder.Sort.UPDATED)
+                .order(GHDirection.DESC)
+                .list()
+                .withPageSize(MAX_PAGE_SIZE)) {
+            Date updatedAt = repo.getUpdatedAt();
+            // Ordenado por updated_at: o resto da lista já está no catálogo
+            if (updatedAt != null && updatedAt.toInstant().isBefore(since)) {
+                break;
+            }
+            repos.add(toRepoInfo(repo));
+        }
+
+        return repos;
+    }
+
+    // ====================================
+    // Lista conteúdo de um diretório ("/" para a raiz)
+    // ====================================
+    public List<FileNode> listDirectory(String repositoryName, String directoryPath) throws IOException {
+        return coalesce("dir|" + repositoryName + "|" + directoryPath,
+                () -> List.copyOf(fetchDirectory(repositoryName, directoryPath)));
+    }
+
+    private List<FileNode> fetchDirectory(String repositoryName, String directoryPath) throws IOException {
+        List<GHContent> contents = getRepository(repositoryName).getDirectoryContent(directoryPath);
+        List<FileNode> nodes = new ArrayList<>(contents.size());
+
+        for (GHContent content : contents) {
+            nodes.add(FileNode.builder()
+                    .name(content.getName())
+                    .path(content.getPath())
+                    .isDirectory(content.isDirectory())
+                    .size(content.isFile() ? content.getSize() : null)
+                    .sha(content.getSha())
+                    .loaded(!content.isDirectory())
+                    .build());
+        }
+
+        return nodes;
+    }
+
+    // ====================================
+    // Resolve o SHA do commit no topo do branch padrão
+    // ====================================
+    public String getDefaultBranchHead(String repositoryName) throws IOException {
+        return coalesce("head|" + repositoryName, () -> fetchDefaultBranchHead(repositoryName));
+    }
+
+    private String fetchDefaultBranchHead(String repositoryName) throws IOException {
+        GHRepository repo = getRepository(repositoryName);
+        return repo.getBranch(repo.getDefaultBranch()).getSHA1();
+    }
+
+    // ====================================
+    // Busca uma árvore Git (recursiva = uma única chamada para o repo inteiro)
+    // ====================================
+    public TreeListing getTree(String repositoryName, String sha, boolean recursive) throws IOException {
+        return coalesce("tree|" + repositoryName + "|" + sha + "|" + recursive, () -> fetchTree(repositoryName, sha, recursive));
+    }
+
+    private TreeListing fetchTree(String repositoryName, String sha, boolean recursive) throws IOException {
+        GHRepository repo = getRepository(repositoryName);
+        GHTree tree = recursive ? repo.getTreeRecursive(sha, 1) : repo.getTree(sha);
+
+        List<TreeEntry> entries = new ArrayList<>(tree.getTree().size());
+        for (GHTreeEntry entry : tree.getTree()) {
+            entries.add(new TreeEntry(entry.getPath(), entry.getType(), entry.getSha(),
+                    "blob".equals(entry.getType()) ? entry.getSize() : null));
+        }
+
+        return new TreeListing(tree.getSha(), tree.isTruncated(), entries);
+    }
+
+    // ====================================
+    // Lê conteúdo completo de um arquivo (blob store primeiro)
+    // ====================================
+    public FileContent readFile(String repositoryName, String filePath) throws IOException {
+        return coalesce("file|" + repositoryName + "|" + filePath, () -> fetchFile(repositoryName, filePath));
+    }
+
+    private FileContent fetchFile(String repositoryName, String filePath) throws IOException {
+        // Caminho já resolvido pela árvore recente: blob local, sem rede
+        String knownSha = blobShaIndex.lookup(repositoryName, filePath);
+        if (knownSha != null) {
+            Optional<String> stored = blobStore.read(knownSha);
+            if (stored.isPresent()) {
+                return toFileContent(filePath, knownSha, stored.get());
+            }
+        }
+
+        GHContent content = getRepository(repositoryName).getFileContent(filePath);
+
+        if (content.isDirectory()) {
+            throw new IOException(String.format("%s é um diretório, não um arquivo.", filePath));
+        }
+
+        Optional<String> stored = blobStore.read(content.getSha());
+        if (stored.isPresent()) {
+            return toFileContent(filePath, content.getSha(), stored.get());
+        }
+
+        // read() decodifica o base64 ou baixa o raw quando o arquivo passa de 1 MB
+        byte[] bytes;
+        try (InputStream in = content.read()) {
+            bytes = in.readAllBytes();
+        }
+        blobStore.write(content.getSha(), bytes);
+
+        return toFileContent(filePath, content.getSha(), new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    // ====================================
+    // Lê um blob pelo SHA (blob store primeiro)
+    // ====================================
+    public String readBlob(String repositoryName, String sha) throws IOException {
+        Optional<String> stored = blobStore.read(sha);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        byte[] bytes;
+        try (InputStream in = getRepository(repositoryName).getBlob(sha).read()) {
+            bytes = in.readAllBytes();
+        }
+        blobStore.write(sha, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static FileContent toFileContent(String filePath, String sha, String text) {
+        return FileContent.builder()
+                .path(filePath)
+                .sha(sha)
+                .size((long) text.getBytes(StandardCharsets.UTF_8).length)
+                .encoding("utf-8")
+                .content(text)
+                .build();
+    }
+
+    // ====================================
+    // Cria um novo arquivo no repositório
+    // ====================================
+    public void createFile(String repositoryName, String filePath, String content, String commitMessage) throws IOException {
+        getRepository(repositoryName).createContent()
+                .path(filePath)
+                .content(content)
+                .message(commitMessage)
+                .commit();
+        blobShaIndex.invalidate(repositoryName);
+    }
+
+    // ====================================
+    // Atualiza um arquivo existente
+    // ====================================
+    public void updateFile(String repositoryName, String filePath, String content, String commitMessage) throws IOException {
+        getRepository(repositoryName).getFileContent(filePath).update(content, commitMessage);
+        blobShaIndex.invalidate(repositoryName);
+    }
+
+    // ====================================
+    // Deleta um arquivo do repositório
+    // ====================================
+    public void deleteFile(String repositoryName, String filePath, String commitMessage) throws IOException {
+        getRepository(repositoryName).getFileContent(filePath).delete(commitMessage);
+        blobShaIndex.invalidate(repositoryName);
+    }
+
+    // ====================================
+    // Várias alterações em um único commit (Git Data API):
+    // blobs em paralelo -> uma árvore sobre a atual -> um commit -> move o branch
+    // ====================================
+    public CommitResult commitFiles(String repositoryName, String branch, String message,
+                                    List<FileChange> changes) throws IOException {
+        String invalid = FileChange.validate(changes);
+        if (invalid != null) {
+            throw new IllegalArgumentException(invalid);
+        }
+
+        GHRepository repo = getRepository(repositoryName);
+        String targetBranch = branch == null || branch.isBlank() ? repo.getDefaultBranch() : branch.trim();
+        GHRef ref = repo.getRef("heads/" + targetBranch);
+        String headSha = ref.getObject().getSha();
+        GHTree baseTree = repo.getTree(headSha);
+        String baseTreeSha = baseTree.getSha();
+
+        // A operação pedida tem que bater com a árvore atual: CREATE não sobrescreve, UPDATE/DELETE não inventam
+        String conflict = checkAgainstTree(repo, baseTree, changes);
+        if (conflict != null) {
+            throw new IllegalArgumentException(conflict);
+        }
+
+        List<String> blobShas = uploadBlobs(repo, changes);
+
+        GHTreeBuilder tree = repo.createTree().baseTree(baseTreeSha);
+        int created = 0;
+        int updated = 0;
+        int deleted = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            FileChange change = changes.get(i);
+            String path = FileChange.normalize(change.path());
+            switch (change.operation()) {
+                case CREATE -> {
+                    tree.shaEntry(path, blobShas.get(i), false);
+                    created++;
+                }
+                case UPDATE -> {
+                    tree.shaEntry(path, blobShas.get(i), false);
+                    updated++;
+                }
+                case DELETE -> {
+                    tree.delete(path);
+                    deleted++;
+                }
+            }
+        }
+        String treeSha = tree.create().getSha();
+
+        GHCommit commit = repo.createCommit()
+                .message(message)
+                .tree(treeSha)
+                .parent(headSha)
+                .create();
+
+        try {
+            // Sem force: se o branch andou no meio do caminho, nada é sobrescrito
+            ref.updateTo(commit.getSHA1());
+        } catch (HttpException e) {
+            if (e.getResponseCode() == 422) {
+                throw new IOException(String.format(
+                        "O branch %s recebeu outro commit durante a gravação; nada foi alterado, tente novamente", targetBranch), e);
+            }
+            throw e;
+        }
+        blobShaIndex.invalidate(repositoryName);
+
+        log.info("📦 Commit {} em {}/{}: {} criados, {} atualizados, {} removidos",
+                commit.getSHA1(), repositoryName, targetBranch, created, updated, deleted);
+
+        return CommitResult.builder()
+                .sha(commit.getSHA1())
+                .branch(targetBranch)
+                .url(commit.getHtmlUrl() != null ? commit.getHtmlUrl().toString() : null)
+                .created(created)
+                .updated(updated)
+                .deleted(deleted)
+                .build();
+    }
+
+    // ====================================
+    // Confere cada caminho na árvore do head (uma leitura por diretório tocado)
+    // ====================================
+    private String checkAgainstTree(GHRepository repo, GHTree root, List<FileChange> changes) throws IOException {
+        Map<String, GHTree> directories = new HashMap<>();
+        directories.put("", root);
+
+        for (FileChange change : changes) {
+            String path = FileChange.normalize(change.path());
+            boolean exists = isFile(repo, directories, path);
+            switch (change.operation()) {
+                case CREATE -> {
+                    if (exists) {
+                        return String.format("CREATE de %s: o arquivo já existe no branch (use UPDATE)", path);
+                    }
+                }
+                case UPDATE, DELETE -> {
+                    if (!exists) {
+                        return String.format("%s de %s: o arquivo não existe no branch", change.operation(), path);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isFile(GHRepository repo, Map<String, GHTree> directories, String path) throws IOException {
+        int slash = path.lastIndexOf('/');
+        GHTree directory = directory(repo, directories, slash < 0 ? "" : path.substring(0, slash));
+        if (directory == null) {
+            return false;
+        }
+        GHTreeEntry entry = directory.getEntry(path.substring(slash + 1));
+        return entry != null && "blob".equals(entry.getType());
+    }
+
+    private GHTree directory(GHRepository repo, Map<String, GHTree> directories, String dirPath) throws IOException {
+        if (directories.containsKey(dirPath)) {
+            return directories.get(dirPath);
+        }
+        int slash = dirPath.lastIndexOf('/');
+        GHTree parent = directory(repo, directories, slash < 0 ? "" : dirPath.substring(0, slash));
+        GHTreeEntry entry = parent == null ? null : parent.getEntry(dirPath.substring(slash + 1));
+        GHTree tree = entry != null && "tree".equals(entry.getType()) ? repo.getTree(entry.getSha()) : null;
+        directories.put(dirPath, tree);
+        return tree;
+    }
+
+    // ====================================
+    // Envia os blobs em paralelo (virtual threads, limitado); null para DELETE
+    // ====================================
+    private List<String> uploadBlobs(GHRepository repo, List<FileChange> changes) throws IOException {
+        Semaphore permits = new Semaphore(Math.max(1, maxParallelUploads));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = new ArrayList<>(changes.size());
+            for (FileChange change : changes) {
+                if (change.isDelete()) {
+                    futures.add(null);
+                    continue;
+                }
+                futures.add(executor.submit(TenantContext.wrap(() -> {
+                    permits.acquire();
+                    try {
+                        byte[] bytes = change.content().getBytes(StandardCharsets.UTF_8);
+                        GHBlob blob = repo.createBlob().binaryContent(bytes).create();
+                        // Conteúdo já conhecido: leituras seguintes não vão à rede
+                        blobStore.write(blob.getSha(), bytes);
+                        return blob.getSha();
+                    } finally {
+                        permits.release();
+                    }
+                })));
+            }
+
+            List<String> shas = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                shas.add(future == null ? null : await(future, executor));
+            }
+            return shas;
+        }
+    }
+
+    private static String await(Future<String> future, ExecutorService executor) throws IOException {
+        try {
+            return future.get();
+
+        } catch (ExecutionException e) {
+            // Um blob falhou: o commit não sai, os demais envios são abandonados
+            executor.shutdownNow();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Falha ao enviar blob: " + cause.getMessage(), cause);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new IOException("Envio de blobs interrompido", e);
+        }
+    }
+
+    // ====================================
+    // Lista commits com iterador preguiçoso: para após "limit" itens
+    // ====================================
+    public CommitPage listCommits(String repositoryName, CommitQuery query) throws IOException {
+        return coalesce("commits|" + repositoryName + "|" + query, () -> fetchCommits(repositoryName, query));
+    }
+
+    private CommitPage fetchCommits(String repositoryName, CommitQuery query) throws IOException {
+        GHCommitQueryBuilder builder = getRepository(repositoryName).queryCommits()
+                .pageSize(Math.min(query.limit() + 1, MAX_PAGE_SIZE));
+
+        if (query.since() != null) {
+            builder.since(query.since());
+        }
+        if (query.until() != null) {
+            builder.until(query.until());
+        }
+        if (query.path() != null && !query.path().isBlank()) {
+            builder.path(query.path());
+        }
+        // Cursor = SHA do primeiro commit ainda não retornado
+        if (query.cursor() != null && !query.cursor().isBlank()) {
+            builder.from(query.cursor());
+        }
+
+        PagedIterator<GHCommit> iterator = builder.list().iterator();
+        List<CommitInfo> commits = new ArrayList<>(query.limit());
+
+        while (commits.size() < query.limit() && iterator.hasNext()) {
+            GHCommit commit = iterator.next();
+            GHCommit.ShortInfo info = commit.getCommitShortInfo();
+            commits.add(CommitInfo.builder()
+                    .sha(commit.getSHA1())
+                    .message(info.getMessage())
+                    .author(info.getAuthor().getName())
+                    .date(info.getAuthor().getDate())
+                    .build());
+        }
+
+        String nextCursor = iterator.hasNext() ? iterator.next().getSHA1() : null;
+        return new CommitPage(commits, nextCursor);
+    }
+
+    // ====================================
+    // Lista issues abertas de um repositório
+    // ====================================
+    public List<IssueInfo> listOpenIssues(String repositoryName) throws IOException {
+        return coalesce("issues|" + repositoryName, () -> List.copyOf(fetchOpenIssues(repositoryName)));
+    }
+
+    private List<IssueInfo> fetchOpenIssues(String repositoryName) throws IOException {
+        List<GHIssue> issues = getRepository(repositoryName).getIssues(GHIssueState.OPEN);
+        List<IssueInfo> result = new ArrayList<>(issues.size());
+
+        for (GHIssue issue : issues) {
+            result.add(IssueInfo.builder()
+                    .number(issue.getNumber())
+                    .title(issue.getTitle())
+                    .body(issue.getBody())
+                    .createdAt(issue.getCreatedAt())
+                    .url(issue.getHtmlUrl().toString())
+                    .build());
+        }
+
+        return result;
+    }
+
+    // ====================================
+    // Leituras idênticas simultâneas (do mesmo usuário) viram uma única chamada ao GitHub
+    // ====================================
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String key, Callable<T> loader) throws IOException {
+        return (T) flights.execute(TenantContext.scope(key), loader);
+    }
+
+    // ====================================
+    // Converte GHRepository em RepoInfo
+    // ====================================
+    private RepoInfo toRepoInfo(GHRepository repo) throws IOException {
+        return RepoInfo.builder()
+                .name(repo.getName())
+                .description(repo.getDescription())
+                .url(repo.getHtmlUrl().toString())
+                .language(repo.getLanguage())
+                .stars(repo.getStargazersCount())
+                .forks(repo.getForksCount())
+                .openIssues(repo.getOpenIssueCount())
+                .isPrivate(repo.isPrivate())
+                .updatedAt(repo.getUpdatedAt())
+                .build();
+    }
+}
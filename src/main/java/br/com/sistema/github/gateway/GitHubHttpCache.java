@@ -0,0 +1,274 @@
+package br.com.sistema.github.gateway;
+
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache HTTP limitado das leituras feitas na GitHub API.
+ *
+ * Cada entrada guarda o corpo e os validadores (ETag / Last-Modified) da resposta.
+ * Dentro do TTL a entrada é servida sem rede; depois disso é revalidada com um
+ * request condicional, e um 304 não consome a cota de rate limit do GitHub.
+ * A memória é limitada por número de entradas e por bytes (LRU).
+ */
+@Component
+@Slf4j
+public class GitHubHttpCache {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+    private final Counter evictions;
+
+    @Autowired
+    public GitHubHttpCache(
+            @Value("${spring.github.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${spring.github.cache.max-entries:2000}") int maxEntries,
+            @Value("${spring.github.cache.max-bytes:67108864}") long maxBytes,
+            MeterRegistry meterRegistry) {
+        this(Duration.ofSeconds(ttlSeconds), maxEntries, maxBytes, meterRegistry, Clock.systemUTC());
+    }
+
+    GitHubHttpCache(Duration ttl, int maxEntries, long maxBytes, MeterRegistry meterRegistry, Clock clock) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.revalidations = requestCounter(meterRegistry, "revalidated");
+        this.evictions = Counter.builder("github.http.cache.evictions")
+                .description("Entradas removidas do cache HTTP do GitHub por limite de tamanho")
+                .register(meterRegistry);
+
+        Gauge.builder("github.http.cache.entries", this, GitHubHttpCache::size)
+                .description("Entradas no cache HTTP do GitHub")
+                .register(meterRegistry);
+        Gauge.builder("github.http.cache.bytes", this, GitHubHttpCache::bytes)
+                .description("Bytes ocupados pelo cache HTTP do GitHub")
+                .register(meterRegistry);
+
+        log.info("🗄️ Cache HTTP do GitHub: ttl={}s, maxEntries={}, maxBytes={}", ttl.toSeconds(), maxEntries, maxBytes);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("github.http.cache.requests")
+                .description("Leituras do GitHub atendidas pelo cache HTTP")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // ====================================
+    // Chave: URL + Accept + hash do Authorization (nunca o token em claro)
+    // ====================================
+    static String key(GitHubConnectorRequest request) {
+        String authorization = request.header("Authorization");
+        return request.url() + "|" + request.header("Accept") + "|"
+                + (authorization == null ? "anonymous" : sha256(authorization));
+    }
+
+    public synchronized Entry lookup(String key) {
+        return entries.get(key);
+    }
+
+    public boolean isFresh(Entry entry) {
+        return entry.storedAt().plus(ttl).isAfter(clock.instant());
+    }
+
+    public synchronized void store(String key, Entry entry) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.body().length;
+        }
+
+        if (entry.body().length > maxBytes) {
+            return;
+        }
+
+        entries.put(key, entry);
+        totalBytes += entry.body().length;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().body().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // ====================================
+    // Remove entradas cuja URL satisfaça o predicado
+    // ====================================
+    public synchronized int invalidate(Predicate<String> urlMatcher) {
+        int removed = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (urlMatcher.test(entry.url())) {
+                totalBytes -= entry.body().length;
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // ====================================
+    // Invalida todas as leituras de um repositório (/repos/{owner}/{repo}/...)
+    // ====================================
+    public int invalidateRepository(String owner, String repositoryName) {
+        String prefix = "/repos/" + owner + "/" + repositoryName;
+        return invalidate(url -> {
+            String path = pathOf(url);
+            return path.equalsIgnoreCase(prefix) || path.regionMatches(true, 0, prefix + "/", 0, prefix.length() + 1);
+        });
+    }
+
+    // ====================================
+    // Invalida só alguns caminhos de um repositório (webhooks): exatos
+    // ("" = o próprio repo, "contents/src/App.java") ou prefixos ("commits", "issues")
+    // ====================================
+    public int invalidateRepositoryPaths(String owner, String repositoryName, Set<String> exactPaths, Set<String> pathPrefixes) {
+        String prefix = "/repos/" + owner + "/" + repositoryName;
+        return invalidate(url -> {
+            String path = pathOf(url);
+            if (!path.regionMatches(true, 0, prefix, 0, prefix.length())
+                    || (path.length() > prefix.length() && path.charAt(prefix.length()) != '/')) {
+                return false;
+            }
+
+            String rest = decode(trimSlashes(path.substring(prefix.length())));
+            if (exactPaths.contains(rest)) {
+                return true;
+            }
+            for (String pathPrefix : pathPrefixes) {
+                if (rest.equals(pathPrefix) || rest.startsWith(pathPrefix + "/")) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    // ====================================
+    // Invalida as listagens/buscas de repositórios (repo criado, removido, renomeado...)
+    // ====================================
+    public int invalidateRepositoryListings(String owner) {
+        return invalidate(url -> {
+            String path = pathOf(url);
+            return path.equals("/user/repos")
+                    || path.equalsIgnoreCase("/users/" + owner + "/repos")
+                    || path.equalsIgnoreCase("/orgs/" + owner + "/repos")
+                    || path.startsWith("/search/repositories");
+        });
+    }
+
+    Entry newEntry(URL url, Map<String, List<String>> headers, String etag, String lastModified, byte[] body) {
+        return new Entry(url.toString(), etag, lastModified, headers, body, clock.instant());
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return totalBytes;
+    }
+
+    static String pathOf(String url) {
+        int schemeEnd = url.indexOf("://");
+        int pathStart = url.indexOf('/', schemeEnd < 0 ? 0 : schemeEnd + 3);
+        if (pathStart < 0) {
+            return "/";
+        }
+        int queryStart = url.indexOf('?', pathStart);
+        return queryStart < 0 ? url.substring(pathStart) : url.substring(pathStart, queryStart);
+    }
+
+    private static String trimSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
+    // Decodifica %XX sem transformar '+' em espaço (é um caractere válido em caminhos)
+    private static String decode(String path) {
+        return path.indexOf('%') < 0 ? path : URLDecoder.decode(path.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    public record Entry(
+            String url,
+            String etag,
+            String lastModified,
+            Map<String, List<String>> headers,
+            byte[] body,
+            Instant storedAt
+    ) {
+        Entry revalidatedAt(Instant now, Map<String, List<String>> refreshedHeaders) {
+            return new Entry(url, etag, lastModified, refreshedHeaders, body, now);
+        }
+    }
+
+    Instant now() {
+        return clock.instant();
+    }
+}
@@ -0,0 +1,377 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agenda as chamadas ao GitHub respeitando a cota da API.
+ *
+ * Cada request pede uma vaga em {@link #acquire} antes de sair:
+ * <ul>
+ *   <li>um token bucket suaviza rajadas ({@code requests-per-second} / {@code burst});</li>
+ *   <li>a cota restante ({@code X-RateLimit-Remaining} / {@code Reset}) é acompanhada por
+ *       recurso (core, search, graphql); com a cota zerada, todos esperam o reset;</li>
+ *   <li>chamadas {@link GitHubRequestPriority#BATCH} cedem a vez às interativas e param
+ *       quando a cota cai abaixo de {@code batch-reserve};</li>
+ *   <li>um limite secundário (403/429 com Retry-After ou mensagem de "secondary rate limit")
+ *       segura todas as chamadas pelo tempo pedido, com backoff exponencial se repetir,
+ *       e reduz a taxa do bucket pela metade; respostas normais a recuperam aos poucos.</li>
+ * </ul>
+ * Uma espera maior que {@code max-wait-seconds} falha na hora com {@link IOException}.
+ *
+ * A cota do GitHub é por token: cada usuário ({@link TenantContext#id()}) tem a sua
+ * partição, com bucket, cota e backoff próprios. Um usuário que esgota a cota ou
+ * leva limite secundário não atrasa os demais. Os gauges mostram o usuário padrão.
+ */
+@Component
+@Slf4j
+public class GitHubRateLimiter {
+
+    private static final int HTTP_FORBIDDEN = 403;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final Duration MAX_SECONDARY_BACKOFF = Duration.ofMinutes(15);
+
+    private final double maxRatePerSecond;
+    private final int burst;
+    private final int batchReserve;
+    private final Duration maxWait;
+    private final Duration secondaryBackoff;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    private final Counter secondaryLimits;
+
+    @Autowired
+    public GitHubRateLimiter(
+            @Value("${spring.github.ratelimit.requests-per-second:10}") double requestsPerSecond,
+            @Value("${spring.github.ratelimit.burst:20}") int burst,
+            @Value("${spring.github.ratelimit.batch-reserve:500}") int batchReserve,
+            @Value("${spring.github.ratelimit.max-wait-seconds:60}") long maxWaitSeconds,
+            @Value("${spring.github.ratelimit.secondary-backoff-seconds:60}") long secondaryBackoffSeconds,
+            MeterRegistry meterRegistry) {
+        this(requestsPerSecond, burst, batchReserve, Duration.ofSeconds(maxWaitSeconds),
+                Duration.ofSeconds(secondaryBackoffSeconds), meterRegistry, Clock.systemUTC());
+    }
+
+    GitHubRateLimiter(double requestsPerSecond, int burst, int batchReserve, Duration maxWait,
+                      Duration secondaryBackoff, MeterRegistry meterRegistry, Clock clock) {
+        this.maxRatePerSecond = requestsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.batchReserve = batchReserve;
+        this.maxWait = maxWait;
+        this.secondaryBackoff = secondaryBackoff;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+
+        this.secondaryLimits = Counter.builder("github.ratelimit.secondary")
+                .description("Respostas de limite secundário (abuse) recebidas do GitHub")
+                .register(meterRegistry);
+
+        Partition defaults = partition(TenantContext.DEFAULT);
+        Gauge.builder("github.ratelimit.bucket.tokens", defaults, partition -> partition.tokens)
+                .description("Vagas disponíveis no token bucket de chamadas ao GitHub")
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.rate", defaults, partition -> partition.ratePerSecond)
+                .description("Taxa atual (adaptativa) de chamadas ao GitHub por segundo")
+                .register(meterRegistry);
+
+        defaults.budget("core");
+        defaults.budget("search");
+
+        log.info("🚦 Rate limit do GitHub: {}/s, burst={}, reserva interativa={}", requestsPerSecond, burst, batchReserve);
+    }
+
+    // ====================================
+    // Recurso da cota do GitHub a que a URL pertence
+    // ====================================
+    public static String resourceOf(URL url) {
+        String path = GitHubHttpCache.pathOf(url.toString());
+        if (path.startsWith("/search/")) {
+            return "search";
+        }
+        if (path.startsWith("/graphql")) {
+            return "graphql";
+        }
+        return "core";
+    }
+
+    // ====================================
+    // Espera uma vaga para o request (ou falha se a espera passar do máximo)
+    // ====================================
+    public void acquire(String tenant, String resource, GitHubRequestPriority priority) throws IOException {
+        Partition partition = partition(tenant);
+        Budget budget = partition.budget(resource);
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + maxWait.toNanos();
+        boolean interactive = priority == GitHubRequestPriority.INTERACTIVE;
+
+        partition.lock.lock();
+        if (interactive) {
+            partition.interactiveWaiting++;
+        }
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                partition.refill(now);
+
+                long waitNanos = waitNanos(partition, budget, priority, now);
+                if (waitNanos <= 0) {
+                    partition.tokens -= 1;
+                    budget.consume();
+                    partition.changed.signalAll();
+                    break;
+                }
+
+                if (now + waitNanos > deadlineNanos) {
+                    throw new IOException(String.format(
+                            "Limite de requisições do GitHub (%s): seria preciso esperar %d s (máximo %d s)",
+                            resource, TimeUnit.NANOSECONDS.toSeconds(waitNanos), maxWait.toSeconds()));
+                }
+
+                partition.changed.awaitNanos(waitNanos);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido aguardando o limite de requisições do GitHub", e);
+
+        } finally {
+            if (interactive) {
+                partition.interactiveWaiting--;
+            }
+            partition.lock.unlock();
+        }
+
+        Timer.builder("github.ratelimit.wait")
+                .description("Tempo de espera por uma vaga antes de chamar o GitHub")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // ====================================
+    // Atualiza cota / backoff a partir da resposta
+    // ====================================
+    public void onResponse(String tenant, String resource, int statusCode, UnaryOperator<String> header, String errorBody) {
+        Partition partition = partition(tenant);
+        Budget budget = partition.budget(resource);
+
+        partition.lock.lock();
+        try {
+            budget.update(parseLong(header.apply("X-RateLimit-Limit")),
+                    parseLong(header.apply("X-RateLimit-Remaining")),
+                    parseLong(header.apply("X-RateLimit-Reset")));
+
+            if (isSecondaryLimit(statusCode, header, errorBody)) {
+                partition.consecutiveSecondary++;
+                long retryAfterSeconds = parseLong(header.apply("Retry-After"));
+                Duration exponential = secondaryBackoff.multipliedBy(1L << Math.min(partition.consecutiveSecondary - 1, 10));
+                Duration backoff = retryAfterSeconds >= 0 ? Duration.ofSeconds(retryAfterSeconds) : exponential;
+                if (backoff.compareTo(MAX_SECONDARY_BACKOFF) > 0) {
+                    backoff = MAX_SECONDARY_BACKOFF;
+                }
+
+                partition.backoffUntilNanos = Math.max(partition.backoffUntilNanos, System.nanoTime() + backoff.toNanos());
+                partition.ratePerSecond = Math.max(maxRatePerSecond / 16, partition.ratePerSecond / 2);
+                secondaryLimits.increment();
+                log.warn("🚦 Limite secundário do GitHub ({}, {}): pausa de {} s, taxa reduzida para {}/s",
+                        resource, tenant, backoff.toSeconds(), String.format("%.2f", partition.ratePerSecond));
+
+            } else if (statusCode < 400) {
+                partition.consecutiveSecondary = 0;
+                partition.ratePerSecond = Math.min(maxRatePerSecond, partition.ratePerSecond + maxRatePerSecond / 20);
+            }
+
+            partition.changed.signalAll();
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    // ====================================
+    // Usuário saiu do pool de clientes: a partição é recriada se ele voltar
+    // ====================================
+    public void forget(String tenant) {
+        if (!TenantContext.DEFAULT.equals(tenant)) {
+            partitions.remove(tenant);
+        }
+    }
+
+    // Limite primário esgotado (remaining = 0) é tratado pela cota; o resto é secundário
+    private static boolean isSecondaryLimit(int statusCode, UnaryOperator<String> header, String errorBody) {
+        if (statusCode != HTTP_FORBIDDEN && statusCode != HTTP_TOO_MANY_REQUESTS) {
+            return false;
+        }
+        if ("0".equals(header.apply("X-RateLimit-Remaining"))) {
+            return false;
+        }
+        if (statusCode == HTTP_TOO_MANY_REQUESTS || header.apply("Retry-After") != null) {
+            return true;
+        }
+        return errorBody != null && (errorBody.contains("secondary rate limit") || errorBody.contains("abuse"));
+    }
+
+    // ====================================
+    // Quanto o request ainda precisa esperar (0 = pode sair)
+    // ====================================
+    private long waitNanos(Partition partition, Budget budget, GitHubRequestPriority priority, long now) {
+        if (partition.backoffUntilNanos > now) {
+            return partition.backoffUntilNanos - now;
+        }
+
+        long untilReset = budget.nanosUntilReset(clock);
+        if (budget.isKnown() && untilReset > 0) {
+            if (budget.remaining <= 0) {
+                return untilReset;
+            }
+            if (priority == GitHubRequestPriority.BATCH && budget.remaining <= batchReserve) {
+                return untilReset;
+            }
+        }
+
+        long nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / partition.ratePerSecond);
+        if (partition.tokens < 1) {
+            return (long) ((1 - partition.tokens) * nanosPerToken);
+        }
+
+        // Há request interativo na fila: o lote espera a próxima vaga
+        if (priority == GitHubRequestPriority.BATCH && partition.interactiveWaiting > 0) {
+            return nanosPerToken;
+        }
+
+        return 0;
+    }
+
+    private Partition partition(String tenant) {
+        return partitions.computeIfAbsent(tenant == null ? TenantContext.DEFAULT : tenant, Partition::new);
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ====================================
+    // Estado de um usuário: bucket, backoff e cota por recurso
+    // ====================================
+    private final class Partition {
+
+        private final String tenant;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+        private volatile double tokens = burst;
+        private volatile double ratePerSecond = maxRatePerSecond;
+        private long lastRefillNanos = System.nanoTime();
+        private long backoffUntilNanos;
+        private int consecutiveSecondary;
+        private int interactiveWaiting;
+
+        Partition(String tenant) {
+            this.tenant = tenant;
+        }
+
+        void refill(long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            tokens = Math.min(burst, tokens + elapsedSeconds * ratePerSecond);
+            lastRefillNanos = now;
+        }
+
+        Budget budget(String resource) {
+            return budgets.computeIfAbsent(resource, name -> {
+                Budget budget = new Budget();
+                // Um gauge por usuário explodiria a cardinalidade: só o padrão é exportado
+                if (TenantContext.DEFAULT.equals(tenant)) {
+                    registerGauges(name, budget);
+                }
+                return budget;
+            });
+        }
+    }
+
+    private void registerGauges(String resource, Budget budget) {
+        Gauge.builder("github.ratelimit.remaining", budget, b -> b.isKnown() ? b.remaining : Double.NaN)
+                .description("Requisições restantes na cota do GitHub (X-RateLimit-Remaining)")
+                .tag("resource", resource)
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.limit", budget, b -> b.limit >= 0 ? b.limit : Double.NaN)
+                .description("Tamanho da cota do GitHub (X-RateLimit-Limit)")
+                .tag("resource", resource)
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.reset.seconds", budget,
+                        b -> b.isKnown() ? TimeUnit.NANOSECONDS.toSeconds(Math.max(0, b.nanosUntilReset(clock))) : Double.NaN)
+                .description("Segundos até a cota do GitHub ser renovada")
+                .tag("resource", resource)
+                .register(meterRegistry);
+    }
+
+    // ====================================
+    // Cota de um recurso (valores -1 = ainda desconhecidos)
+    // ====================================
+    private static final class Budget {
+
+        private volatile long limit = -1;
+        private volatile long remaining = -1;
+        private volatile long resetEpochSeconds = -1;
+
+        boolean isKnown() {
+            return remaining >= 0 && resetEpochSeconds >= 0;
+        }
+
+        // Desconta na hora para requests simultâneos não estourarem a cota antes dos headers chegarem
+        void consume() {
+            if (remaining > 0) {
+                remaining--;
+            }
+        }
+
+        void update(long limit, long remaining, long resetEpochSeconds) {
+            if (remaining < 0 || resetEpochSeconds < 0) {
+                return;
+            }
+            // Respostas fora de ordem: na mesma janela vale o menor restante
+            if (resetEpochSeconds > this.resetEpochSeconds) {
+                this.remaining = remaining;
+            } else if (resetEpochSeconds == this.resetEpochSeconds) {
+                this.remaining = Math.min(this.remaining, remaining);
+            } else {
+                return;
+            }
+            this.resetEpochSeconds = resetEpochSeconds;
+            if (limit >= 0) {
+                this.limit = limit;
+            }
+        }
+
+        long nanosUntilReset(Clock clock) {
+            return TimeUnit.MILLISECONDS.toNanos(resetEpochSeconds * 1000 - clock.millis());
+        }
+    }
+}
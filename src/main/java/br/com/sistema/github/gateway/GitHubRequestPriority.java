@@ -0,0 +1,35 @@
+package br.com.sistema.github.gateway;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Prioridade das chamadas ao GitHub feitas pela thread atual.
+ *
+ * O padrão é {@link #INTERACTIVE} (chat, endpoints de navegação). Trabalho em lote,
+ * como a busca de arquivos do /analyze, roda dentro de {@link #runAs} com
+ * {@link #BATCH}: cede a vez às chamadas interativas e para antes de esgotar a cota.
+ */
+public enum GitHubRequestPriority {
+
+    INTERACTIVE,
+    BATCH;
+
+    private static final ThreadLocal<GitHubRequestPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static GitHubRequestPriority current() {
+        return CURRENT.get();
+    }
+
+    // ====================================
+    // Executa a tarefa com a prioridade informada (restaura a anterior no final)
+    // ====================================
+    public static <T> T runAs(GitHubRequestPriority priority, Callable<T> task) throws Exception {
+        GitHubRequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return task.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
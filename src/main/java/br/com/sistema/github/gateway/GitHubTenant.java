@@ -0,0 +1,30 @@
+package br.com.sistema.github.gateway;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Usuário do GitHub atendido por um request: o login e o token que ele enviou.
+ *
+ * O {@code id} é um fingerprint do token (nunca o token) e é o que aparece nas
+ * chaves de cache, nas partições de rate limit e nos logs.
+ */
+public record GitHubTenant(String id, String username, String token) {
+
+    public static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "t" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    // O token não pode ir parar em log
+    @Override
+    public String toString() {
+        return "GitHubTenant[" + username + "/" + id + "]";
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * {@link GitHubConnector} sobre um {@link HttpClient} compartilhado ({@code java.net.http}).
+ *
+ * O cliente negocia HTTP/2 com a API (várias chamadas simultâneas multiplexadas
+ * na mesma conexão TLS) e mantém as conexões no pool entre os requests. Aqui
+ * entram o timeout de resposta por request e o gzip; o timeout de conexão e a
+ * versão do protocolo vêm do próprio cliente (ver {@code GitHubClientConfig}).
+ */
+public class JdkHttpGitHubConnector implements GitHubConnector {
+
+    // Headers controlados pelo próprio HttpClient
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(Set.of("Connection", "Content-Length", "Expect", "Host", "Upgrade", "Accept-Encoding"));
+    }
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+
+    public JdkHttpGitHubConnector(HttpClient client, Duration readTimeout) {
+        this.client = client;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(request))
+                .timeout(readTimeout)
+                .header("Accept-Encoding", "gzip");
+
+        request.allHeaders().forEach((name, values) -> {
+            if (name != null && !RESTRICTED_HEADERS.contains(name)) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+
+        // Corpos da API são pequenos (JSON, blobs em base64): enviados com Content-Length
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+        if (request.hasBody()) {
+            try (InputStream in = request.body()) {
+                body = HttpRequest.BodyPublishers.ofByteArray(in.readAllBytes());
+            }
+        }
+        builder.method(request.method(), body);
+
+        try {
+            HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            return new JdkHttpResponse(request, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request ao GitHub interrompido: " + request.url());
+        }
+    }
+
+    private static URI toUri(GitHubConnectorRequest request) throws IOException {
+        try {
+            return request.url().toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("URL inválida: " + request.url(), e);
+        }
+    }
+
+    private static final class JdkHttpResponse extends GitHubConnectorResponse {
+
+        private final HttpResponse<InputStream> response;
+        private InputStream body;
+
+        JdkHttpResponse(GitHubConnectorRequest request, HttpResponse<InputStream> response) {
+            super(request, response.statusCode(), response.headers().map());
+            this.response = response;
+        }
+
+        // O HttpClient não descomprime: pedimos gzip, então o corpo passa pelo wrapStream (Content-Encoding)
+        @Override
+        public synchronized InputStream bodyStream() throws IOException {
+            if (body == null) {
+                body = wrapStream(response.body());
+            }
+            return body;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            // Consumir/fechar o corpo devolve a conexão (HTTP/1.1) ou o stream (HTTP/2)
+            response.body().close();
+        }
+    }
+}
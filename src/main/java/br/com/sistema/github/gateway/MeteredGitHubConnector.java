@@ -0,0 +1,101 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link GitHubConnector} que mede cada request HTTP que de fato sai para o GitHub.
+ *
+ * Fica no fim da cadeia (abaixo do cache e do rate limit): leituras servidas do
+ * cache e a espera por vaga não entram na medição. O endpoint vira um modelo
+ * ({@code /repos/{owner}/{repo}/contents}) para manter a cardinalidade baixa.
+ */
+public class MeteredGitHubConnector implements GitHubConnector {
+
+    static final String METRIC = "github.api.requests";
+
+    private static final Pattern RESOURCE = Pattern.compile("[a-z_]+");
+
+    private final GitHubConnector delegate;
+    private final MeterRegistry meterRegistry;
+
+    public MeteredGitHubConnector(GitHubConnector delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        try {
+            GitHubConnectorResponse response = delegate.send(request);
+            status = String.valueOf(response.statusCode());
+            return response;
+        } finally {
+            Timer.builder(METRIC)
+                    .description("Requests HTTP enviados à GitHub API")
+                    .tag("method", request.method().toUpperCase(Locale.ROOT))
+                    .tag("endpoint", endpointOf(GitHubHttpCache.pathOf(request.url().toString())))
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // ====================================
+    // Modelo do endpoint: /repos/octo/demo/git/trees/abc -> /repos/{owner}/{repo}/git/trees/*
+    // ====================================
+    static String endpointOf(String path) {
+        String[] segments = path.startsWith("/") ? path.substring(1).split("/") : path.split("/");
+        if (segments.length == 0 || segments[0].isEmpty()) {
+            return "/";
+        }
+
+        StringBuilder endpoint = new StringBuilder().append('/').append(resource(segments[0]));
+        int next = switch (segments[0]) {
+            case "repos" -> appendParameters(endpoint, segments, "{owner}", "{repo}");
+            case "users" -> appendParameters(endpoint, segments, "{user}");
+            case "orgs" -> appendParameters(endpoint, segments, "{org}");
+            default -> 1;
+        };
+
+        // Um recurso fixo depois dos parâmetros (e o subrecurso da Git Data API)
+        if (next < segments.length && RESOURCE.matcher(segments[next]).matches()) {
+            endpoint.append('/').append(segments[next]);
+            if ("git".equals(segments[next]) && next + 1 < segments.length && RESOURCE.matcher(segments[next + 1]).matches()) {
+                endpoint.append('/').append(segments[++next]);
+            }
+            next++;
+        }
+        if (next < segments.length) {
+            endpoint.append("/*");
+        }
+        return endpoint.toString();
+    }
+
+    private static int appendParameters(StringBuilder endpoint, String[] segments, String... names) {
+        int index = 1;
+        for (String name : names) {
+            if (index >= segments.length) {
+                break;
+            }
+            endpoint.append('/').append(name);
+            index++;
+        }
+        return index;
+    }
+
+    private static String resource(String segment) {
+        return RESOURCE.matcher(segment).matches() ? segment : "*";
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.sistema.github.gateway;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * {@link GitHubConnector} que passa cada request pelo {@link GitHubRateLimiter}.
+ *
+ * Fica abaixo do cache: leituras servidas pelo {@link CachingGitHubConnector} não
+ * consomem vaga. A prioridade e o usuário (partição da cota) vêm da thread:
+ * {@link GitHubRequestPriority#current()} e {@link TenantContext#id()}.
+ * Respostas 403/429 têm o corpo lido para distinguir limite secundário de falta de
+ * permissão; o corpo é devolvido intacto a quem chamou.
+ */
+public class RateLimitingGitHubConnector implements GitHubConnector {
+
+    private final GitHubConnector delegate;
+    private final GitHubRateLimiter limiter;
+
+    public RateLimitingGitHubConnector(GitHubConnector delegate, GitHubRateLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        String resource = GitHubRateLimiter.resourceOf(request.url());
+        String tenant = TenantContext.id();
+        limiter.acquire(tenant, resource, GitHubRequestPriority.current());
+
+        GitHubConnectorResponse response = delegate.send(request);
+
+        int status = response.statusCode();
+        if (status != 403 && status != 429) {
+            limiter.onResponse(tenant, resource, status, response::header, null);
+            return response;
+        }
+
+        byte[] body;
+        try (response) {
+            body = response.bodyStream().readAllBytes();
+        }
+
+        BufferedResponse buffered = new BufferedResponse(request, status,
+                CachingGitHubConnector.filter(response.allHeaders(), CachingGitHubConnector.REVALIDATION_HEADERS_EXCLUDED), body);
+        limiter.onResponse(tenant, resource, status, buffered::header, new String(body, StandardCharsets.UTF_8));
+        return buffered;
+    }
+
+    // ====================================
+    // Resposta de erro já lida, servida da memória
+    // ====================================
+    private static final class BufferedResponse extends GitHubConnectorResponse {
+
+        private final byte[] body;
+
+        BufferedResponse(GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        // Lido de bodyStream() do delegate: já descomprimido, sem Content-Encoding
+        @Override
+        public InputStream bodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            // Nada a liberar: o corpo está em memória
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.sistema.github.gateway;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrupa chamadas idênticas simultâneas em uma só ("single flight").
+ *
+ * O primeiro a pedir uma chave executa o carregamento na própria thread; quem
+ * pedir a mesma chave enquanto ele está em andamento espera o mesmo resultado
+ * (ou a mesma exceção). Nada fica guardado depois que a chamada termina: isto
+ * não é um cache, só evita trabalho duplicado em paralelo.
+ *
+ * O valor é compartilhado entre os chamadores, então deve ser imutável.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    public V execute(K key, Callable<? extends V> loader) throws IOException {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+
+        try {
+            call.complete(loader.call());
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, call);
+        }
+        return await(call);
+    }
+
+    // Chamadas que reaproveitaram uma execução em andamento
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) throws IOException {
+        try {
+            return call.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando chamada compartilhada");
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
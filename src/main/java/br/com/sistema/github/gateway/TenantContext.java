@@ -0,0 +1,89 @@
+package br.com.sistema.github.gateway;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Usuário do GitHub em nome de quem a thread atual trabalha.
+ *
+ * Vazio (null) = usuário padrão, o de {@code spring.github.token}/{@code username}.
+ * O filtro de requests preenche o contexto a partir do header {@code X-GitHub-Token};
+ * trabalho que troca de thread (virtual threads do /analyze, jobs, requests
+ * assíncronos) leva o contexto junto com {@link #wrap}.
+ *
+ * Caches chaveados pelo nome do repositório usam {@link #scope} para que dois
+ * usuários com um repositório de mesmo nome nunca vejam os dados um do outro.
+ * Toda chave leva o prefixo, inclusive a do usuário padrão: um id vindo do
+ * cliente (ex: conversationId) nunca consegue se passar pela chave de outro.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT = "default";
+
+    private static final ThreadLocal<GitHubTenant> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static GitHubTenant current() {
+        return CURRENT.get();
+    }
+
+    // Identificador da partição (rate limit, métricas): "default" para o usuário padrão
+    public static String id() {
+        GitHubTenant tenant = CURRENT.get();
+        return tenant == null ? DEFAULT : tenant.id();
+    }
+
+    // ====================================
+    // Chave de cache do usuário atual ("default:" para o usuário padrão)
+    // ====================================
+    public static String scope(String key) {
+        return id() + ":" + key;
+    }
+
+    // ====================================
+    // Entra / sai do contexto (quem entra restaura o anterior no finally)
+    // ====================================
+    public static GitHubTenant enter(GitHubTenant tenant) {
+        GitHubTenant previous = CURRENT.get();
+        CURRENT.set(tenant);
+        return previous;
+    }
+
+    public static void restore(GitHubTenant previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T callAs(GitHubTenant tenant, Callable<T> task) throws Exception {
+        GitHubTenant previous = enter(tenant);
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // ====================================
+    // Tarefa que roda em outra thread com o usuário de quem a criou
+    // ====================================
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        GitHubTenant tenant = CURRENT.get();
+        return () -> callAs(tenant, task);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        GitHubTenant tenant = CURRENT.get();
+        return () -> {
+            GitHubTenant previous = enter(tenant);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
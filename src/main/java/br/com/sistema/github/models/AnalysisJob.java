@@ -0,0 +1,47 @@
+package br.com.sistema.github.models;
+
+import java.time.Instant;
+
+import br.com.sistema.github.dtos.request.AnalyzeGitHubFilesRequest;
+import lombok.Builder;
+
+/**
+ * Estado de um job de análise assíncrona. É o que o cliente consulta
+ * (GET /jobs/{id}) e também o que fica gravado em disco, um arquivo por job.
+ *
+ * {@code phase}/{@code completed}/{@code total} descrevem a fase atual
+ * (arquivos buscados, lotes analisados ou consolidação). {@code tenant} é o
+ * fingerprint do token de quem enviou (null = usuário configurado); o token em
+ * si nunca vai para o disco.
+ */
+@Builder(toBuilder = true)
+public record AnalysisJob(
+        String id,
+        AnalyzeGitHubFilesRequest request,
+        String tenant,
+        Status status,
+        String phase,
+        int completed,
+        int total,
+        int filesFetched,
+        int filesFailed,
+        String result,
+        String error,
+        int attempts,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Instant deadline
+) {
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED, EXPIRED;
+
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    public boolean isFinished() {
+        return status.isFinished();
+    }
+}
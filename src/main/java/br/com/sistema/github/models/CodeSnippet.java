@@ -0,0 +1,12 @@
+package br.com.sistema.github.models;
+
+import lombok.Builder;
+
+@Builder
+public record CodeSnippet(
+        String path,
+        int startLine,
+        int endLine,
+        double score,
+        String content
+) {}
@@ -0,0 +1,13 @@
+package br.com.sistema.github.models;
+
+import java.util.Date;
+
+import lombok.Builder;
+
+@Builder
+public record CommitInfo(
+        String sha,
+        String message,
+        String author,
+        Date date
+) {}
@@ -0,0 +1,12 @@
+package br.com.sistema.github.models;
+
+import java.util.List;
+
+public record CommitPage(
+        List<CommitInfo> commits,
+        String nextCursor
+) {
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.sistema.github.models;
+
+import java.util.Date;
+
+import lombok.Builder;
+
+@Builder
+public record CommitQuery(
+        int limit,
+        Date since,
+        Date until,
+        String path,
+        String cursor
+) {}
@@ -0,0 +1,13 @@
+package br.com.sistema.github.models;
+
+import lombok.Builder;
+
+@Builder
+public record CommitResult(
+        String sha,
+        String branch,
+        String url,
+        int created,
+        int updated,
+        int deleted
+) {}
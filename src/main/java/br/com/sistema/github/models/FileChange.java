@@ -0,0 +1,63 @@
+package br.com.sistema.github.models;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import dev.langchain4j.model.output.structured.Description;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Uma alteração de arquivo dentro de um commit em lote.
+ * {@code content} é obrigatório para CREATE e UPDATE e ignorado em DELETE.
+ */
+@Schema(description = "Alteração de um arquivo no commit")
+public record FileChange(
+        @Schema(description = "Tipo de alteração", example = "UPDATE")
+        @Description("CREATE, UPDATE ou DELETE")
+        Operation operation,
+
+        @Schema(description = "Caminho do arquivo", example = "src/main/java/App.java")
+        @Description("Caminho do arquivo a partir da raiz do repositório")
+        String path,
+
+        @Schema(description = "Conteúdo completo do arquivo (CREATE/UPDATE)")
+        @Description("Conteúdo completo do arquivo; vazio para DELETE")
+        String content
+) {
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    public boolean isDelete() {
+        return operation == Operation.DELETE;
+    }
+
+    // ====================================
+    // Valida o lote: devolve o motivo da recusa ou null se está ok
+    // ====================================
+    public static String validate(List<FileChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return "Nenhuma alteração informada";
+        }
+
+        Set<String> paths = new HashSet<>();
+        for (FileChange change : changes) {
+            if (change == null || change.operation() == null || change.path() == null || change.path().isBlank()) {
+                return "Toda alteração precisa de operation e path";
+            }
+            if (!change.isDelete() && change.content() == null) {
+                return String.format("%s de %s sem conteúdo", change.operation(), change.path());
+            }
+            if (!paths.add(normalize(change.path()))) {
+                return String.format("%s aparece mais de uma vez no lote", change.path());
+            }
+        }
+        return null;
+    }
+
+    public static String normalize(String path) {
+        String trimmed = path.trim();
+        return trimmed.startsWith("/") ? trimmed.substring(1) : trimmed;
+    }
+}
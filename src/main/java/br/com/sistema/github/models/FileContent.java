@@ -0,0 +1,12 @@
+package br.com.sistema.github.models;
+
+import lombok.Builder;
+
+@Builder
+public record FileContent(
+        String path,
+        String sha,
+        Long size,
+        String encoding,
+        String content
+) {}
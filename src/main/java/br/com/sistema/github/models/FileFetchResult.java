@@ -0,0 +1,19 @@
+package br.com.sistema.github.models;
+
+public record FileFetchResult(
+        String path,
+        FileContent file,
+        String error
+) {
+    public static FileFetchResult success(String path, FileContent file) {
+        return new FileFetchResult(path, file, null);
+    }
+
+    public static FileFetchResult failure(String path, String error) {
+        return new FileFetchResult(path, null, error);
+    }
+
+    public boolean isSuccess() {
+        return file != null;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.sistema.github.models;
+
+import java.util.Date;
+
+import lombok.Builder;
+
+@Builder
+public record IssueInfo(
+        Integer number,
+        String title,
+        String body,
+        Date createdAt,
+        String url
+) {}
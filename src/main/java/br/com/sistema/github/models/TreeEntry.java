@@ -0,0 +1,16 @@
+package br.com.sistema.github.models;
+
+public record TreeEntry(
+        String path,
+        String type,
+        String sha,
+        Long size
+) {
+    public boolean isTree() {
+        return "tree".equals(type);
+    }
+
+    public boolean isBlob() {
+        return "blob".equals(type);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.sistema.github.models;
+
+import java.util.List;
+
+public record TreeListing(
+        String sha,
+        boolean truncated,
+        List<TreeEntry> entries
+) {}
@@ -0,0 +1,124 @@
+package br.com.sistema.github.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import br.com.sistema.github.models.FileFetchResult;
+
+/**
+ * Divide os arquivos de uma análise em lotes que cabem no orçamento de tokens.
+ *
+ * Os arquivos entram em ordem, lado a lado, até o lote encher; um arquivo maior
+ * que o orçamento é quebrado por linhas em partes ("parte i/n").
+ */
+public class AnalysisBatcher {
+
+    private final TokenEstimator estimator;
+    private final int maxBatchTokens;
+
+    public AnalysisBatcher(TokenEstimator estimator, int maxBatchTokens) {
+        this.estimator = estimator;
+        this.maxBatchTokens = maxBatchTokens;
+    }
+
+    // Texto pronto para o prompt + caminhos dos arquivos que entraram nele
+    public record Batch(String text, List<String> paths) {}
+
+    // ====================================
+    // Monta os lotes a partir dos arquivos
+    // ====================================
+    public List<Batch> batch(List<FileFetchResult> files) {
+        List<String> sections = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
+        for (FileFetchResult file : files) {
+            for (String section : sectionsOf(file)) {
+                sections.add(section);
+                owners.add(file.path());
+            }
+        }
+        return pack(sections, owners);
+    }
+
+    // ====================================
+    // Junta textos em ordem até encher o orçamento (também usado na consolidação)
+    // ====================================
+    public List<String> pack(List<String> sections) {
+        return pack(sections, null).stream().map(Batch::text).toList();
+    }
+
+    private List<Batch> pack(List<String> sections, List<String> owners) {
+        List<Batch> batches = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        Set<String> paths = new LinkedHashSet<>();
+        int currentTokens = 0;
+
+        for (int i = 0; i < sections.size(); i++) {
+            String section = sections.get(i);
+            int sectionTokens = estimator.estimate(section);
+
+            if (currentTokens > 0 && currentTokens + sectionTokens > maxBatchTokens) {
+                batches.add(new Batch(current.toString(), List.copyOf(paths)));
+                current.setLength(0);
+                paths.clear();
+                currentTokens = 0;
+            }
+
+            current.append(section);
+            if (owners != null) {
+                paths.add(owners.get(i));
+            }
+            currentTokens += sectionTokens;
+        }
+
+        if (currentTokens > 0) {
+            batches.add(new Batch(current.toString(), List.copyOf(paths)));
+        }
+
+        return batches;
+    }
+
+    // ====================================
+    // Um arquivo vira uma ou mais seções
+    // ====================================
+    private List<String> sectionsOf(FileFetchResult file) {
+        if (!file.isSuccess()) {
+            return List.of(String.format("Arquivo: %s\n(não foi possível ler: %s)\n\n", file.path(), file.error()));
+        }
+
+        String content = file.file().content() == null ? "" : file.file().content();
+        String whole = String.format("Arquivo: %s\n%s\n\n", file.path(), content);
+        if (estimator.estimate(whole) <= maxBatchTokens) {
+            return List.of(whole);
+        }
+
+        List<String> parts = splitByLines(content, estimator.maxCharsFor(maxBatchTokens) - file.path().length() - 64);
+        List<String> sections = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            sections.add(String.format("Arquivo: %s (parte %d/%d)\n%s\n\n", file.path(), i + 1, parts.size(), parts.get(i)));
+        }
+        return sections;
+    }
+
+    private static List<String> splitByLines(String content, int maxChars) {
+        int limit = Math.max(1, maxChars);
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+
+        while (start < content.length()) {
+            int end = Math.min(content.length(), start + limit);
+            if (end < content.length()) {
+                int lineBreak = content.lastIndexOf('\n', end);
+                // Linha única maior que o limite (ex: arquivo minificado): corta no limite
+                if (lineBreak > start) {
+                    end = lineBreak + 1;
+                }
+            }
+            parts.add(content.substring(start, end));
+            start = end;
+        }
+
+        return parts;
+    }
+}
@@ -0,0 +1,540 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.sistema.github.dtos.request.AnalyzeGitHubFilesRequest;
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.models.AnalysisJob;
+import br.com.sistema.github.models.AnalysisJob.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Análises assíncronas: o cliente recebe um id na hora e acompanha o job por
+ * polling (GET /jobs/{id}) ou Server-Sent Events (GET /jobs/{id}/events).
+ *
+ * <ul>
+ *   <li>pool fixo de {@code workers} executando jobs; até {@code max-queued} esperando.
+ *       Acima disso o envio é recusado (429);</li>
+ *   <li>cada mudança de estado é gravada pelo {@link AnalysisJobStore}. No restart,
+ *       jobs que estavam na fila ou executando voltam para a fila (até
+ *       {@code max-attempts} tentativas);</li>
+ *   <li>cancelamento e prazo por job interrompem o worker; a análise para no
+ *       próximo checkpoint entre fases e o trabalho em paralelo é abandonado;</li>
+ *   <li>jobs terminados ficam consultáveis por {@code retention-minutes}.</li>
+ *   <li>o job roda em nome de quem o enviou ({@link TenantContext}) e só essa pessoa
+ *       o consulta ou cancela. O token fica só em memória: jobs de usuários com
+ *       token próprio não são retomados após um restart.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class AnalysisJobService {
+
+    private final GitHubAnalysisService analysisService;
+    private final AnalysisJobStore store;
+    private final int workers;
+    private final int maxQueued;
+    private final int maxAttempts;
+    private final Duration defaultDeadline;
+    private final Duration maxDeadline;
+    private final Duration retention;
+    private final long eventsTimeoutMillis;
+    private final Clock clock;
+
+    private final ExecutorService workerPool;
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("analysis-job-deadline").daemon().factory());
+
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Future<?>> tasks = new ConcurrentHashMap<>();
+    // Token de quem enviou cada job (só em memória)
+    private final Map<String, GitHubTenant> credentials = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter filesFetched;
+    private final Counter filesFailed;
+
+    @Autowired
+    public AnalysisJobService(
+            GitHubAnalysisService analysisService,
+            AnalysisJobStore store,
+            @Value("${spring.github.jobs.workers:2}") int workers,
+            @Value("${spring.github.jobs.max-queued:100}") int maxQueued,
+            @Value("${spring.github.jobs.max-attempts:3}") int maxAttempts,
+            @Value("${spring.github.jobs.default-deadline-seconds:1800}") long defaultDeadlineSeconds,
+            @Value("${spring.github.jobs.max-deadline-seconds:7200}") long maxDeadlineSeconds,
+            @Value("${spring.github.jobs.retention-minutes:1440}") long retentionMinutes,
+            @Value("${spring.github.jobs.events-timeout-seconds:600}") long eventsTimeoutSeconds,
+            MeterRegistry meterRegistry) {
+        this(analysisService, store, workers, maxQueued, maxAttempts, Duration.ofSeconds(defaultDeadlineSeconds),
+                Duration.ofSeconds(maxDeadlineSeconds), Duration.ofMinutes(retentionMinutes),
+                TimeUnit.SECONDS.toMillis(eventsTimeoutSeconds), meterRegistry, Clock.systemUTC());
+    }
+
+    AnalysisJobService(GitHubAnalysisService analysisService, AnalysisJobStore store, int workers, int maxQueued,
+                       int maxAttempts, Duration defaultDeadline, Duration maxDeadline, Duration retention,
+                       long eventsTimeoutMillis, MeterRegistry meterRegistry, Clock clock) {
+        this.analysisService = analysisService;
+        this.store = store;
+        this.workers = Math.max(1, workers);
+        this.maxQueued = maxQueued;
+        this.maxAttempts = maxAttempts;
+        this.defaultDeadline = defaultDeadline;
+        this.maxDeadline = maxDeadline;
+        this.retention = retention;
+        this.eventsTimeoutMillis = eventsTimeoutMillis;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+
+        // Os workers passam quase todo o tempo esperando GitHub e Gemini
+        this.workerPool = Executors.newFixedThreadPool(this.workers,
+                Thread.ofVirtual().name("analysis-job-", 0).factory());
+
+        this.rejected = Counter.builder("github.jobs.rejected")
+                .description("Jobs recusados por fila cheia")
+                .register(meterRegistry);
+        this.filesFetched = Counter.builder("github.jobs.files")
+                .description("Arquivos processados pelos jobs de análise")
+                .tag("outcome", "fetched")
+                .register(meterRegistry);
+        this.filesFailed = Counter.builder("github.jobs.files")
+                .description("Arquivos processados pelos jobs de análise")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+
+        Gauge.builder("github.jobs.queued", this, service -> service.count(Status.QUEUED))
+                .description("Jobs aguardando um worker")
+                .register(meterRegistry);
+        Gauge.builder("github.jobs.running", this, service -> service.count(Status.RUNNING))
+                .description("Jobs executando")
+                .register(meterRegistry);
+
+        log.info("📋 Jobs de análise: {} workers, {} na fila, prazo padrão {}s",
+                this.workers, maxQueued, defaultDeadline.toSeconds());
+    }
+
+    // ====================================
+    // Retoma os jobs gravados que não terminaram
+    // ====================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<AnalysisJob> stored = store.loadAll();
+        List<AnalysisJob> pending = stored.stream()
+                .filter(job -> !job.isFinished())
+                .sorted(Comparator.comparing(AnalysisJob::createdAt))
+                .toList();
+
+        for (AnalysisJob job : stored) {
+            if (job.isFinished()) {
+                jobs.put(job.id(), job);
+            }
+        }
+
+        for (AnalysisJob job : pending) {
+            if (job.tenant() != null) {
+                // O token não foi gravado: sem ele o job não tem em nome de quem rodar
+                AnalysisJob orphaned = job.toBuilder()
+                        .status(Status.FAILED)
+                        .error("Job interrompido por reinício; envie a análise novamente com o seu token")
+                        .finishedAt(clock.instant())
+                        .build();
+                jobs.put(orphaned.id(), orphaned);
+                store.save(orphaned);
+                continue;
+            }
+
+            if (job.attempts() >= maxAttempts) {
+                AnalysisJob failed = job.toBuilder()
+                        .status(Status.FAILED)
+                        .error("Job interrompido " + job.attempts() + " vezes, desistindo")
+                        .finishedAt(clock.instant())
+                        .build();
+                jobs.put(failed.id(), failed);
+                store.save(failed);
+                continue;
+            }
+
+            AnalysisJob requeued = job.toBuilder()
+                    .status(Status.QUEUED)
+                    .phase(null)
+                    .completed(0)
+                    .total(0)
+                    .filesFetched(0)
+                    .filesFailed(0)
+                    .build();
+            jobs.put(requeued.id(), requeued);
+            store.save(requeued);
+            enqueue(requeued.id());
+        }
+
+        if (!pending.isEmpty()) {
+            log.info("📋 {} jobs retomados da fila persistente", pending.size());
+        }
+    }
+
+    // ====================================
+    // Enfileira uma análise (vazio = fila cheia)
+    // ====================================
+    public Optional<AnalysisJob> submit(AnalyzeGitHubFilesRequest request, Long deadlineSeconds) {
+        Instant now = clock.instant();
+        Duration deadline = deadlineSeconds == null || deadlineSeconds <= 0
+                ? defaultDeadline
+                : Duration.ofSeconds(Math.min(deadlineSeconds, maxDeadline.toSeconds()));
+
+        GitHubTenant tenant = TenantContext.current();
+        AnalysisJob job = AnalysisJob.builder()
+                .id(UUID.randomUUID().toString())
+                .request(request)
+                .tenant(tenant != null ? tenant.id() : null)
+                .status(Status.QUEUED)
+                .createdAt(now)
+                .deadline(now.plus(deadline))
+                .build();
+
+        synchronized (this) {
+            if (shuttingDown || count(Status.QUEUED) + count(Status.RUNNING) >= workers + maxQueued) {
+                rejected.increment();
+                log.warn("📋 Fila de jobs cheia: análise de {} recusada", request.repositoryName());
+                return Optional.empty();
+            }
+            jobs.put(job.id(), job);
+        }
+
+        if (tenant != null) {
+            credentials.put(job.id(), tenant);
+        }
+        store.save(job);
+        enqueue(job.id());
+        log.info("📋 Job {} enfileirado: {} ({} arquivos, prazo {}s)", job.id(), request.repositoryName(),
+                request.selectedFilePaths().size(), deadline.toSeconds());
+        return Optional.of(job);
+    }
+
+    // Cada usuário só enxerga os próprios jobs
+    public Optional<AnalysisJob> get(String id) {
+        GitHubTenant tenant = TenantContext.current();
+        String owner = tenant != null ? tenant.id() : null;
+        return Optional.ofNullable(jobs.get(id)).filter(job -> Objects.equals(job.tenant(), owner));
+    }
+
+    // ====================================
+    // Cancela um job na fila ou executando
+    // ====================================
+    public Optional<AnalysisJob> cancel(String id) {
+        if (get(id).isEmpty()) {
+            return Optional.empty();
+        }
+
+        AnalysisJob cancelled = finish(id, job -> !job.isFinished(), Status.CANCELLED, null, "Cancelado pelo cliente");
+        if (cancelled != null) {
+            log.info("🛑 Job {} cancelado", id);
+        }
+        return get(id);
+    }
+
+    // ====================================
+    // Acompanhamento por Server-Sent Events: "progress" a cada avanço, "done" no fim
+    // ====================================
+    public Optional<SseEmitter> events(String id) {
+        if (get(id).isEmpty()) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(eventsTimeoutMillis);
+        emitter.onCompletion(() -> unsubscribe(id, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(id, emitter));
+        subscribers.computeIfAbsent(id, key -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        // Estado atual logo de início (se já terminou, o stream fecha aqui)
+        send(id, emitter, jobs.get(id));
+        return Optional.of(emitter);
+    }
+
+    // ====================================
+    // Remove jobs terminados há mais de retention-minutes
+    // ====================================
+    @Scheduled(fixedDelayString = "${spring.github.jobs.sweep-interval-ms:60000}")
+    public void sweep() {
+        Instant cutoff = clock.instant().minus(retention);
+        for (AnalysisJob job : jobs.values()) {
+            if (job.isFinished() && job.finishedAt() != null && job.finishedAt().isBefore(cutoff)
+                    && jobs.remove(job.id(), job)) {
+                store.delete(job.id());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Jobs interrompidos aqui continuam gravados como QUEUED/RUNNING e voltam no restart
+        shuttingDown = true;
+        workerPool.shutdownNow();
+        deadlines.shutdownNow();
+    }
+
+    // ====================================
+    // Worker
+    // ====================================
+    private void enqueue(String id) {
+        FutureTask<Void> task = new FutureTask<>(() -> run(id), null);
+        tasks.put(id, task);
+        try {
+            workerPool.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Desligando: o job segue gravado como QUEUED
+            tasks.remove(id);
+        }
+    }
+
+    private void run(String id) {
+        try {
+            Instant startedAt = clock.instant();
+            AnalysisJob job = transition(id, current -> current.status() == Status.QUEUED,
+                    current -> current.toBuilder()
+                            .status(Status.RUNNING)
+                            .attempts(current.attempts() + 1)
+                            .startedAt(startedAt)
+                            .build());
+            if (job == null) {
+                // Cancelado enquanto esperava
+                return;
+            }
+
+            if (!startedAt.isBefore(job.deadline())) {
+                finish(id, current -> current.status() == Status.RUNNING, Status.EXPIRED, null,
+                        "Prazo excedido antes de iniciar");
+                return;
+            }
+
+            log.info("▶️ Job {} iniciado: {}", id, job.request().repositoryName());
+            ScheduledFuture<?> deadline = deadlines.schedule(() -> expire(id),
+                    Duration.between(startedAt, job.deadline()).toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                GitHubTenant tenant = credentials.get(id);
+                if (job.tenant() != null && tenant == null) {
+                    finish(id, current -> current.status() == Status.RUNNING, Status.FAILED, null,
+                            "Credenciais do job indisponíveis");
+                    return;
+                }
+                String result = TenantContext.callAs(tenant,
+                        () -> analysisService.analyze(job.request(), new JobProgress(id)));
+                finish(id, current -> current.status() == Status.RUNNING, Status.SUCCEEDED, result, null);
+
+            } catch (CancellationException e) {
+                // Estado já definido por quem cancelou (cliente, prazo ou desligamento)
+
+            } catch (Exception e) {
+                if (shuttingDown) {
+                    log.info("📋 Job {} interrompido pelo desligamento, será retomado", id);
+                    return;
+                }
+                log.error("❌ Job {} falhou", id, e);
+                finish(id, current -> current.status() == Status.RUNNING, Status.FAILED, null,
+                        e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+
+            } finally {
+                deadline.cancel(false);
+            }
+        } finally {
+            tasks.remove(id);
+        }
+    }
+
+    private void expire(String id) {
+        if (finish(id, current -> current.status() == Status.RUNNING, Status.EXPIRED, null, "Prazo excedido") != null) {
+            log.warn("⏱️ Job {} excedeu o prazo", id);
+        }
+    }
+
+    // ====================================
+    // Transições de estado (atômicas por job)
+    // ====================================
+    private AnalysisJob finish(String id, Predicate<AnalysisJob> allowed, Status status, String result, String error) {
+        Instant finishedAt = clock.instant();
+        AnalysisJob finished = transition(id, allowed, current -> current.toBuilder()
+                .status(status)
+                .result(result)
+                .error(error)
+                .finishedAt(finishedAt)
+                .build());
+        if (finished == null) {
+            return null;
+        }
+        credentials.remove(id);
+
+        // Interrompe o worker (ou tira da fila); sem efeito se a tarefa já terminou
+        if (status != Status.SUCCEEDED && status != Status.FAILED) {
+            Future<?> task = tasks.get(id);
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+
+        Timer.builder("github.jobs.duration")
+                .description("Tempo de cada job, do envio ao fim")
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .record(Duration.between(finished.createdAt(), finishedAt));
+        log.info("🏁 Job {} {}", id, status);
+        return finished;
+    }
+
+    private AnalysisJob transition(String id, Predicate<AnalysisJob> allowed, UnaryOperator<AnalysisJob> change) {
+        AnalysisJob[] changed = new AnalysisJob[1];
+        jobs.computeIfPresent(id, (key, current) -> {
+            if (!allowed.test(current)) {
+                return current;
+            }
+            changed[0] = change.apply(current);
+            return changed[0];
+        });
+
+        if (changed[0] != null) {
+            store.save(changed[0]);
+            publish(changed[0]);
+        }
+        return changed[0];
+    }
+
+    // Progresso só em memória: grava-se apenas nas mudanças de estado
+    private void progress(String id, UnaryOperator<AnalysisJob> change) {
+        AnalysisJob[] changed = new AnalysisJob[1];
+        jobs.computeIfPresent(id, (key, current) -> {
+            if (current.status() != Status.RUNNING) {
+                return current;
+            }
+            changed[0] = change.apply(current);
+            return changed[0];
+        });
+
+        if (changed[0] != null) {
+            publish(changed[0]);
+        }
+    }
+
+    private int count(Status status) {
+        int count = 0;
+        for (AnalysisJob job : jobs.values()) {
+            if (job.status() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ====================================
+    // Server-Sent Events
+    // ====================================
+    private void publish(AnalysisJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.id());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(job.id(), emitter, job);
+        }
+    }
+
+    private void send(String id, SseEmitter emitter, AnalysisJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.isFinished() ? "done" : "progress")
+                    .data(job, MediaType.APPLICATION_JSON));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou ou o stream já foi encerrado
+            unsubscribe(id, emitter);
+        }
+    }
+
+    private void unsubscribe(String id, SseEmitter emitter) {
+        subscribers.computeIfPresent(id, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /**
+     * Progresso reportado pela análise: atualiza o job e interrompe no
+     * checkpoint se ele não está mais executando.
+     */
+    private final class JobProgress implements AnalysisProgress {
+
+        private final String id;
+        private volatile Phase phase;
+
+        JobProgress(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void phase(Phase phase, int total) {
+            this.phase = phase;
+            progress(id, job -> job.toBuilder().phase(phase.name()).completed(0).total(total).build());
+        }
+
+        @Override
+        public void advanced(boolean success) {
+            boolean fetching = phase == Phase.FETCHING;
+            if (fetching) {
+                (success ? filesFetched : filesFailed).increment();
+            }
+            progress(id, job -> job.toBuilder()
+                    .completed(job.completed() + 1)
+                    .filesFetched(job.filesFetched() + (fetching && success ? 1 : 0))
+                    .filesFailed(job.filesFailed() + (fetching && !success ? 1 : 0))
+                    .build());
+        }
+
+        @Override
+        public void checkpoint() {
+            AnalysisJob job = jobs.get(id);
+            if (shuttingDown || job == null || job.status() != Status.RUNNING) {
+                throw new CancellationException("Job " + id + " não está mais executando");
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.sistema.github.models.AnalysisJob;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fila persistente dos jobs de análise: um arquivo JSON por job no diretório
+ * configurado. Cada mudança de estado regrava o arquivo (escrita atômica:
+ * temporário + move), então um restart encontra os jobs como estavam.
+ */
+@Component
+@Slf4j
+public class AnalysisJobStore {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path dir;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    public AnalysisJobStore(@Value("${spring.github.jobs.dir:${java.io.tmpdir}/github-assistant/jobs}") String dir) {
+        this.dir = Path.of(dir);
+        try {
+            Files.createDirectories(this.dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar diretório de jobs " + dir, e);
+        }
+        log.info("📋 Jobs de análise em {}", this.dir);
+    }
+
+    // ====================================
+    // Grava o estado do job
+    // ====================================
+    public void save(AnalysisJob job) {
+        Path target = pathOf(job.id());
+        try {
+            Path temp = Files.createTempFile(dir, job.id(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), job);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar job " + job.id(), e);
+        }
+    }
+
+    public void delete(String id) {
+        try {
+            Files.deleteIfExists(pathOf(id));
+        } catch (IOException e) {
+            log.warn("📋 Falha ao remover job {}: {}", id, e.getMessage());
+        }
+    }
+
+    // ====================================
+    // Carrega todos os jobs gravados (arquivos ilegíveis são descartados)
+    // ====================================
+    public List<AnalysisJob> loadAll() {
+        List<AnalysisJob> jobs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    jobs.add(objectMapper.readValue(file.toFile(), AnalysisJob.class));
+                } catch (IOException e) {
+                    log.warn("📋 Job ilegível, descartando {}: {}", file.getFileName(), e.getMessage());
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler jobs em " + dir, e);
+        }
+        return jobs;
+    }
+
+    private Path pathOf(String id) {
+        return dir.resolve(id + SUFFIX);
+    }
+}
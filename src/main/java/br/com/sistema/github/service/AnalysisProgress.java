@@ -0,0 +1,24 @@
+package br.com.sistema.github.service;
+
+/**
+ * Acompanhamento de uma análise em andamento (usado pelos jobs assíncronos).
+ *
+ * A análise avisa o início de cada fase com o total de passos e chama
+ * {@link #advanced} a cada passo concluído. Entre as fases chama
+ * {@link #checkpoint}, que pode lançar {@link java.util.concurrent.CancellationException}
+ * para interromper o trabalho que ainda não começou.
+ */
+public interface AnalysisProgress {
+
+    AnalysisProgress NONE = new AnalysisProgress() {};
+
+    enum Phase {
+        FETCHING, ANALYZING, CONSOLIDATING
+    }
+
+    default void phase(Phase phase, int total) {}
+
+    default void advanced(boolean success) {}
+
+    default void checkpoint() {}
+}
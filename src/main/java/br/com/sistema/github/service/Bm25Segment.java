@@ -0,0 +1,296 @@
+package br.com.sistema.github.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Segmento imutável do índice invertido, gravado em disco e lido via memory-map.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header   : magic, docCount, termCount, totalLength(long), docsOffset(long), termsOffset(long), postingsOffset(long)
+ * docs     : docCount x [length(int), pathOffset(int)] seguido dos caminhos/SHAs (UTF-8 com tamanho)
+ * terms    : termCount x [termOffset(int)] seguido dos termos ordenados [len(short), bytes, df(int), postings(long)]
+ * postings : por termo, df x [docId(int), tf(int)]
+ * </pre>
+ * Só os offsets dos termos ficam no heap (busca binária); postings, tamanhos dos
+ * documentos e caminhos são lidos direto do arquivo mapeado.
+ */
+final class Bm25Segment {
+
+    private static final int MAGIC = 0x424D3235; // "BM25"
+    private static final int HEADER_BYTES = 4 * 3 + 8 * 4;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final long totalLength;
+    private final long docsOffset;
+    private final int[] termOffsets;
+
+    private Bm25Segment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Segmento inválido: " + file);
+        }
+        this.docCount = buffer.getInt(4);
+        int termCount = buffer.getInt(8);
+        this.totalLength = buffer.getLong(12);
+        this.docsOffset = buffer.getLong(20);
+        long termsOffset = buffer.getLong(28);
+
+        this.termOffsets = new int[termCount];
+        for (int i = 0; i < termCount; i++) {
+            termOffsets[i] = buffer.getInt((int) termsOffset + i * 4);
+        }
+    }
+
+    static Bm25Segment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois de fechar o canal
+            return new Bm25Segment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    int docLength(int docId) {
+        return buffer.getInt((int) docsOffset + docId * 8);
+    }
+
+    String path(int docId) {
+        return readString(buffer.getInt((int) docsOffset + docId * 8 + 4));
+    }
+
+    String sha(int docId) {
+        int pathOffset = buffer.getInt((int) docsOffset + docId * 8 + 4);
+        return readString(pathOffset + 2 + (buffer.getShort(pathOffset) & 0xFFFF));
+    }
+
+    // ====================================
+    // Postings de um termo (null se o termo não está no segmento)
+    // ====================================
+    Postings postings(String term) {
+        int low = 0;
+        int high = termOffsets.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = termOffsets[mid];
+            int cmp = readString(offset).compareTo(term);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                int afterTerm = offset + 2 + (buffer.getShort(offset) & 0xFFFF);
+                return new Postings(buffer, buffer.getInt(afterTerm), (int) buffer.getLong(afterTerm + 4));
+            }
+        }
+        return null;
+    }
+
+    // ====================================
+    // Percorre o dicionário em ordem (usado no merge de segmentos)
+    // ====================================
+    void forEachTerm(BiConsumer<String, Postings> consumer) {
+        for (int offset : termOffsets) {
+            int afterTerm = offset + 2 + (buffer.getShort(offset) & 0xFFFF);
+            consumer.accept(readString(offset), new Postings(buffer, buffer.getInt(afterTerm), (int) buffer.getLong(afterTerm + 4)));
+        }
+    }
+
+    private String readString(int offset) {
+        int length = buffer.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lista de documentos de um termo: {@code df} pares (docId, tf).
+     */
+    record Postings(MappedByteBuffer buffer, int df, int offset) {
+
+        int docId(int i) {
+            return buffer.getInt(offset + i * 8);
+        }
+
+        int tf(int i) {
+            return buffer.getInt(offset + i * 8 + 4);
+        }
+    }
+
+    // ====================================
+    // Monta um segmento em memória e grava (tmp + move atômico)
+    // ====================================
+    static final class Writer {
+
+        private final List<String> paths = new ArrayList<>();
+        private final List<String> shas = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private final TreeMap<String, List<int[]>> postings = new TreeMap<>();
+        private long totalLength;
+
+        int addDocument(String path, String sha, List<String> tokens) {
+            int docId = addDocument(path, sha, tokens.size());
+
+            Map<String, int[]> frequencies = new HashMap<>();
+            for (String token : tokens) {
+                frequencies.computeIfAbsent(token, key -> new int[1])[0]++;
+            }
+            frequencies.forEach((term, tf) -> addPosting(term, docId, tf[0]));
+            return docId;
+        }
+
+        // Documento já tokenizado (merge): postings entram depois, com docIds crescentes
+        int addDocument(String path, String sha, int length) {
+            int docId = paths.size();
+            paths.add(path);
+            shas.add(sha);
+            lengths.add(length);
+            totalLength += length;
+            return docId;
+        }
+
+        void addPosting(String term, int docId, int tf) {
+            postings.computeIfAbsent(term, key -> new ArrayList<>()).add(new int[]{docId, tf});
+        }
+
+        int size() {
+            return paths.size();
+        }
+
+        Bm25Segment write(Path file) throws IOException {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream stream = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+                writeTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return open(file);
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            int docCount = paths.size();
+            int termCount = postings.size();
+
+            // Strings dos documentos: caminho + SHA
+            List<byte[]> docStrings = new ArrayList<>(docCount * 2);
+            for (int i = 0; i < docCount; i++) {
+                docStrings.add(utf8(paths.get(i)));
+                docStrings.add(utf8(shas.get(i)));
+            }
+
+            long docsOffset = HEADER_BYTES;
+            long docStringsOffset = docsOffset + (long) docCount * 8;
+            long docStringsBytes = 0;
+            for (byte[] bytes : docStrings) {
+                docStringsBytes += 2 + bytes.length;
+            }
+
+            long termsOffset = docStringsOffset + docStringsBytes;
+            long termEntriesOffset = termsOffset + (long) termCount * 4;
+            List<byte[]> terms = new ArrayList<>(termCount);
+            long termEntriesBytes = 0;
+            for (String term : postings.keySet()) {
+                byte[] bytes = utf8(term);
+                terms.add(bytes);
+                termEntriesBytes += 2 + bytes.length + 4 + 8;
+            }
+
+            long postingsOffset = termEntriesOffset + termEntriesBytes;
+            if (postingsOffset + postingBytes() > Integer.MAX_VALUE) {
+                throw new IOException("Segmento maior que 2 GB");
+            }
+
+            // Header
+            out.writeInt(MAGIC);
+            out.writeInt(docCount);
+            out.writeInt(termCount);
+            out.writeLong(totalLength);
+            out.writeLong(docsOffset);
+            out.writeLong(termsOffset);
+            out.writeLong(postingsOffset);
+
+            // Documentos
+            long stringOffset = docStringsOffset;
+            for (int i = 0; i < docCount; i++) {
+                out.writeInt(lengths.get(i));
+                out.writeInt((int) stringOffset);
+                stringOffset += 2 + docStrings.get(i * 2).length + 2 + docStrings.get(i * 2 + 1).length;
+            }
+            for (byte[] bytes : docStrings) {
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+
+            // Dicionário de termos
+            long entryOffset = termEntriesOffset;
+            for (byte[] term : terms) {
+                out.writeInt((int) entryOffset);
+                entryOffset += 2 + term.length + 4 + 8;
+            }
+            long postingOffset = postingsOffset;
+            int index = 0;
+            for (List<int[]> list : postings.values()) {
+                byte[] term = terms.get(index++);
+                out.writeShort(term.length);
+                out.write(term);
+                out.writeInt(list.size());
+                out.writeLong(postingOffset);
+                postingOffset += (long) list.size() * 8;
+            }
+
+            // Postings (docIds crescentes)
+            for (List<int[]> list : postings.values()) {
+                for (int[] posting : list) {
+                    out.writeInt(posting[0]);
+                    out.writeInt(posting[1]);
+                }
+            }
+        }
+
+        private long postingBytes() {
+            long bytes = 0;
+            for (List<int[]> list : postings.values()) {
+                bytes += (long) list.size() * 8;
+            }
+            return bytes;
+        }
+
+        private static byte[] utf8(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Texto longo demais para o segmento: " + value.length() + " caracteres");
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.sistema.github.service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.model.chat.listener.ChatModelErrorContext;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.listener.ChatModelRequestContext;
+import dev.langchain4j.model.chat.listener.ChatModelResponseContext;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de cada chamada ao Gemini (uma por ida ao modelo; um turno com tools
+ * faz várias).
+ *
+ * <ul>
+ *   <li>{@code github.gemini.requests}: latência por modelo, modo (blocking |
+ *       streaming), resultado e motivo de término (stop, tool_execution...);</li>
+ *   <li>{@code github.gemini.tokens}: tokens de entrada e saída por chamada;</li>
+ *   <li>{@code github.chat.tool.calls}: tools executadas por turno de conversa,
+ *       registrado por quem conduz o turno ({@link #toolCallsPerTurn}).</li>
+ * </ul>
+ */
+public class ChatModelMetrics implements ChatModelListener {
+
+    private static final String START_NANOS = ChatModelMetrics.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final String model;
+    private final String mode;
+
+    private final DistributionSummary inputTokens;
+    private final DistributionSummary outputTokens;
+
+    public ChatModelMetrics(MeterRegistry meterRegistry, String model, String mode) {
+        this.meterRegistry = meterRegistry;
+        this.model = model;
+        this.mode = mode;
+        this.inputTokens = tokens("input");
+        this.outputTokens = tokens("output");
+    }
+
+    @Override
+    public void onRequest(ChatModelRequestContext context) {
+        context.attributes().put(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void onResponse(ChatModelResponseContext context) {
+        ChatResponse response = context.chatResponse();
+        String finish = response.finishReason() != null
+                ? response.finishReason().name().toLowerCase(Locale.ROOT)
+                : "unknown";
+        record(context.attributes().get(START_NANOS), "success", finish);
+
+        TokenUsage usage = response.tokenUsage();
+        if (usage != null) {
+            if (usage.inputTokenCount() != null) {
+                inputTokens.record(usage.inputTokenCount());
+            }
+            if (usage.outputTokenCount() != null) {
+                outputTokens.record(usage.outputTokenCount());
+            }
+        }
+    }
+
+    @Override
+    public void onError(ChatModelErrorContext context) {
+        record(context.attributes().get(START_NANOS), "error", "error");
+    }
+
+    private void record(Object startNanos, String outcome, String finish) {
+        if (!(startNanos instanceof Long start)) {
+            return;
+        }
+        Timer.builder("github.gemini.requests")
+                .description("Chamadas ao modelo Gemini")
+                .tag("model", model)
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .tag("finish", finish)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary tokens(String type) {
+        return DistributionSummary.builder("github.gemini.tokens")
+                .description("Tokens por chamada ao modelo Gemini")
+                .baseUnit("tokens")
+                .tag("model", model)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    // ====================================
+    // Tools executadas por turno (blocking | streaming)
+    // ====================================
+    public static DistributionSummary toolCallsPerTurn(MeterRegistry meterRegistry, String mode) {
+        return DistributionSummary.builder("github.chat.tool.calls")
+                .description("Tools executadas em um turno de conversa")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
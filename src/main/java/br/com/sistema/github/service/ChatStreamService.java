@@ -0,0 +1,145 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.service.GitHubAssistantService.GitHubAiService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chat com entrega incremental via Server-Sent Events.
+ *
+ * Eventos: {@code token} (texto parcial), {@code tool} (início/fim de cada tool),
+ * {@code done} e {@code error}. Os callbacks do modelo escrevem direto no
+ * {@link SseEmitter}, que é bloqueante: um cliente lento segura a leitura do
+ * stream do Gemini (backpressure via TCP) em vez de acumular tokens em memória.
+ *
+ * Se o cliente desconecta ou o emitter expira, os tokens restantes do turno
+ * atual são descartados e a próxima execução de tool é abortada, encerrando
+ * a cadeia de chamadas ao modelo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatStreamService {
+
+    @Value("${spring.github.chat.stream-timeout-seconds:300}")
+    private long streamTimeoutSeconds;
+
+    private final GitHubAiService aiService;
+    private final MeterRegistry meterRegistry;
+
+    private DistributionSummary toolCallsPerTurn;
+
+    @PostConstruct
+    void init() {
+        toolCallsPerTurn = ChatModelMetrics.toolCallsPerTurn(meterRegistry, "streaming");
+    }
+
+    // ====================================
+    // Inicia o stream e devolve o emitter ao controller
+    // onFinish roda uma vez quando o stream termina (vaga de admissão)
+    // ====================================
+    public SseEmitter stream(String conversationId, String userMessage, Runnable onFinish) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(streamTimeoutSeconds));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger toolCalls = new AtomicInteger();
+
+        // Chamado também após timeout e erro
+        emitter.onCompletion(() -> {
+            cancelled.set(true);
+            onFinish.run();
+        });
+        emitter.onTimeout(() -> {
+            log.warn("⏱️ Stream de chat expirou");
+            cancelled.set(true);
+        });
+        emitter.onError(e -> cancelled.set(true));
+
+        log.info("💬 Iniciando chat em streaming");
+
+        try {
+            start(emitter, cancelled, toolCalls, conversationId, userMessage);
+        } catch (RuntimeException e) {
+            onFinish.run();
+            throw e;
+        }
+
+        return emitter;
+    }
+
+    private void start(SseEmitter emitter, AtomicBoolean cancelled, AtomicInteger toolCalls,
+                       String conversationId, String userMessage) {
+        // As tools rodam na thread do stream do Gemini, não na do request:
+        // o usuário do request é aplicado em volta de cada execução
+        GitHubTenant tenant = TenantContext.current();
+        AtomicReference<GitHubTenant> previous = new AtomicReference<>();
+
+        aiService.chatStream(TenantContext.scope(conversationId), userMessage)
+                .onPartialResponse(token -> send(emitter, cancelled, "token", token))
+                .beforeToolExecution(before -> {
+                    if (cancelled.get()) {
+                        throw new StreamCancelledException();
+                    }
+                    previous.set(TenantContext.enter(tenant));
+                    send(emitter, cancelled, "tool", Map.of("name", before.request().name(), "status", "started"));
+                })
+                .onToolExecuted(execution -> {
+                    TenantContext.restore(previous.getAndSet(null));
+                    toolCalls.incrementAndGet();
+                    send(emitter, cancelled, "tool", Map.of("name", execution.request().name(), "status", "finished"));
+                })
+                .onCompleteResponse(response -> {
+                    toolCallsPerTurn.record(toolCalls.get());
+                    send(emitter, cancelled, "done", Map.of("status", "completed", "conversationId", conversationId));
+                    emitter.complete();
+                    log.info("✅ Chat em streaming concluído");
+                })
+                .onError(error -> {
+                    if (cancelled.get() || error instanceof StreamCancelledException) {
+                        log.info("🛑 Chat em streaming cancelado pelo cliente");
+                        return;
+                    }
+                    log.error("❌ Erro no chat em streaming", error);
+                    send(emitter, cancelled, "error", Map.of("message", String.valueOf(error.getMessage())));
+                    emitter.complete();
+                })
+                .start();
+    }
+
+    // ====================================
+    // Envia um evento; falha de escrita = cliente desconectado
+    // ====================================
+    private void send(SseEmitter emitter, AtomicBoolean cancelled, String event, Object data) {
+        if (cancelled.get()) {
+            return;
+        }
+
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("🛑 Cliente desconectou do stream: {}", e.getMessage());
+            cancelled.set(true);
+        }
+    }
+
+    static final class StreamCancelledException extends RuntimeException {
+        StreamCancelledException() {
+            super("Stream cancelado pelo cliente", null, false, false);
+        }
+    }
+}
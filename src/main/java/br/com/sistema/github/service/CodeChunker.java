@@ -0,0 +1,131 @@
+package br.com.sistema.github.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Divide arquivos em trechos para o índice de código, respeitando a linguagem.
+ *
+ * Cada linguagem tem um padrão de "início de declaração" (classe, método, função,
+ * título de Markdown...). Um trecho é fechado antes de uma declaração quando já
+ * tem {@link #MIN_LINES} linhas e a linha anterior termina um bloco (linha vazia,
+ * {@code }} ou {@code ;}), assim comentários e anotações ficam junto da
+ * declaração. Trechos que passam de {@link #MAX_LINES} linhas ou
+ * {@link #MAX_CHARS} caracteres são cortados à força, repetindo
+ * {@link #OVERLAP_LINES} linhas de contexto.
+ */
+final class CodeChunker {
+
+    static final int MIN_LINES = 8;
+    static final int MAX_LINES = 40;
+    static final int MAX_CHARS = 1_500;
+    static final int OVERLAP_LINES = 3;
+
+    private static final Pattern JAVA_LIKE = Pattern.compile(
+            "^\\s{0,4}(/\\*\\*|@[A-Za-z]|(public|protected|private|static|final|abstract|sealed|synchronized|default|override|internal|open|data|suspend)\\s"
+                    + "|(class|interface|enum|record|object|fun|void)\\s)");
+    private static final Pattern C_LIKE = Pattern.compile(
+            "^(/\\*\\*|[A-Za-z_][\\w\\s\\*&:<>,]*\\([^;]*\\)\\s*(const\\s*)?\\{?\\s*$|(struct|class|namespace|typedef|enum|template)\\b)");
+    private static final Pattern SCRIPT = Pattern.compile(
+            "^\\s{0,2}(/\\*\\*|export\\s|(async\\s+)?function[\\s*]|class\\s|interface\\s|type\\s+\\w+\\s*=|(const|let|var)\\s+\\w+\\s*=\\s*(async\\s*)?(\\(|function))");
+    private static final Pattern PYTHON = Pattern.compile("^\\s{0,4}(@\\w|(async\\s+)?def\\s|class\\s)");
+    private static final Pattern GO = Pattern.compile("^(//\\s*\\w+ |func\\s|type\\s|var\\s|const\\s)");
+    private static final Pattern RUBY = Pattern.compile("^\\s{0,2}(def|class|module)\\s");
+    private static final Pattern SHELL = Pattern.compile("^(function\\s+\\w+|\\w+\\s*\\(\\)\\s*\\{)");
+    private static final Pattern MARKDOWN = Pattern.compile("^#{1,6}\\s");
+    private static final Pattern SQL = Pattern.compile("^(?i)(create|alter|insert|update|delete|select|drop|with)\\s");
+
+    private static final Map<String, Pattern> BOUNDARIES = Map.ofEntries(
+            Map.entry("java", JAVA_LIKE), Map.entry("kt", JAVA_LIKE), Map.entry("kts", JAVA_LIKE),
+            Map.entry("scala", JAVA_LIKE), Map.entry("cs", JAVA_LIKE), Map.entry("groovy", JAVA_LIKE),
+            Map.entry("c", C_LIKE), Map.entry("h", C_LIKE), Map.entry("cpp", C_LIKE), Map.entry("hpp", C_LIKE),
+            Map.entry("cc", C_LIKE), Map.entry("rs", C_LIKE), Map.entry("swift", C_LIKE), Map.entry("php", C_LIKE),
+            Map.entry("js", SCRIPT), Map.entry("jsx", SCRIPT), Map.entry("ts", SCRIPT), Map.entry("tsx", SCRIPT),
+            Map.entry("mjs", SCRIPT), Map.entry("vue", SCRIPT),
+            Map.entry("py", PYTHON), Map.entry("go", GO), Map.entry("rb", RUBY),
+            Map.entry("sh", SHELL), Map.entry("bash", SHELL),
+            Map.entry("md", MARKDOWN), Map.entry("markdown", MARKDOWN),
+            Map.entry("sql", SQL));
+
+    // Arquivos de texto sem estrutura própria: quebra por parágrafo (linha vazia)
+    private static final List<String> PLAIN_TEXT = List.of(
+            "txt", "rst", "adoc", "yml", "yaml", "json", "xml", "properties", "toml", "gradle", "html", "css", "scss", "dockerfile");
+
+    private CodeChunker() {
+    }
+
+    static boolean supports(String path) {
+        String extension = extension(path);
+        return BOUNDARIES.containsKey(extension) || PLAIN_TEXT.contains(extension);
+    }
+
+    // ====================================
+    // Divide o conteúdo em trechos com linhas 1-based [startLine, endLine]
+    // ====================================
+    static List<Chunk> split(String path, String content) {
+        Pattern boundary = BOUNDARIES.get(extension(path));
+        String[] lines = content.split("\r?\n", -1);
+        List<Chunk> chunks = new ArrayList<>();
+
+        int start = 0;
+        int chars = 0;
+        for (int i = 0; i < lines.length; i++) {
+            int size = i - start;
+            boolean cut = false;
+
+            if (size >= MIN_LINES && endsBlock(lines[i - 1])) {
+                cut = boundary != null ? boundary.matcher(lines[i]).find() : lines[i - 1].isBlank();
+            }
+            boolean tooLong = size >= MAX_LINES;
+            if (tooLong || (size > 0 && chars + lines[i].length() > MAX_CHARS)) {
+                cut = true;
+            }
+
+            if (cut) {
+                // Corte no meio de um bloco longo: repete algumas linhas de contexto
+                boolean overlap = tooLong && !endsBlock(lines[i - 1]);
+                add(chunks, path, lines, start, i);
+                start = overlap ? i - OVERLAP_LINES : i;
+                chars = 0;
+                for (int j = start; j < i; j++) {
+                    chars += lines[j].length() + 1;
+                }
+            }
+            chars += lines[i].length() + 1;
+        }
+        add(chunks, path, lines, start, lines.length);
+
+        return chunks;
+    }
+
+    private static void add(List<Chunk> chunks, String path, String[] lines, int from, int to) {
+        // Ignora linhas vazias nas bordas
+        while (from < to && lines[from].isBlank()) {
+            from++;
+        }
+        while (to > from && lines[to - 1].isBlank()) {
+            to--;
+        }
+        if (from < to) {
+            String text = String.join("\n", Arrays.copyOfRange(lines, from, to));
+            chunks.add(new Chunk(path, from + 1, to, text));
+        }
+    }
+
+    private static boolean endsBlock(String line) {
+        String trimmed = line.strip();
+        return trimmed.isEmpty() || trimmed.endsWith("}") || trimmed.endsWith(";");
+    }
+
+    private static String extension(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? name : name.substring(dot + 1);
+    }
+
+    record Chunk(String path, int startLine, int endLine, String text) {}
+}
@@ -0,0 +1,320 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.GitHubRequestPriority;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.models.CodeSnippet;
+import br.com.sistema.github.models.TreeEntry;
+import br.com.sistema.github.models.TreeListing;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+/**
+ * Índice semântico de código (RAG local): o assistente busca trechos relevantes
+ * em vez de ler arquivos inteiros.
+ *
+ * Os arquivos do branch padrão são divididos pelo {@link CodeChunker}, viram
+ * embeddings no {@link LocalEmbeddingModel} e ficam num {@link InMemoryEmbeddingStore}.
+ * A indexação é incremental pelo SHA do blob: a cada commit novo só os arquivos
+ * cujo SHA mudou são lidos e embedados de novo; arquivos removidos saem do índice.
+ * O conteúdo vem do blob store, então reindexar após um push custa só os blobs novos.
+ * Arquivos cuja leitura falhou deixam o índice sem commit confirmado e são tentados
+ * de novo na próxima busca.
+ *
+ * A memória é limitada por {@code max-chunks}: acima disso os repositórios usados
+ * há mais tempo saem do índice (LRU) e são reindexados se voltarem a ser buscados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CodeIndexService {
+
+    private static final String REPOSITORY = "repository";
+    private static final String PATH = "path";
+    private static final String START_LINE = "startLine";
+    private static final String END_LINE = "endLine";
+
+    @Value("${spring.github.code-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.github.code-index.max-files-per-repository:5000}")
+    private int maxFilesPerRepository;
+
+    @Value("${spring.github.code-index.max-file-bytes:200000}")
+    private long maxFileBytes;
+
+    @Value("${spring.github.code-index.embedding-batch-size:64}")
+    private int embeddingBatchSize;
+
+    @Value("${spring.github.code-index.max-chunks:200000}")
+    private int maxChunks;
+
+    private final GitHubGateway gateway;
+    private final LocalEmbeddingModel embeddingModel;
+    private final MeterRegistry meterRegistry;
+
+    private final InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+    // LRU por repositório (ordem de acesso), protegido pelo lock do serviço
+    private final LinkedHashMap<String, RepositoryIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicInteger chunkCount = new AtomicInteger();
+
+    private Timer indexTimer;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        indexTimer = Timer.builder("github.code.index.update")
+                .description("Tempo de atualização incremental do índice de código")
+                .register(meterRegistry);
+        Gauge.builder("github.code.index.chunks", this, CodeIndexService::chunkCount)
+                .description("Trechos de código no índice semântico")
+                .register(meterRegistry);
+        evictions = Counter.builder("github.code.index.evictions")
+                .description("Repositórios removidos do índice semântico pelo limite de trechos")
+                .register(meterRegistry);
+
+        log.info("🔎 Índice de código: enabled={}, maxFiles={}, maxFileBytes={}, maxChunks={}",
+                enabled, maxFilesPerRepository, maxFileBytes, maxChunks);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ====================================
+    // Top-k trechos mais parecidos com a consulta (índice atualizado antes)
+    // ====================================
+    public List<CodeSnippet> search(String repositoryName, String query, int topK) throws IOException {
+        ensureIndexed(repositoryName);
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(embeddingModel.embed(query)))
+                .filter(metadataKey(REPOSITORY).isEqualTo(TenantContext.scope(repositoryName)))
+                .maxResults(topK)
+                .build();
+
+        List<CodeSnippet> snippets = new ArrayList<>(topK);
+        for (EmbeddingMatch<TextSegment> match : store.search(request).matches()) {
+            Metadata metadata = match.embedded().metadata();
+            snippets.add(CodeSnippet.builder()
+                    .path(metadata.getString(PATH))
+                    .startLine(metadata.getInteger(START_LINE))
+                    .endLine(metadata.getInteger(END_LINE))
+                    .score(match.score())
+                    .content(match.embedded().text())
+                    .build());
+        }
+        return snippets;
+    }
+
+    // ====================================
+    // Atualiza o índice do repositório para o commit atual do branch padrão
+    // ====================================
+    public void ensureIndexed(String repositoryName) throws IOException {
+        String commitSha = gateway.getDefaultBranchHead(repositoryName);
+        String key = TenantContext.scope(repositoryName);
+        RepositoryIndex index;
+        synchronized (this) {
+            index = indexes.computeIfAbsent(key, name -> new RepositoryIndex());
+        }
+
+        // Uma atualização por repositório de cada vez; as demais esperam e encontram o índice pronto
+        synchronized (index) {
+            if (commitSha.equals(index.commitSha)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            TreeListing tree = gateway.getTree(repositoryName, commitSha, true);
+            if (tree.truncated()) {
+                log.warn("🔎 Árvore truncada pelo GitHub: {} - indexando só os arquivos listados", repositoryName);
+            }
+
+            Map<String, String> current = indexableFiles(tree);
+            int changed = 0;
+            int chunks = 0;
+            int failed = 0;
+
+            // Arquivos removidos ou alterados saem do índice
+            for (String path : new ArrayList<>(index.files.keySet())) {
+                IndexedFile indexed = index.files.get(path);
+                if (!indexed.sha().equals(current.get(path))) {
+                    remove(indexed);
+                    index.files.remove(path);
+                }
+            }
+
+            // Só os blobs novos são lidos e embedados
+            for (Map.Entry<String, String> file : current.entrySet()) {
+                if (index.files.containsKey(file.getKey())) {
+                    continue;
+                }
+                try {
+                    List<String> ids = indexFile(repositoryName, file.getKey(), file.getValue());
+                    index.files.put(file.getKey(), new IndexedFile(file.getValue(), ids));
+                    chunkCount.addAndGet(ids.size());
+                    changed++;
+                    chunks += ids.size();
+                } catch (IOException e) {
+                    failed++;
+                    log.warn("🔎 Arquivo fora do índice por enquanto: {} / {} ({})", repositoryName, file.getKey(), e.getMessage());
+                }
+            }
+
+            // Só confirma o commit com todos os arquivos indexados; senão a próxima busca tenta os que faltaram
+            index.commitSha = failed == 0 ? commitSha : null;
+            long elapsed = System.nanoTime() - start;
+            indexTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("🔎 Índice atualizado: {} @ {} ({} arquivos novos/alterados, {} com falha, {} trechos, {} ms)",
+                    repositoryName, commitSha.substring(0, Math.min(7, commitSha.length())), changed, failed, chunks,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+
+        // Fora do lock do repositório: a remoção trava o índice de outro repositório
+        evictOverBudget(key);
+    }
+
+    // ====================================
+    // Remove o repositório do índice (próxima busca reindexa)
+    // ====================================
+    public void invalidate(String repositoryName) {
+        RepositoryIndex index;
+        synchronized (this) {
+            index = indexes.remove(TenantContext.scope(repositoryName));
+        }
+        if (index != null) {
+            discard(index);
+        }
+    }
+
+    // ====================================
+    // Limite de trechos em memória: sai o repositório usado há mais tempo
+    // ====================================
+    private void evictOverBudget(String keep) {
+        while (chunkCount.get() > maxChunks) {
+            String eldest = null;
+            RepositoryIndex victim;
+            synchronized (this) {
+                for (String key : indexes.keySet()) {
+                    if (!key.equals(keep)) {
+                        eldest = key;
+                        break;
+                    }
+                }
+                if (eldest == null) {
+                    log.warn("🔎 {} sozinho passa do limite de {} trechos no índice", keep, maxChunks);
+                    return;
+                }
+                victim = indexes.remove(eldest);
+            }
+            discard(victim);
+            evictions.increment();
+            log.info("🔎 Índice de {} removido da memória (limite de {} trechos)", eldest, maxChunks);
+        }
+    }
+
+    private void discard(RepositoryIndex index) {
+        synchronized (index) {
+            index.files.values().forEach(this::remove);
+            index.files.clear();
+            index.commitSha = null;
+        }
+    }
+
+    public int chunkCount() {
+        return chunkCount.get();
+    }
+
+    private void remove(IndexedFile file) {
+        if (!file.ids().isEmpty()) {
+            store.removeAll(file.ids());
+            chunkCount.addAndGet(-file.ids().size());
+        }
+    }
+
+    private Map<String, String> indexableFiles(TreeListing tree) {
+        Map<String, String> files = new HashMap<>();
+        for (TreeEntry entry : tree.entries()) {
+            if (!entry.isBlob() || !CodeChunker.supports(entry.path())) {
+                continue;
+            }
+            if (entry.size() != null && entry.size() > maxFileBytes) {
+                continue;
+            }
+            if (files.size() >= maxFilesPerRepository) {
+                log.warn("🔎 Limite de {} arquivos indexados atingido", maxFilesPerRepository);
+                break;
+            }
+            files.put(entry.path(), entry.sha());
+        }
+        return files;
+    }
+
+    private List<String> indexFile(String repositoryName, String path, String sha) throws IOException {
+        String content;
+        try {
+            // Indexação é trabalho em lote: cede a vez às chamadas interativas
+            content = GitHubRequestPriority.runAs(GitHubRequestPriority.BATCH, () -> gateway.readBlob(repositoryName, sha));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+
+        if (content.indexOf('\0') >= 0) {
+            return List.of();
+        }
+
+        List<TextSegment> segments = new ArrayList<>();
+        List<TextSegment> inputs = new ArrayList<>();
+        for (CodeChunker.Chunk chunk : CodeChunker.split(path, content)) {
+            Metadata metadata = new Metadata()
+                    .put(REPOSITORY, TenantContext.scope(repositoryName))
+                    .put(PATH, path)
+                    .put(START_LINE, chunk.startLine())
+                    .put(END_LINE, chunk.endLine());
+            segments.add(TextSegment.from(chunk.text(), metadata));
+            // O caminho entra no texto embedado: ajuda consultas como "controller de pagamentos"
+            inputs.add(TextSegment.from(path + "\n" + chunk.text()));
+        }
+
+        List<String> ids = new ArrayList<>(segments.size());
+        for (int from = 0; from < segments.size(); from += embeddingBatchSize) {
+            int to = Math.min(segments.size(), from + embeddingBatchSize);
+            ids.addAll(store.addAll(embeddingModel.embedAll(inputs.subList(from, to)), segments.subList(from, to)));
+        }
+        return ids;
+    }
+
+    private static final class RepositoryIndex {
+        private String commitSha;
+        private final Map<String, IndexedFile> files = new HashMap<>();
+    }
+
+    private record IndexedFile(String sha, List<String> ids) {}
+}
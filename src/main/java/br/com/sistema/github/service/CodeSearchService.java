@@ -0,0 +1,611 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.sistema.github.dtos.response.CodeSearchResponse;
+import br.com.sistema.github.dtos.response.CodeSearchResponse.CodeHit;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.GitHubRequestPriority;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.models.TreeEntry;
+import br.com.sistema.github.models.TreeListing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Busca lexical no código dos repositórios: índice invertido com ranking BM25.
+ *
+ * Cada repositório tem uma lista de segmentos imutáveis ({@link Bm25Segment})
+ * gravados em disco e mapeados em memória. A cada commit novo só os arquivos
+ * cujo SHA mudou são tokenizados ({@link CodeTokenizer}) num segmento novo; as
+ * versões antigas são marcadas como apagadas. Quando há segmentos demais ou
+ * muitos documentos apagados, os segmentos são fundidos num só a partir das
+ * próprias postings, sem reler os arquivos.
+ *
+ * A indexação roda em segundo plano, com leituras de blobs em paralelo, e publica
+ * um segmento a cada {@code SEGMENT_DOCS} arquivos. Consultas leem um snapshot
+ * imutável da lista de segmentos: esperam a atualização por até {@code wait-ms}
+ * e depois respondem com o que já está indexado ({@code indexing=true}).
+ * Arquivos cuja leitura falhou deixam o snapshot incompleto e são tentados de
+ * novo na próxima busca. Os segmentos só valem para o processo atual: o
+ * diretório é limpo na subida e o índice é refeito sob demanda a partir do blob store.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CodeSearchService {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SEGMENT_DOCS = 2000;
+
+    @Value("${spring.github.code-search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.github.code-search.dir:${java.io.tmpdir}/github-assistant/code-search}")
+    private Path directory;
+
+    @Value("${spring.github.code-search.max-files-per-repository:100000}")
+    private int maxFilesPerRepository;
+
+    @Value("${spring.github.code-search.max-file-bytes:1048576}")
+    private long maxFileBytes;
+
+    @Value("${spring.github.code-search.max-segments:8}")
+    private int maxSegments;
+
+    @Value("${spring.github.code-search.merge-deleted-ratio:0.3}")
+    private double mergeDeletedRatio;
+
+    @Value("${spring.github.code-search.max-parallel-reads:8}")
+    private int maxParallelReads;
+
+    @Value("${spring.github.code-search.wait-ms:2000}")
+    private long waitMs;
+
+    private final GitHubGateway gateway;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RepositoryIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong segmentSequence = new AtomicLong();
+    // Indexação roda fora dos requests
+    private final ExecutorService indexer = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Timer queryTimer;
+    private Timer updateTimer;
+
+    @PostConstruct
+    void init() throws IOException {
+        // Segmentos de execuções anteriores não têm manifesto: recomeça do zero
+        if (Files.exists(directory)) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        Files.createDirectories(directory);
+
+        queryTimer = Timer.builder("github.code.search.query")
+                .description("Tempo de consulta BM25 no índice de código")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        updateTimer = Timer.builder("github.code.search.update")
+                .description("Tempo de atualização incremental do índice BM25")
+                .register(meterRegistry);
+        Gauge.builder("github.code.search.documents", this, CodeSearchService::documentCount)
+                .description("Arquivos no índice BM25")
+                .register(meterRegistry);
+
+        log.info("🔤 Busca de código: enabled={}, dir={}, maxFiles={}, maxSegments={}, leituras paralelas={}",
+                enabled, directory, maxFilesPerRepository, maxSegments, maxParallelReads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        indexer.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ====================================
+    // Consulta BM25 (com o índice do commit atual, ou parcial enquanto é montado)
+    // ====================================
+    public CodeSearchResponse search(String repositoryName, String query, int limit) throws IOException {
+        String commitSha = gateway.getDefaultBranchHead(repositoryName);
+        Snapshot snapshot = snapshot(repositoryName, commitSha);
+        Set<String> terms = new LinkedHashSet<>(CodeTokenizer.tokenize(query));
+
+        long start = System.nanoTime();
+        List<ScoredDoc> top = topDocs(snapshot, terms, limit);
+        long elapsed = System.nanoTime() - start;
+        queryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        List<CodeHit> hits = new ArrayList<>(top.size());
+        for (ScoredDoc doc : top) {
+            Bm25Segment segment = snapshot.segments().get(doc.segment());
+            hits.add(preview(repositoryName, segment.path(doc.docId()), segment.sha(doc.docId()), doc.score(), terms));
+        }
+
+        return CodeSearchResponse.builder()
+                .repositoryName(repositoryName)
+                .query(query)
+                .commitSha(snapshot.commitSha())
+                .indexedFiles(snapshot.liveDocs())
+                .indexing(!snapshot.isCurrent(commitSha))
+                .tookMs(elapsed / 1_000_000.0)
+                .hits(hits)
+                .build();
+    }
+
+    private List<ScoredDoc> topDocs(Snapshot snapshot, Set<String> terms, int limit) {
+        long totalLength = 0;
+        long totalDocs = 0;
+        for (Bm25Segment segment : snapshot.segments()) {
+            totalLength += segment.totalLength();
+            totalDocs += segment.docCount();
+        }
+        if (totalDocs == 0 || terms.isEmpty()) {
+            return List.of();
+        }
+        double averageLength = (double) totalLength / totalDocs;
+        int liveDocs = snapshot.liveDocs();
+
+        float[][] scores = new float[snapshot.segments().size()][];
+        for (String term : terms) {
+            Bm25Segment.Postings[] postings = new Bm25Segment.Postings[snapshot.segments().size()];
+            int df = 0;
+            for (int s = 0; s < postings.length; s++) {
+                postings[s] = snapshot.segments().get(s).postings(term);
+                if (postings[s] != null) {
+                    df += postings[s].df();
+                }
+            }
+            if (df == 0) {
+                continue;
+            }
+
+            double idf = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+            for (int s = 0; s < postings.length; s++) {
+                if (postings[s] == null) {
+                    continue;
+                }
+                Bm25Segment segment = snapshot.segments().get(s);
+                BitSet deleted = snapshot.deleted().get(s);
+                if (scores[s] == null) {
+                    scores[s] = new float[segment.docCount()];
+                }
+                for (int i = 0; i < postings[s].df(); i++) {
+                    int docId = postings[s].docId(i);
+                    if (deleted.get(docId)) {
+                        continue;
+                    }
+                    int tf = postings[s].tf(i);
+                    double norm = K1 * (1 - B + B * segment.docLength(docId) / averageLength);
+                    scores[s][docId] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+        }
+
+        PriorityQueue<ScoredDoc> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(ScoredDoc::score));
+        for (int s = 0; s < scores.length; s++) {
+            if (scores[s] == null) {
+                continue;
+            }
+            for (int docId = 0; docId < scores[s].length; docId++) {
+                float score = scores[s][docId];
+                if (score > 0 && (best.size() < limit || score > best.peek().score())) {
+                    best.add(new ScoredDoc(s, docId, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        List<ScoredDoc> top = new ArrayList<>(best);
+        top.sort(Comparator.comparingDouble(ScoredDoc::score).reversed());
+        return top;
+    }
+
+    // Linha com mais termos da consulta (conteúdo vem do blob store)
+    private CodeHit preview(String repositoryName, String path, String sha, double score, Set<String> terms) {
+        CodeHit.CodeHitBuilder hit = CodeHit.builder().path(path).score(Math.round(score * 100) / 100.0);
+        try {
+            String[] lines = gateway.readBlob(repositoryName, sha).split("\r?\n", -1);
+            int bestLine = -1;
+            int bestMatches = 0;
+            for (int i = 0; i < lines.length; i++) {
+                int matches = 0;
+                for (String token : new LinkedHashSet<>(CodeTokenizer.tokenize(lines[i]))) {
+                    if (terms.contains(token)) {
+                        matches++;
+                    }
+                }
+                if (matches > bestMatches) {
+                    bestMatches = matches;
+                    bestLine = i;
+                }
+            }
+            if (bestLine >= 0) {
+                hit.line(bestLine + 1).preview(lines[bestLine].strip());
+            }
+        } catch (IOException e) {
+            log.debug("🔤 Prévia indisponível para {}: {}", path, e.getMessage());
+        }
+        return hit.build();
+    }
+
+    // ====================================
+    // Snapshot para a consulta: espera a atualização por até wait-ms e,
+    // passado isso, responde com o que já está indexado
+    // ====================================
+    private Snapshot snapshot(String repositoryName, String commitSha) throws IOException {
+        RepositoryIndex index = indexes.computeIfAbsent(TenantContext.scope(repositoryName), name -> new RepositoryIndex());
+        Snapshot snapshot = index.snapshot;
+        if (snapshot.isCurrent(commitSha)) {
+            return snapshot;
+        }
+
+        Future<Snapshot> pending = schedule(index, repositoryName, commitSha);
+        try {
+            return pending.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return index.snapshot;
+        } catch (ExecutionException e) {
+            log.warn("🔤 Falha ao atualizar o índice BM25 de {}: {}", repositoryName, e.getCause().getMessage());
+            return index.snapshot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido aguardando o índice BM25", e);
+        }
+    }
+
+    // Uma atualização por vez por repositório, fora da thread do request
+    private Future<Snapshot> schedule(RepositoryIndex index, String repositoryName, String commitSha) {
+        CompletableFuture<Snapshot> running = index.pending.get();
+        if (running != null && !running.isDone()) {
+            return running;
+        }
+        CompletableFuture<Snapshot> next = new CompletableFuture<>();
+        if (!index.pending.compareAndSet(running, next)) {
+            return index.pending.get();
+        }
+        indexer.execute(TenantContext.wrap(() -> {
+            try {
+                next.complete(update(index, repositoryName, commitSha));
+            } catch (Throwable e) {
+                next.completeExceptionally(e);
+            }
+        }));
+        return next;
+    }
+
+    // ====================================
+    // Atualização incremental para o commit atual do branch padrão
+    // ====================================
+    private Snapshot update(RepositoryIndex index, String repositoryName, String commitSha) throws IOException {
+        synchronized (index) {
+            if (index.closed || index.snapshot.isCurrent(commitSha)) {
+                return index.snapshot;
+            }
+
+            long start = System.nanoTime();
+            TreeListing tree = gateway.getTree(repositoryName, commitSha, true);
+            if (tree.truncated()) {
+                log.warn("🔤 Árvore truncada pelo GitHub: {} - indexando só os arquivos listados", repositoryName);
+            }
+            Map<String, String> files = indexableFiles(tree);
+
+            Snapshot previous = index.snapshot;
+            List<Bm25Segment> segments = new ArrayList<>(previous.segments());
+            List<BitSet> deleted = new ArrayList<>();
+            for (BitSet bits : previous.deleted()) {
+                deleted.add((BitSet) bits.clone());
+            }
+            // Cópia de trabalho: só vira o mapa do índice junto com um snapshot publicado
+            Map<String, DocRef> live = new HashMap<>(index.live);
+            List<Bm25Segment> written = new ArrayList<>();
+
+            try {
+                // Versões antigas de arquivos alterados ou removidos
+                Iterator<Map.Entry<String, DocRef>> it = live.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, DocRef> entry = it.next();
+                    DocRef doc = entry.getValue();
+                    if (!doc.sha().equals(files.get(entry.getKey()))) {
+                        deleted.get(segments.indexOf(doc.segment())).set(doc.docId());
+                        it.remove();
+                    }
+                }
+
+                // Arquivos novos ou alterados, em segmentos de até SEGMENT_DOCS publicados um a um
+                List<Map.Entry<String, String>> missing = new ArrayList<>();
+                for (Map.Entry<String, String> file : files.entrySet()) {
+                    if (!live.containsKey(file.getKey())) {
+                        missing.add(file);
+                    }
+                }
+
+                int added = 0;
+                int failed = 0;
+                for (int from = 0; from < missing.size(); from += SEGMENT_DOCS) {
+                    if (index.closed) {
+                        throw new IOException("Índice de " + repositoryName + " invalidado durante a atualização");
+                    }
+                    Bm25Segment.Writer writer = new Bm25Segment.Writer();
+                    failed += read(repositoryName, missing.subList(from, Math.min(missing.size(), from + SEGMENT_DOCS)), writer);
+                    if (writer.size() == 0) {
+                        continue;
+                    }
+                    Bm25Segment segment = writer.write(newSegmentFile(repositoryName));
+                    written.add(segment);
+                    segments.add(segment);
+                    deleted.add(new BitSet(segment.docCount()));
+                    addLive(live, segment);
+                    added += segment.docCount();
+                    publish(index, commitSha, segments, deleted, live, false);
+                }
+
+                if (needsMerge(segments, deleted)) {
+                    Bm25Segment merged = merge(repositoryName, segments, deleted);
+                    live = new HashMap<>();
+                    if (merged != null) {
+                        written.add(merged);
+                        addLive(live, merged);
+                    }
+                    segments = merged == null ? List.of() : List.of(merged);
+                    deleted = merged == null ? List.of() : List.of(new BitSet(merged.docCount()));
+                }
+
+                // Com arquivos que falharam o commit fica incompleto: a próxima busca tenta de novo só eles
+                publish(index, commitSha, segments, deleted, live, failed == 0);
+                deleteUnused(previous.segments(), segments);
+
+                long elapsed = System.nanoTime() - start;
+                updateTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                log.info("🔤 Índice BM25 atualizado: {} @ {} ({} arquivos novos/alterados, {} com falha, {} no índice, {} segmentos, {} ms)",
+                        repositoryName, commitSha.substring(0, Math.min(7, commitSha.length())), added, failed, live.size(),
+                        segments.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+                return index.snapshot;
+
+            } catch (IOException | RuntimeException e) {
+                // Segmentos gravados que não chegaram a ser publicados
+                deleteUnused(written, index.snapshot.segments());
+                throw e;
+            }
+        }
+    }
+
+    private static void addLive(Map<String, DocRef> live, Bm25Segment segment) {
+        for (int docId = 0; docId < segment.docCount(); docId++) {
+            live.put(segment.path(docId), new DocRef(segment, docId, segment.sha(docId)));
+        }
+    }
+
+    // Mapa de documentos vivos e snapshot mudam juntos (sob o lock do índice)
+    private static void publish(RepositoryIndex index, String commitSha, List<Bm25Segment> segments,
+                                List<BitSet> deleted, Map<String, DocRef> live, boolean complete) {
+        index.live = live;
+        index.snapshot = new Snapshot(commitSha, List.copyOf(segments), List.copyOf(deleted), live.size(), complete);
+    }
+
+    // ====================================
+    // Remove o repositório do índice (próxima busca reindexa)
+    // ====================================
+    public void invalidate(String repositoryName) {
+        RepositoryIndex index = indexes.remove(TenantContext.scope(repositoryName));
+        if (index == null) {
+            return;
+        }
+        // Atualização em andamento para no próximo lote; os segmentos saem quando ela terminar
+        index.closed = true;
+        CompletableFuture<Snapshot> running = index.pending.get();
+        if (running == null) {
+            discard(index);
+        } else {
+            running.whenComplete((snapshot, error) -> discard(index));
+        }
+    }
+
+    private static void discard(RepositoryIndex index) {
+        synchronized (index) {
+            deleteUnused(index.snapshot.segments(), List.of());
+        }
+    }
+
+    public int documentCount() {
+        int total = 0;
+        for (RepositoryIndex index : indexes.values()) {
+            total += index.snapshot.liveDocs();
+        }
+        return total;
+    }
+
+    private boolean needsMerge(List<Bm25Segment> segments, List<BitSet> deleted) {
+        long docs = 0;
+        long deletedDocs = 0;
+        for (int s = 0; s < segments.size(); s++) {
+            docs += segments.get(s).docCount();
+            deletedDocs += deleted.get(s).cardinality();
+        }
+        return segments.size() > maxSegments || (docs > 0 && (double) deletedDocs / docs > mergeDeletedRatio);
+    }
+
+    // ====================================
+    // Funde os documentos vivos num segmento só, a partir das postings
+    // ====================================
+    private Bm25Segment merge(String repositoryName, List<Bm25Segment> segments, List<BitSet> deleted) throws IOException {
+        Bm25Segment.Writer writer = new Bm25Segment.Writer();
+        List<int[]> docMaps = new ArrayList<>(segments.size());
+
+        for (int s = 0; s < segments.size(); s++) {
+            Bm25Segment segment = segments.get(s);
+            int[] docMap = new int[segment.docCount()];
+            for (int docId = 0; docId < segment.docCount(); docId++) {
+                docMap[docId] = deleted.get(s).get(docId) ? -1
+                        : writer.addDocument(segment.path(docId), segment.sha(docId), segment.docLength(docId));
+            }
+            docMaps.add(docMap);
+        }
+        if (writer.size() == 0) {
+            return null;
+        }
+
+        for (int s = 0; s < segments.size(); s++) {
+            int[] docMap = docMaps.get(s);
+            segments.get(s).forEachTerm((term, postings) -> {
+                for (int i = 0; i < postings.df(); i++) {
+                    int newDocId = docMap[postings.docId(i)];
+                    if (newDocId >= 0) {
+                        writer.addPosting(term, newDocId, postings.tf(i));
+                    }
+                }
+            });
+        }
+
+        log.info("🔤 Fundindo {} segmentos de {} ({} arquivos)", segments.size(), repositoryName, writer.size());
+        return writer.write(newSegmentFile(repositoryName));
+    }
+
+    // ====================================
+    // Lê e tokeniza um lote em paralelo (como o upload de blobs do commit em lote)
+    // e devolve quantos arquivos falharam
+    // ====================================
+    private int read(String repositoryName, List<Map.Entry<String, String>> files, Bm25Segment.Writer writer) throws IOException {
+        Semaphore permits = new Semaphore(Math.max(1, maxParallelReads));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<String>>> futures = new ArrayList<>(files.size());
+            for (Map.Entry<String, String> file : files) {
+                futures.add(executor.submit(TenantContext.wrap(() -> {
+                    permits.acquire();
+                    try {
+                        String content = readBlob(repositoryName, file.getValue());
+                        return content == null ? null : CodeTokenizer.tokenize(content);
+                    } finally {
+                        permits.release();
+                    }
+                })));
+            }
+
+            int failed = 0;
+            for (int i = 0; i < files.size(); i++) {
+                Map.Entry<String, String> file = files.get(i);
+                try {
+                    List<String> tokens = futures.get(i).get();
+                    if (tokens != null) {
+                        writer.addDocument(file.getKey(), file.getValue(), tokens);
+                    }
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("🔤 Arquivo fora do índice BM25 por enquanto: {} / {} ({})",
+                            repositoryName, file.getKey(), e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Indexação BM25 interrompida", e);
+                }
+            }
+            return failed;
+        }
+    }
+
+    // Conteúdo do blob; null para binários (ficam fora do índice)
+    private String readBlob(String repositoryName, String sha) throws Exception {
+        // Indexação é trabalho em lote: cede a vez às chamadas interativas
+        String content = GitHubRequestPriority.runAs(GitHubRequestPriority.BATCH, () -> gateway.readBlob(repositoryName, sha));
+        return content.indexOf('\0') >= 0 ? null : content;
+    }
+
+    private Map<String, String> indexableFiles(TreeListing tree) {
+        Map<String, String> files = new HashMap<>();
+        for (TreeEntry entry : tree.entries()) {
+            if (!entry.isBlob() || !CodeChunker.supports(entry.path())) {
+                continue;
+            }
+            if (entry.size() != null && entry.size() > maxFileBytes) {
+                continue;
+            }
+            if (files.size() >= maxFilesPerRepository) {
+                log.warn("🔤 Limite de {} arquivos no índice BM25 atingido", maxFilesPerRepository);
+                break;
+            }
+            files.put(entry.path(), entry.sha());
+        }
+        return files;
+    }
+
+    private Path newSegmentFile(String repositoryName) throws IOException {
+        Path repositoryDirectory = directory.resolve(TenantContext.scope(repositoryName).replaceAll("[^A-Za-z0-9._-]", "_"));
+        Files.createDirectories(repositoryDirectory);
+        return repositoryDirectory.resolve(String.format("%08d.seg", segmentSequence.incrementAndGet()));
+    }
+
+    // Consultas em andamento continuam com o mapeamento mesmo após apagar o arquivo
+    private static void deleteUnused(List<Bm25Segment> previous, List<Bm25Segment> current) {
+        for (Bm25Segment segment : previous) {
+            if (!current.contains(segment)) {
+                try {
+                    Files.deleteIfExists(segment.file());
+                } catch (IOException e) {
+                    log.warn("🔤 Não foi possível apagar o segmento {}: {}", segment.file(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class RepositoryIndex {
+        private volatile Snapshot snapshot = new Snapshot(null, List.of(), List.of(), 0, false);
+        // Caminho -> documento vivo (só lido e trocado sob o lock do índice)
+        private Map<String, DocRef> live = new HashMap<>();
+        // Atualização em andamento ou a última concluída
+        private final AtomicReference<CompletableFuture<Snapshot>> pending = new AtomicReference<>();
+        private volatile boolean closed;
+    }
+
+    // complete = todos os arquivos do commit foram lidos
+    private record Snapshot(String commitSha, List<Bm25Segment> segments, List<BitSet> deleted, int liveDocs, boolean complete) {
+
+        boolean isCurrent(String headSha) {
+            return complete && headSha.equals(commitSha);
+        }
+    }
+
+    private record DocRef(Bm25Segment segment, int docId, String sha) {}
+
+    private record ScoredDoc(int segment, int docId, float score) {}
+}
@@ -0,0 +1,111 @@
+package br.com.sistema.github.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tokenizador de código para o índice lexical.
+ *
+ * Um identificador gera o próprio termo (em minúsculas) e, se for composto,
+ * também as partes: {@code getUserById} → {@code getuserbyid, get, user, by, id};
+ * {@code MAX_RETRY_COUNT} → {@code max_retry_count, max, retry, count};
+ * {@code HTTPServer2} → {@code httpserver2, http, server, 2}. Assim tanto o nome
+ * exato quanto as palavras soltas encontram o arquivo.
+ */
+final class CodeTokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    private CodeTokenizer() {
+    }
+
+    static List<String> tokenize(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && !isIdentifierChar(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && isIdentifierChar(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                addIdentifier(tokens, text, start, i);
+            }
+        }
+        return tokens;
+    }
+
+    // ====================================
+    // Identificador inteiro + partes (snake_case, camelCase, dígitos)
+    // ====================================
+    private static void addIdentifier(List<String> tokens, CharSequence text, int start, int end) {
+        // Remove "_" das bordas (_private, __init__)
+        while (start < end && text.charAt(start) == '_') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) == '_') {
+            end--;
+        }
+        if (end - start < 2 || end - start > MAX_TOKEN_LENGTH) {
+            return;
+        }
+
+        String whole = text.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+        tokens.add(whole);
+
+        int partStart = start;
+        int parts = 0;
+        int firstPart = tokens.size();
+        for (int i = start + 1; i <= end; i++) {
+            if (i == end || isBoundary(text, i)) {
+                int partEnd = i;
+                int from = partStart;
+                while (from < partEnd && text.charAt(from) == '_') {
+                    from++;
+                }
+                if (partEnd > from) {
+                    tokens.add(text.subSequence(from, partEnd).toString().toLowerCase(Locale.ROOT));
+                    parts++;
+                }
+                partStart = i;
+            }
+        }
+
+        // Identificador simples: a única parte repete o termo inteiro
+        if (parts == 1) {
+            tokens.remove(firstPart);
+        }
+    }
+
+    private static boolean isBoundary(CharSequence text, int i) {
+        char previous = text.charAt(i - 1);
+        char current = text.charAt(i);
+
+        if (current == '_') {
+            return true;
+        }
+        if (previous == '_') {
+            return false;
+        }
+        // fooBar
+        if (Character.isLowerCase(previous) && Character.isUpperCase(current)) {
+            return true;
+        }
+        // HTTPServer: quebra antes do "S" (maiúscula seguida de minúscula)
+        if (Character.isUpperCase(previous) && Character.isUpperCase(current)
+                && i + 1 < text.length() && Character.isLowerCase(text.charAt(i + 1))) {
+            return true;
+        }
+        // http2, v2Api
+        return Character.isDigit(previous) != Character.isDigit(current);
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.sistema.github.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Armazena em memória o histórico de cada conversa do chat.
+ *
+ * A janela de cada conversa é limitada em tokens pelo {@code TokenWindowChatMemory}
+ * (ver {@code AssistantConfig}); aqui ficam os limites globais: número de conversas,
+ * total de tokens somando todas elas (LRU) e expiração por inatividade. Assim o
+ * histórico não cresce sem limite com muitos usuários simultâneos.
+ *
+ * Quem mantém referências às conversas (o {@code ChatMemoryService} do AiService)
+ * se registra em {@link #onEviction} para liberá-las junto.
+ */
+@Component
+@Slf4j
+public class ConversationMemoryStore implements ChatMemoryStore {
+
+    private final TokenEstimator tokenEstimator;
+    private final int maxConversations;
+    private final long maxTotalTokens;
+    private final Duration idleTtl;
+    private final Clock clock;
+
+    private final LinkedHashMap<Object, Conversation> conversations = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalTokens;
+    private volatile Consumer<Object> evictionListener = memoryId -> {};
+
+    private final Counter evictions;
+
+    @Autowired
+    public ConversationMemoryStore(
+            TokenEstimator tokenEstimator,
+            @Value("${spring.github.chat.memory.max-conversations:5000}") int maxConversations,
+            @Value("${spring.github.chat.memory.max-total-tokens:4000000}") long maxTotalTokens,
+            @Value("${spring.github.chat.memory.idle-ttl-minutes:30}") long idleTtlMinutes,
+            MeterRegistry meterRegistry) {
+        this(tokenEstimator, maxConversations, maxTotalTokens, Duration.ofMinutes(idleTtlMinutes), meterRegistry, Clock.systemUTC());
+    }
+
+    ConversationMemoryStore(TokenEstimator tokenEstimator, int maxConversations, long maxTotalTokens,
+                            Duration idleTtl, MeterRegistry meterRegistry, Clock clock) {
+        this.tokenEstimator = tokenEstimator;
+        this.maxConversations = maxConversations;
+        this.maxTotalTokens = maxTotalTokens;
+        this.idleTtl = idleTtl;
+        this.clock = clock;
+
+        this.evictions = Counter.builder("github.chat.memory.evictions")
+                .description("Conversas removidas da memória por limite ou inatividade")
+                .register(meterRegistry);
+
+        Gauge.builder("github.chat.memory.conversations", this, ConversationMemoryStore::size)
+                .description("Conversas com histórico em memória")
+                .register(meterRegistry);
+        Gauge.builder("github.chat.memory.tokens", this, ConversationMemoryStore::tokens)
+                .description("Tokens estimados somando o histórico de todas as conversas")
+                .register(meterRegistry);
+
+        log.info("🧠 Memória de chat: maxConversations={}, maxTotalTokens={}, idleTtl={}min",
+                maxConversations, maxTotalTokens, idleTtl.toMinutes());
+    }
+
+    public void onEviction(Consumer<Object> listener) {
+        this.evictionListener = listener;
+    }
+
+    // ====================================
+    // ChatMemoryStore
+    // ====================================
+    @Override
+    public synchronized List<ChatMessage> getMessages(Object memoryId) {
+        Conversation conversation = conversations.get(memoryId);
+        if (conversation == null) {
+            return new ArrayList<>();
+        }
+        conversation.lastAccess = clock.instant();
+        return new ArrayList<>(conversation.messages);
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        int tokens = tokenEstimator.estimateTokenCountInMessages(messages);
+        List<Object> evicted;
+
+        synchronized (this) {
+            Conversation previous = conversations.remove(memoryId);
+            if (previous != null) {
+                totalTokens -= previous.tokens;
+            }
+
+            conversations.put(memoryId, new Conversation(List.copyOf(messages), tokens, clock.instant()));
+            totalTokens += tokens;
+
+            evicted = evictOverLimit(memoryId);
+        }
+
+        notifyEvicted(evicted);
+    }
+
+    @Override
+    public synchronized void deleteMessages(Object memoryId) {
+        Conversation removed = conversations.remove(memoryId);
+        if (removed != null) {
+            totalTokens -= removed.tokens;
+        }
+    }
+
+    // ====================================
+    // Expira conversas inativas
+    // ====================================
+    @Scheduled(fixedDelayString = "${spring.github.chat.memory.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        Instant cutoff = clock.instant().minus(idleTtl);
+        List<Object> evicted = new ArrayList<>();
+
+        synchronized (this) {
+            // Ordem de acesso: as mais antigas vêm primeiro
+            Iterator<Map.Entry<Object, Conversation>> eldest = conversations.entrySet().iterator();
+            while (eldest.hasNext()) {
+                Map.Entry<Object, Conversation> entry = eldest.next();
+                if (entry.getValue().lastAccess.isAfter(cutoff)) {
+                    break;
+                }
+                totalTokens -= entry.getValue().tokens;
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+
+        if (!evicted.isEmpty()) {
+            log.info("🧠 {} conversas inativas removidas da memória", evicted.size());
+        }
+        notifyEvicted(evicted);
+    }
+
+    public synchronized int size() {
+        return conversations.size();
+    }
+
+    public synchronized long tokens() {
+        return totalTokens;
+    }
+
+    // Remove as menos usadas até caber nos limites globais (nunca a conversa atual)
+    private List<Object> evictOverLimit(Object currentId) {
+        List<Object> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Object, Conversation>> eldest = conversations.entrySet().iterator();
+
+        while ((conversations.size() > maxConversations || totalTokens > maxTotalTokens) && eldest.hasNext()) {
+            Map.Entry<Object, Conversation> entry = eldest.next();
+            if (entry.getKey().equals(currentId)) {
+                continue;
+            }
+            totalTokens -= entry.getValue().tokens;
+            evicted.add(entry.getKey());
+            eldest.remove();
+        }
+
+        return evicted;
+    }
+
+    private void notifyEvicted(List<Object> evicted) {
+        for (Object memoryId : evicted) {
+            evictions.increment();
+            evictionListener.accept(memoryId);
+        }
+    }
+
+    private static final class Conversation {
+        private final List<ChatMessage> messages;
+        private final int tokens;
+        private Instant lastAccess;
+
+        private Conversation(List<ChatMessage> messages, int tokens, Instant lastAccess) {
+            this.messages = messages;
+            this.tokens = tokens;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
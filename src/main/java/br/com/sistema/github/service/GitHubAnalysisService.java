@@ -0,0 +1,401 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.sistema.github.dtos.request.AnalyzeGitHubFilesRequest;
+import br.com.sistema.github.gateway.GitHubRequestPriority;
+import br.com.sistema.github.gateway.SingleFlight;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.FileFetchResult;
+import dev.langchain4j.model.chat.ChatModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Análise de arquivos com IA.
+ *
+ * Os arquivos são buscados em paralelo e divididos em lotes pelo orçamento de
+ * tokens. Um único lote segue o caminho de sempre (uma chamada ao assistente);
+ * vários lotes viram map-reduce: cada lote é analisado em paralelo e uma
+ * última chamada consolida os achados parciais. Achados que não cabem num
+ * prompt são consolidados antes em rodadas, por grupos.
+ *
+ * Se alguns lotes falham, a resposta começa avisando que é parcial e lista os
+ * arquivos não analisados (e não vai para o cache); acima de
+ * {@code max-failed-batch-ratio} a análise falha.
+ *
+ * Com {@code spring.github.analyze.coalesce=true}, requests idênticos em andamento
+ * ao mesmo tempo compartilham uma única análise.
+ *
+ * Os jobs assíncronos ({@link AnalysisJobService}) passam um {@link AnalysisProgress}
+ * para acompanhar arquivos e lotes e interromper a análise entre as fases.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubAnalysisService {
+
+    private static final int MAX_REDUCE_ROUNDS = 4;
+
+    @Value("${spring.github.analyze.max-parallel-fetches:8}")
+    private int maxParallelFetches;
+
+    @Value("${spring.github.analyze.fetch-timeout-seconds:30}")
+    private long fetchTimeoutSeconds;
+
+    @Value("${spring.github.analyze.max-batch-tokens:30000}")
+    private int maxBatchTokens;
+
+    @Value("${spring.github.analyze.max-parallel-batches:4}")
+    private int maxParallelBatches;
+
+    @Value("${spring.github.analyze.batch-timeout-seconds:120}")
+    private long batchTimeoutSeconds;
+
+    @Value("${spring.github.analyze.max-failed-batch-ratio:0.25}")
+    private double maxFailedBatchRatio;
+
+    @Value("${spring.github.analyze.coalesce:false}")
+    private boolean coalesce;
+
+    private final GitHubDataStructureService dataService;
+    private final GitHubAssistantService assistantService;
+    private final ChatModel chatModel;
+    private final TokenEstimator tokenEstimator;
+    private final ResponseCache responseCache;
+
+    // Chave inclui o usuário: pedidos iguais de usuários diferentes não se misturam
+    private final SingleFlight<Map.Entry<String, AnalyzeGitHubFilesRequest>, String> inFlightAnalyses = new SingleFlight<>();
+
+    // ====================================
+    // Busca os arquivos e envia para análise da IA
+    // ====================================
+    public String analyze(AnalyzeGitHubFilesRequest request) throws IOException {
+        if (coalesce) {
+            // Pedidos idênticos simultâneos recebem a mesma análise
+            return inFlightAnalyses.execute(Map.entry(TenantContext.id(), request),
+                    () -> runAnalysis(request, AnalysisProgress.NONE));
+        }
+        return runAnalysis(request, AnalysisProgress.NONE);
+    }
+
+    // ====================================
+    // Mesma análise, reportando o progresso (jobs assíncronos)
+    // ====================================
+    public String analyze(AnalyzeGitHubFilesRequest request, AnalysisProgress progress) throws IOException {
+        return runAnalysis(request, progress);
+    }
+
+    private String runAnalysis(AnalyzeGitHubFilesRequest request, AnalysisProgress progress) throws IOException {
+        List<FileFetchResult> files = fetchFiles(request.repositoryName(), request.selectedFilePaths(), progress);
+        progress.checkpoint();
+
+        if (files.stream().noneMatch(FileFetchResult::isSuccess)) {
+            throw new IOException("Nenhum dos arquivos selecionados pôde ser lido");
+        }
+
+        // Mesmos arquivos (mesmos SHAs) e mesmo tipo de análise: resposta já conhecida
+        ResponseCache.Key cacheKey = responseCache.analyzeKey(request.repositoryName(), request.analysisType(), files);
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            log.info("💾 Análise em cache: {} ({} arquivos)", request.repositoryName(), files.size());
+            return cached;
+        }
+
+        Analysis analysis = analyzeFiles(request, files, progress);
+        // Análise parcial não é reaproveitada: o próximo pedido tenta os lotes de novo
+        if (!analysis.partial()) {
+            responseCache.put(cacheKey, analysis.text());
+        }
+        return analysis.text();
+    }
+
+    private Analysis analyzeFiles(AnalyzeGitHubFilesRequest request, List<FileFetchResult> files,
+                                  AnalysisProgress progress) throws IOException {
+        List<AnalysisBatcher.Batch> batches = new AnalysisBatcher(tokenEstimator, maxBatchTokens).batch(files);
+        progress.phase(AnalysisProgress.Phase.ANALYZING, batches.size());
+
+        if (batches.size() == 1) {
+            String filesContent = String.format("Análise de %d arquivos do repositório %s:\n\n%s",
+                    files.size(), request.repositoryName(), batches.get(0).text());
+            String analysisPrompt = String.format("Faça uma análise %s dos seguintes arquivos:\n\n%s", request.analysisType(), filesContent);
+            String analysis = assistantService.answer(analysisPrompt);
+            progress.advanced(true);
+            return new Analysis(analysis, false);
+        }
+
+        log.info("🧩 Análise map-reduce: {} arquivos em {} lotes", files.size(), batches.size());
+        List<Outcome<String>> outcomes = mapBatches(request, batches, progress);
+        progress.checkpoint();
+
+        List<String> partials = new ArrayList<>(outcomes.size());
+        List<String> uncovered = new ArrayList<>();
+        for (int i = 0; i < outcomes.size(); i++) {
+            Outcome<String> outcome = outcomes.get(i);
+            if (outcome.isSuccess()) {
+                partials.add(outcome.value());
+            } else {
+                log.warn("❌ Lote {} falhou: {}", i + 1, outcome.error());
+                uncovered.addAll(batches.get(i).paths());
+            }
+        }
+
+        int failed = batches.size() - partials.size();
+        if (partials.isEmpty()) {
+            throw new IOException("Nenhum lote da análise foi concluído");
+        }
+        if ((double) failed / batches.size() > maxFailedBatchRatio) {
+            throw new IOException(String.format("%d de %d lotes da análise falharam", failed, batches.size()));
+        }
+
+        progress.phase(AnalysisProgress.Phase.CONSOLIDATING, 1);
+        String analysis = reduce(request, partials, progress);
+        progress.advanced(true);
+
+        if (failed == 0) {
+            return new Analysis(analysis, false);
+        }
+        String notice = String.format("⚠️ Análise parcial: %d de %d partes falharam. Arquivos não analisados: %s\n\n",
+                failed, batches.size(), String.join(", ", uncovered));
+        return new Analysis(notice + analysis, true);
+    }
+
+    // ====================================
+    // Map: analisa cada lote em paralelo
+    // ====================================
+    private List<Outcome<String>> mapBatches(AnalyzeGitHubFilesRequest request, List<AnalysisBatcher.Batch> batches,
+                                             AnalysisProgress progress) {
+        List<Callable<String>> tasks = new ArrayList<>(batches.size());
+        for (int i = 0; i < batches.size(); i++) {
+            String prompt = String.format("""
+                    Você está analisando a parte %d de %d dos arquivos do repositório %s.
+                    Faça uma análise %s apenas destes arquivos.
+                    Liste os achados de forma objetiva, citando arquivo e trecho. Não escreva introdução nem conclusão.
+
+                    %s""", i + 1, batches.size(), request.repositoryName(), request.analysisType(), batches.get(i).text());
+            tasks.add(() -> chatModel.chat(prompt));
+        }
+
+        return runBounded(tasks, maxParallelBatches, TimeUnit.SECONDS.toNanos(batchTimeoutSeconds), Long.MAX_VALUE, progress);
+    }
+
+    // ====================================
+    // Reduce: consolida os achados parciais em uma única análise
+    // ====================================
+    private String reduce(AnalyzeGitHubFilesRequest request, List<String> partials,
+                          AnalysisProgress progress) throws IOException {
+        AnalysisBatcher batcher = new AnalysisBatcher(tokenEstimator, maxBatchTokens);
+        List<String> findings = new ArrayList<>(partials.size());
+        for (int i = 0; i < partials.size(); i++) {
+            findings.add(String.format("### Parte %d\n%s\n\n", i + 1, partials.get(i)));
+        }
+
+        // Achados maiores que o orçamento: consolida por grupos até caberem num prompt
+        List<String> groups = batcher.pack(findings);
+        for (int round = 1; groups.size() > 1; round++) {
+            if (round > MAX_REDUCE_ROUNDS) {
+                throw new IOException(String.format("Achados parciais grandes demais para consolidar (%d grupos após %d rodadas)",
+                        groups.size(), MAX_REDUCE_ROUNDS));
+            }
+            log.info("🧩 Consolidação em rodadas: {} partes em {} grupos (rodada {})", findings.size(), groups.size(), round);
+            findings = consolidateGroups(request, groups);
+            progress.checkpoint();
+            groups = batcher.pack(findings);
+        }
+
+        String prompt = String.format("""
+                Abaixo estão análises parciais (%s) de arquivos do repositório %s, feitas em partes.
+                Consolide tudo em uma única análise %s: remova duplicatas, agrupe por tema,
+                ordene por relevância e termine com recomendações.
+
+                %s""", request.analysisType(), request.repositoryName(), request.analysisType(), groups.get(0));
+
+        return chatModel.chat(prompt);
+    }
+
+    // Uma rodada intermediária: cada grupo vira uma lista única de achados
+    private List<String> consolidateGroups(AnalyzeGitHubFilesRequest request, List<String> groups) throws IOException {
+        List<Callable<String>> tasks = new ArrayList<>(groups.size());
+        for (String group : groups) {
+            String prompt = String.format("""
+                    Abaixo estão análises parciais (%s) de parte dos arquivos do repositório %s.
+                    Junte-as numa lista única de achados: remova duplicatas e agrupe por tema, mantendo arquivo e trecho.
+                    Não escreva introdução, conclusão nem recomendações.
+
+                    %s""", request.analysisType(), request.repositoryName(), group);
+            tasks.add(() -> chatModel.chat(prompt));
+        }
+
+        List<Outcome<String>> outcomes = runBounded(tasks, maxParallelBatches, TimeUnit.SECONDS.toNanos(batchTimeoutSeconds),
+                Long.MAX_VALUE, AnalysisProgress.NONE);
+
+        List<String> consolidated = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            Outcome<String> outcome = outcomes.get(i);
+            if (outcome.isSuccess()) {
+                consolidated.add(String.format("### Grupo %d\n%s\n\n", i + 1, outcome.value()));
+            } else {
+                // Grupo mantido como estava: entra de novo na próxima rodada
+                log.warn("❌ Consolidação do grupo {} falhou: {}", i + 1, outcome.error());
+                consolidated.add(groups.get(i));
+            }
+        }
+
+        if (outcomes.stream().noneMatch(Outcome::isSuccess)) {
+            throw new IOException("Nenhum grupo da consolidação foi concluído");
+        }
+        return consolidated;
+    }
+
+    // ====================================
+    // Busca arquivos em paralelo (virtual threads), limitado e com prazo
+    // ====================================
+    public List<FileFetchResult> fetchFiles(String repositoryName, List<String> filePaths) {
+        return fetchFiles(repositoryName, filePaths, AnalysisProgress.NONE);
+    }
+
+    private List<FileFetchResult> fetchFiles(String repositoryName, List<String> filePaths, AnalysisProgress progress) {
+        progress.phase(AnalysisProgress.Phase.FETCHING, filePaths.size());
+        long startNanos = System.nanoTime();
+
+        List<Callable<FileContent>> tasks = new ArrayList<>(filePaths.size());
+        for (String filePath : filePaths) {
+            // Lote: cede a vez às chamadas interativas do chat
+            tasks.add(() -> GitHubRequestPriority.runAs(GitHubRequestPriority.BATCH,
+                    () -> dataService.readFileContent(repositoryName, filePath)));
+        }
+
+        // Um prazo só para a busca inteira, contando também a espera pela vaga
+        long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(fetchTimeoutSeconds);
+        List<Outcome<FileContent>> outcomes = runBounded(tasks, maxParallelFetches, 0, deadlineNanos, progress);
+
+        // Resultados na mesma ordem dos caminhos pedidos
+        List<FileFetchResult> results = new ArrayList<>(filePaths.size());
+        for (int i = 0; i < filePaths.size(); i++) {
+            Outcome<FileContent> outcome = outcomes.get(i);
+            if (outcome.isSuccess()) {
+                results.add(FileFetchResult.success(filePaths.get(i), outcome.value()));
+            } else {
+                log.warn("❌ Falha ao ler {}: {}", filePaths.get(i), outcome.error());
+                results.add(FileFetchResult.failure(filePaths.get(i), outcome.error()));
+            }
+        }
+
+        log.info("📥 {} arquivos buscados em {} ms (paralelismo {})", filePaths.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), maxParallelFetches);
+        return results;
+    }
+
+    // ====================================
+    // Executa tarefas em virtual threads com limite de concorrência. Prazos:
+    // taskTimeoutNanos por tarefa, contado a partir da vaga (lotes do modelo);
+    // deadlineNanos (System.nanoTime) para todas, contando a espera pela vaga
+    // (busca de arquivos). Sem prazo: 0 / Long.MAX_VALUE
+    // ====================================
+    private <T> List<Outcome<T>> runBounded(List<Callable<T>> tasks, int parallelism, long taskTimeoutNanos,
+                                            long deadlineNanos, AnalysisProgress progress) {
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(TenantContext.wrap(() -> {
+                    if (!acquire(permits, deadlineNanos)) {
+                        progress.advanced(false);
+                        throw new TimeoutException("tempo limite excedido aguardando vaga");
+                    }
+                    long limitNanos = taskTimeoutNanos > 0
+                            ? Math.min(deadlineNanos, System.nanoTime() + taskTimeoutNanos)
+                            : deadlineNanos;
+                    boolean success = false;
+                    try {
+                        // Ao estourar o prazo, a tarefa é cancelada e a vaga volta para a fila
+                        Future<T> running = executor.submit(TenantContext.wrap(task));
+                        try {
+                            T value = running.get(Math.max(0, limitNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                            success = true;
+                            return value;
+                        } catch (TimeoutException | InterruptedException e) {
+                            running.cancel(true);
+                            throw e;
+                        }
+                    } finally {
+                        permits.release();
+                        progress.advanced(success);
+                    }
+                })));
+            }
+
+            List<Outcome<T>> outcomes = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                outcomes.add(await(future));
+            }
+            return outcomes;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean acquire(Semaphore permits, long limitNanos) throws InterruptedException {
+        if (limitNanos == Long.MAX_VALUE) {
+            permits.acquire();
+            return true;
+        }
+        return permits.tryAcquire(Math.max(0, limitNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private static <T> Outcome<T> await(Future<T> future) {
+        try {
+            return Outcome.success(future.get());
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            // Falha da tarefa chega embrulhada duas vezes (vaga + prazo)
+            if (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof TimeoutException) {
+                return Outcome.failure("tempo limite excedido");
+            }
+            return Outcome.failure(cause.getMessage());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return Outcome.failure("execução interrompida");
+        }
+    }
+
+    private record Analysis(String text, boolean partial) {}
+
+    private record Outcome<T>(T value, String error) {
+        static <T> Outcome<T> success(T value) {
+            return new Outcome<>(value, null);
+        }
+
+        static <T> Outcome<T> failure(String error) {
+            return new Outcome<>(null, error != null ? error : "erro desconhecido");
+        }
+
+        boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
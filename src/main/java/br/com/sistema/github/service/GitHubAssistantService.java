@@ -1,8 +1,28 @@
 package br.com.sistema.github.service;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.tools.GithubAssistantTools;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.service.MemoryId;
+import dev.langchain4j.service.Result;
 import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
 import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.memory.ChatMemoryAccess;
 import dev.langchain4j.service.spring.AiService;
+import dev.langchain4j.service.tool.ToolExecution;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -10,22 +30,90 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class GitHubAssistantService {
     
+    private static final ObjectMapper JSON = new ObjectMapper();
+    
     private final GitHubAiService aiService;
+    private final ConversationMemoryStore memoryStore;
+    private final ResponseCache responseCache;
+    private final SemanticResponseCache semanticCache;
+    private final DistributionSummary toolCallsPerTurn;
     
-    public GitHubAssistantService(GitHubAiService aiService) {
+    public GitHubAssistantService(GitHubAiService aiService, ConversationMemoryStore memoryStore,
+                                  ResponseCache responseCache, SemanticResponseCache semanticCache,
+                                  MeterRegistry meterRegistry) {
         this.aiService = aiService;
+        this.memoryStore = memoryStore;
+        this.responseCache = responseCache;
+        this.semanticCache = semanticCache;
+        this.toolCallsPerTurn = ChatModelMetrics.toolCallsPerTurn(meterRegistry, "blocking");
+        // Conversa removida do store por limite/inatividade também sai do cache do AiService
+        memoryStore.onEviction(aiService::evictChatMemory);
         log.info("✅ GitHubAssistantService inicializado com GitHubAiService");
     }
     
-    public String processMessage(String userMessage) {
+    // ====================================
+    // Mensagem avulsa: conversa descartável, sem histórico (falhas propagam)
+    // ====================================
+    public String answer(String userMessage) {
+        String conversationId = UUID.randomUUID().toString();
+        try {
+            return chat(conversationId, userMessage).content();
+        } finally {
+            aiService.evictChatMemory(TenantContext.scope(conversationId));
+        }
+    }
+    
+    // ====================================
+    // Mensagem dentro de uma conversa (histórico por conversationId)
+    // ====================================
+    public String processMessage(String conversationId, String userMessage) {
         try {
-            log.info("💬 Processando mensagem do usuário");
-            log.info("   Mensagem: {}", userMessage.substring(0, Math.min(100, userMessage.length())));
+            return chat(conversationId, userMessage).content();
             
-            String response = aiService.chat(userMessage);
+        } catch (Exception e) {
+            log.error("❌ Erro ao processar mensagem", e);
+            return "❌ Erro ao processar requisição: " + e.getMessage();
+        }
+    }
+    
+    // ====================================
+    // Primeira mensagem de uma conversa: pode ser respondida pelo cache
+    // ====================================
+    public String processNewConversation(String conversationId, String userMessage) {
+        ResponseCache.ChatState state = chatState(userMessage);
+        ResponseCache.Key key = state != null && responseCache.isEnabled() ? responseCache.chatKey(state) : null;
+        
+        String cached = responseCache.get(key);
+        if (cached != null) {
+            log.info("💾 Resposta em cache (conversa {})", conversationId);
+            return continueFrom(conversationId, userMessage, cached);
+        }
+        
+        // Pergunta parecida já respondida no mesmo estado dos repositórios
+        float[] embedding = embed(state);
+        if (embedding != null) {
+            String similar = semanticCache.get(state, embedding);
+            if (similar != null) {
+                log.info("🧭 Resposta do cache semântico (conversa {})", conversationId);
+                return continueFrom(conversationId, userMessage, similar);
+            }
+        }
+        
+        try {
+            Result<String> result = chat(conversationId, userMessage);
             
-            log.info("✅ Resposta gerada com sucesso");
-            return response;
+            // Só respostas que não alteraram nada no GitHub podem ser repetidas
+            boolean readOnly = result.toolExecutions().stream()
+                    .allMatch(execution -> GithubAssistantTools.READ_ONLY_TOOLS.contains(execution.request().name()));
+            Set<String> toolRepositories = readOnly ? toolRepositories(result) : null;
+            if (toolRepositories != null) {
+                responseCache.put(key, result.content(), toolRepositories);
+                // O semântico não confere commits: só quando as tools ficaram nos repositórios citados
+                if (embedding != null && state.repositories().containsAll(scoped(toolRepositories))) {
+                    semanticCache.put(state, embedding, result.content());
+                }
+            }
+            return result.content();
             
         } catch (Exception e) {
             log.error("❌ Erro ao processar mensagem", e);
@@ -33,15 +121,82 @@ public class GitHubAssistantService {
         }
     }
     
+    // A conversa continua a partir da resposta em cache
+    private String continueFrom(String conversationId, String userMessage, String cached) {
+        memoryStore.updateMessages(TenantContext.scope(conversationId), List.of(
+                dev.langchain4j.data.message.SystemMessage.from(GitHubAiService.SYSTEM_PROMPT),
+                dev.langchain4j.data.message.UserMessage.from(userMessage),
+                AiMessage.from(cached)));
+        return cached;
+    }
+    
+    private Result<String> chat(String conversationId, String userMessage) {
+        log.info("💬 Processando mensagem do usuário (conversa {})", conversationId);
+        log.info("   Mensagem: {}", userMessage.substring(0, Math.min(100, userMessage.length())));
+        
+        // Histórico por usuário: o mesmo conversationId de outro token é outra conversa
+        Result<String> result = aiService.chat(TenantContext.scope(conversationId), userMessage);
+        toolCallsPerTurn.record(result.toolExecutions().size());
+        
+        log.info("✅ Resposta gerada com sucesso");
+        return result;
+    }
+    
+    // Repositórios consultados pelas tools (argumento repositoryName); null se não der para saber
+    private static Set<String> toolRepositories(Result<String> result) {
+        Set<String> repositories = new TreeSet<>();
+        for (ToolExecution execution : result.toolExecutions()) {
+            try {
+                JsonNode name = JSON.readTree(execution.request().arguments()).get("repositoryName");
+                if (name != null && name.isTextual()) {
+                    repositories.add(name.asText());
+                }
+            } catch (JsonProcessingException e) {
+                log.debug("💾 Argumentos da tool {} ilegíveis, resposta fora do cache", execution.request().name());
+                return null;
+            }
+        }
+        return repositories;
+    }
+    
+    private static Set<String> scoped(Set<String> repositoryNames) {
+        Set<String> scoped = new TreeSet<>();
+        repositoryNames.forEach(name -> scoped.add(TenantContext.scope(name)));
+        return scoped;
+    }
+    
+    private ResponseCache.ChatState chatState(String userMessage) {
+        if (!responseCache.isEnabled() && !semanticCache.isEnabled()) {
+            return null;
+        }
+        try {
+            return responseCache.chatState(userMessage);
+        } catch (IOException e) {
+            log.warn("💾 Estado dos repositórios indisponível, cache ignorado: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private float[] embed(ResponseCache.ChatState state) {
+        if (state == null || !semanticCache.isEnabled()) {
+            return null;
+        }
+        try {
+            return semanticCache.embed(state);
+        } catch (RuntimeException e) {
+            log.warn("🧭 Embedding indisponível, cache semântico ignorado: {}", e.getMessage());
+            return null;
+        }
+    }
+    
     @AiService
-    public interface GitHubAiService {
+    public interface GitHubAiService extends ChatMemoryAccess {
         
         /**
-         * SystemMessage: Instrução do sistema (personalidade e comportamento da IA)
-         * @UserMessage: Mensagem do usuário
-         * @return resposta gerada pela IA
+         * Instrução do sistema (personalidade e comportamento da IA),
+         * compartilhada pelas variantes síncrona e streaming do chat.
          */
-        @SystemMessage("""
+        String SYSTEM_PROMPT = """
                 Você é um assistente especializado em GitHub.
                 
                 ========== IDENTIDADE ==========
@@ -65,6 +220,8 @@ public class GitHubAssistantService {
                 📄 ARQUIVOS:
                   - Listar arquivos de um repositório
                   - Ler conteúdo de arquivos
+                  - Buscar trechos de código relevantes (busca semântica)
+                  - Buscar arquivos que contêm termos ou identificadores (busca textual)
                   - Criar novos arquivos
                   - Atualizar arquivos existentes
                   - Deletar arquivos
@@ -93,6 +250,7 @@ public class GitHubAssistantService {
                   - Use emojis para melhor visualização
                   - Explique o que foi feito
                   - Confirme operações destrutivas (delete, update)
+                  - Para perguntas sobre código, busque trechos (searchCodeSnippets) antes de ler arquivos inteiros
                   - Se precisar de informações adicionais, peça ao usuário
                 
                 ✗ NUNCA:
@@ -101,6 +259,12 @@ public class GitHubAssistantService {
                   - Responda com dados fictícios
                   - Use linguagem ofensiva
                 
+                ========== RESULTADO DAS FERRAMENTAS ==========
+                
+                As ferramentas podem responder em formato tabular: uma linha "#tipo chave=valor",
+                uma linha com os nomes das colunas e uma linha por item, separadas por TAB
+                ("-" = vazio; type d = diretório, f = arquivo). Apresente ao usuário em Markdown.
+                
                 ========== FORMATO DE RESPOSTA ==========
                 
                 - Use Markdown para formatação
@@ -137,7 +301,23 @@ public class GitHubAssistantService {
                 • Se houver erro, explique claramente o problema
                 
                 Você está pronto para ajudar com GitHub! 🚀
-                """)
-        String chat(@UserMessage String userMessage);
+                """;
+        
+        /**
+         * @MemoryId: Conversa (histórico limitado por tokens)
+         * @UserMessage: Mensagem do usuário
+         * @return resposta gerada pela IA (e as tools executadas)
+         */
+        @SystemMessage(SYSTEM_PROMPT)
+        Result<String> chat(@MemoryId String conversationId, @UserMessage String userMessage);
+        
+        /**
+         * Mesma conversa, entregue token a token (requer StreamingChatModel)
+         * @MemoryId: Conversa (histórico limitado por tokens)
+         * @UserMessage: Mensagem do usuário
+         * @return fluxo de tokens e eventos de tool
+         */
+        @SystemMessage(SYSTEM_PROMPT)
+        TokenStream chatStream(@MemoryId String conversationId, @UserMessage String userMessage);
     }
 }
\ No newline at end of file
@@ -0,0 +1,320 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.BlobShaIndex;
+import br.com.sistema.github.gateway.GitHubClientPool;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.GitHubHttpCache;
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Invalidação dirigida por webhooks do GitHub.
+ *
+ * Em vez de esperar o TTL de cada cache, os eventos dizem exatamente o que mudou:
+ * <ul>
+ *   <li>{@code push} no branch padrão: leituras HTTP dos caminhos alterados (e dos
+ *       diretórios acima deles), head do branch, commits, SHAs conhecidos desses
+ *       caminhos e respostas do modelo sobre o repositório. Os índices de código
+ *       são incrementais por SHA e se atualizam na próxima busca;</li>
+ *   <li>{@code issues}: leituras de issues, respostas sobre o repositório e a entrada
+ *       do catálogo (contagem de issues abertas vem no próprio payload);</li>
+ *   <li>{@code repository}: entrada do catálogo e listagens; em remoção,
+ *       transferência ou renomeação, tudo que é chaveado pelo nome antigo.</li>
+ * </ul>
+ * Caches chaveados só pelo nome do repositório (índices, respostas, catálogo) são
+ * por usuário: a invalidação roda em nome de cada usuário atendido que é dono do
+ * repositório (o configurado e os que estão no {@link GitHubClientPool}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubWebhookService {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    // O payload de push traz no máximo 20 commits; acima disso a lista de arquivos é parcial
+    private static final int PUSH_COMMITS_LIMIT = 20;
+
+    @Value("${spring.github.webhook.secret:}")
+    private String secret;
+
+    private final GitHubGateway gateway;
+    private final GitHubClientPool clientPool;
+    private final GitHubHttpCache httpCache;
+    private final BlobShaIndex blobShaIndex;
+    private final ResponseCache responseCache;
+    private final SemanticResponseCache semanticCache;
+    private final CodeIndexService codeIndex;
+    private final CodeSearchService codeSearch;
+    private final RepositoryCatalog catalog;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public boolean isConfigured() {
+        return secret != null && !secret.isBlank();
+    }
+
+    // ====================================
+    // Confere X-Hub-Signature-256 (HMAC-SHA256 do corpo com o segredo do webhook)
+    // ====================================
+    public boolean isValidSignature(byte[] body, String signatureHeader) {
+        if (!isConfigured() || signatureHeader == null || !signatureHeader.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+
+        byte[] expected = HexFormat.of().formatHex(hmacSha256(secret, body)).getBytes(StandardCharsets.US_ASCII);
+        byte[] received = signatureHeader.substring(SIGNATURE_PREFIX.length()).getBytes(StandardCharsets.US_ASCII);
+        // Comparação em tempo constante
+        return MessageDigest.isEqual(expected, received);
+    }
+
+    static byte[] hmacSha256(String key, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(body);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+
+    // ====================================
+    // Processa um evento já autenticado; devolve um resumo do que foi invalidado
+    // ====================================
+    public String handle(String event, byte[] body) throws IOException {
+        JsonNode payload = objectMapper.readTree(body);
+
+        String summary = switch (event == null ? "" : event) {
+            case "ping" -> "pong";
+            case "push" -> handlePush(payload);
+            case "issues" -> handleIssues(payload);
+            case "repository" -> handleRepository(payload);
+            default -> "evento ignorado: " + event;
+        };
+
+        Counter.builder("github.webhooks")
+                .description("Webhooks do GitHub recebidos")
+                .tag("event", event == null ? "unknown" : event)
+                .register(meterRegistry)
+                .increment();
+        log.info("🪝 {}: {}", event, summary);
+        return summary;
+    }
+
+    // ====================================
+    // push
+    // ====================================
+    private String handlePush(JsonNode payload) {
+        JsonNode repository = payload.path("repository");
+        String owner = ownerOf(repository);
+        String name = repository.path("name").asText();
+        String defaultBranch = repository.path("default_branch").asText();
+        String ref = payload.path("ref").asText();
+
+        if (!ref.equals("refs/heads/" + defaultBranch)) {
+            // Só lemos o branch padrão: basta esquecer o head deste branch
+            String branch = ref.startsWith("refs/heads/") ? ref.substring("refs/heads/".length()) : ref;
+            int removed = httpCache.invalidateRepositoryPaths(owner, name,
+                    Set.of("branches/" + branch), Set.of("git/refs/heads/" + branch, "git/ref/heads/" + branch));
+            return String.format("push em %s/%s (%s): %d leituras HTTP", owner, name, branch, removed);
+        }
+
+        JsonNode commits = payload.path("commits");
+        boolean partial = payload.path("forced").asBoolean() || payload.path("created").asBoolean()
+                || payload.path("deleted").asBoolean() || commits.size() >= PUSH_COMMITS_LIMIT;
+
+        int removed;
+        Set<String> paths = new LinkedHashSet<>();
+        if (partial) {
+            // Histórico reescrito ou lista de arquivos incompleta: invalida o repositório inteiro
+            removed = httpCache.invalidateRepository(owner, name);
+            asOwners(owner, () -> blobShaIndex.invalidate(name));
+        } else {
+            for (JsonNode commit : commits) {
+                for (String field : new String[] { "added", "modified", "removed" }) {
+                    commit.path(field).forEach(path -> paths.add(path.asText()));
+                }
+            }
+
+            Set<String> exact = new LinkedHashSet<>(Set.of("", "contents", "readme"));
+            for (String path : paths) {
+                exact.add("contents/" + path);
+                for (int slash = path.lastIndexOf('/'); slash > 0; slash = path.lastIndexOf('/', slash - 1)) {
+                    exact.add("contents/" + path.substring(0, slash));
+                }
+            }
+            removed = httpCache.invalidateRepositoryPaths(owner, name, exact,
+                    Set.of("branches", "commits", "compare", "git/refs", "git/ref"));
+            asOwners(owner, () -> blobShaIndex.forget(name, paths));
+        }
+
+        int responses = invalidateResponses(owner, name);
+        return String.format("push em %s/%s: %s, %d leituras HTTP, %d respostas",
+                owner, name, partial ? "repositório inteiro" : paths.size() + " caminhos", removed, responses);
+    }
+
+    // ====================================
+    // issues
+    // ====================================
+    private String handleIssues(JsonNode payload) {
+        JsonNode repository = payload.path("repository");
+        String owner = ownerOf(repository);
+        String name = repository.path("name").asText();
+
+        int removed = httpCache.invalidateRepositoryPaths(owner, name, Set.of(""), Set.of("issues"));
+        int responses = invalidateResponses(owner, name);
+        RepoInfo updated = toRepoInfo(repository);
+        asOwners(owner, () -> catalog.upsert(updated));
+
+        return String.format("issue #%d %s em %s/%s: %d leituras HTTP, %d respostas",
+                payload.path("issue").path("number").asInt(), payload.path("action").asText(), owner, name, removed, responses);
+    }
+
+    // ====================================
+    // repository
+    // ====================================
+    private String handleRepository(JsonNode payload) {
+        JsonNode repository = payload.path("repository");
+        String owner = ownerOf(repository);
+        String name = repository.path("name").asText();
+        String action = payload.path("action").asText();
+
+        int removed = httpCache.invalidateRepositoryListings(owner);
+        RepoInfo updated = toRepoInfo(repository);
+
+        switch (action) {
+            case "deleted", "transferred" -> {
+                removed += forgetRepository(owner, name);
+                asOwners(owner, () -> catalog.remove(name));
+            }
+            case "renamed" -> {
+                String previousName = payload.path("changes").path("repository").path("name").path("from").asText(null);
+                if (previousName != null) {
+                    removed += forgetRepository(owner, previousName);
+                    asOwners(owner, () -> catalog.remove(previousName));
+                }
+                asOwners(owner, () -> catalog.upsert(updated));
+            }
+            default -> {
+                removed += httpCache.invalidateRepositoryPaths(owner, name, Set.of(""), Set.of());
+                asOwners(owner, () -> catalog.upsert(updated));
+            }
+        }
+
+        // Respostas do /chat dependem da lista de repositórios do usuário
+        int responses = sumAsOwners(owner, responseCache::invalidateChat);
+        return String.format("repositório %s/%s %s: %d leituras HTTP, %d respostas", owner, name, action, removed, responses);
+    }
+
+    // ====================================
+    // Tudo que é chaveado pelo nome do repositório
+    // ====================================
+    private int forgetRepository(String owner, String name) {
+        int removed = httpCache.invalidateRepository(owner, name);
+        asOwners(owner, () -> {
+            blobShaIndex.invalidate(name);
+            codeIndex.invalidate(name);
+            codeSearch.invalidate(name);
+        });
+        invalidateResponses(owner, name);
+        return removed;
+    }
+
+    private int invalidateResponses(String owner, String name) {
+        return sumAsOwners(owner, () -> responseCache.invalidateRepository(name) + semanticCache.invalidateRepository(name));
+    }
+
+    // ====================================
+    // Executa a invalidação em nome de cada usuário atendido dono do repositório
+    // ====================================
+    private void asOwners(String owner, Runnable action) {
+        sumAsOwners(owner, () -> {
+            action.run();
+            return 0;
+        });
+    }
+
+    private int sumAsOwners(String owner, IntSupplier action) {
+        List<GitHubTenant> owners = new ArrayList<>(clientPool.tenantsOf(owner));
+        // null = usuário configurado (spring.github.username)
+        if (owner.equalsIgnoreCase(gateway.getUsername())) {
+            owners.add(null);
+        }
+
+        int total = 0;
+        for (GitHubTenant tenant : owners) {
+            GitHubTenant previous = TenantContext.enter(tenant);
+            try {
+                total += action.getAsInt();
+            } finally {
+                TenantContext.restore(previous);
+            }
+        }
+        return total;
+    }
+
+    private static String ownerOf(JsonNode repository) {
+        JsonNode owner = repository.path("owner");
+        return owner.hasNonNull("login") ? owner.path("login").asText() : owner.path("name").asText();
+    }
+
+    // ====================================
+    // Entrada do catálogo a partir do "repository" do payload
+    // ====================================
+    static RepoInfo toRepoInfo(JsonNode repository) {
+        return RepoInfo.builder()
+                .name(repository.path("name").asText())
+                .description(repository.path("description").asText(null))
+                .url(repository.path("html_url").asText(null))
+                .language(repository.path("language").asText(null))
+                .stars(repository.path("stargazers_count").asInt())
+                .forks(repository.path("forks_count").asInt())
+                .openIssues(repository.path("open_issues_count").asInt())
+                .isPrivate(repository.path("private").asBoolean())
+                .updatedAt(parseDate(repository.path("updated_at")))
+                .build();
+    }
+
+    // Datas vêm em ISO-8601 ou, em alguns campos do push, em segundos desde a época
+    private static Date parseDate(JsonNode value) {
+        if (value.isNumber()) {
+            return Date.from(Instant.ofEpochSecond(value.asLong()));
+        }
+        if (value.isTextual()) {
+            try {
+                return Date.from(Instant.parse(value.asText()));
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.sistema.github.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2q.AllMiniLmL6V2QuantizedEmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Modelo de embedding local (ONNX, all-MiniLM-L6-v2 quantizado), sem chamadas de rede.
+ *
+ * Compartilhado pelo cache semântico e pelo índice de código. O modelo (~20 MB)
+ * é carregado no primeiro uso, não na subida da aplicação.
+ */
+@Component
+@Slf4j
+public class LocalEmbeddingModel {
+
+    public static final int DIMENSIONS = 384;
+
+    private volatile EmbeddingModel model;
+
+    public float[] embed(String text) {
+        return model().embed(text).content().vector();
+    }
+
+    public List<Embedding> embedAll(List<TextSegment> segments) {
+        return model().embedAll(segments).content();
+    }
+
+    private EmbeddingModel model() {
+        EmbeddingModel loaded = model;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = model;
+                if (loaded == null) {
+                    long start = System.nanoTime();
+                    loaded = new AllMiniLmL6V2QuantizedEmbeddingModel();
+                    model = loaded;
+                    log.info("🧭 Modelo de embedding carregado em {} ms",
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,185 @@
+package br.com.sistema.github.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Índice aproximado (ANN) de vetores normalizados para similaridade de cosseno.
+ *
+ * Locality-sensitive hashing com hiperplanos aleatórios: cada tabela gera uma
+ * assinatura de {@code bits} bits (lado de cada hiperplano), e vetores próximos
+ * tendem a cair no mesmo bucket em pelo menos uma tabela. Só os candidatos dos
+ * buckets são comparados de forma exata. O tamanho é limitado com remoção LRU.
+ *
+ * Não é thread-safe: quem usa sincroniza.
+ */
+class LshIndex<T> {
+
+    private final int dimensions;
+    private final int maxEntries;
+    private final float[][][] hyperplanes;
+    private final List<Map<Integer, Set<Long>>> tables;
+
+    // Ordem de inserção; um acesso reinsere o item no fim (LRU)
+    private final LinkedHashMap<Long, Item<T>> items = new LinkedHashMap<>(256);
+    private long nextId;
+
+    LshIndex(int dimensions, int tables, int bits, int maxEntries, long seed) {
+        this.dimensions = dimensions;
+        this.maxEntries = maxEntries;
+        this.hyperplanes = new float[tables][bits][dimensions];
+        this.tables = new ArrayList<>(tables);
+
+        Random random = new Random(seed);
+        for (int t = 0; t < tables; t++) {
+            for (int b = 0; b < bits; b++) {
+                for (int d = 0; d < dimensions; d++) {
+                    hyperplanes[t][b][d] = (float) random.nextGaussian();
+                }
+            }
+            this.tables.add(new HashMap<>());
+        }
+    }
+
+    // ====================================
+    // Insere (remove o menos usado se passar do limite)
+    // ====================================
+    void add(float[] vector, T value) {
+        checkDimensions(vector);
+        long id = nextId++;
+        int[] signatures = signatures(vector);
+        items.put(id, new Item<>(vector, signatures, value));
+
+        for (int t = 0; t < tables.size(); t++) {
+            tables.get(t).computeIfAbsent(signatures[t], key -> new HashSet<>()).add(id);
+        }
+
+        Iterator<Map.Entry<Long, Item<T>>> eldest = items.entrySet().iterator();
+        while (items.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<Long, Item<T>> entry = eldest.next();
+            unlink(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    // ====================================
+    // Vizinho mais próximo entre os candidatos aceitos pelo filtro
+    // ====================================
+    Match<T> nearest(float[] vector, Predicate<T> filter) {
+        checkDimensions(vector);
+        int[] signatures = signatures(vector);
+
+        Set<Long> candidates = new HashSet<>();
+        for (int t = 0; t < tables.size(); t++) {
+            Set<Long> bucket = tables.get(t).get(signatures[t]);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+
+        Long bestId = null;
+        double bestScore = -1;
+        for (Long id : candidates) {
+            Item<T> item = items.get(id);
+            if (item == null || !filter.test(item.value())) {
+                continue;
+            }
+            double score = dot(vector, item.vector());
+            if (score > bestScore) {
+                bestScore = score;
+                bestId = id;
+            }
+        }
+
+        if (bestId == null) {
+            return null;
+        }
+        // Só o vizinho devolvido conta como acesso
+        Item<T> best = items.remove(bestId);
+        items.put(bestId, best);
+        return new Match<>(best.value(), bestScore);
+    }
+
+    void removeIf(Predicate<T> predicate) {
+        Iterator<Map.Entry<Long, Item<T>>> it = items.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Item<T>> entry = it.next();
+            if (predicate.test(entry.getValue().value())) {
+                unlink(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        if (norm == 0) {
+            return vector;
+        }
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private void unlink(Long id, Item<T> item) {
+        for (int t = 0; t < tables.size(); t++) {
+            Set<Long> bucket = tables.get(t).get(item.signatures()[t]);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    tables.get(t).remove(item.signatures()[t]);
+                }
+            }
+        }
+    }
+
+    private int[] signatures(float[] vector) {
+        int[] signatures = new int[hyperplanes.length];
+        for (int t = 0; t < hyperplanes.length; t++) {
+            int signature = 0;
+            for (int b = 0; b < hyperplanes[t].length; b++) {
+                if (dot(vector, hyperplanes[t][b]) >= 0) {
+                    signature |= 1 << b;
+                }
+            }
+            signatures[t] = signature;
+        }
+        return signatures;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Vetor com " + vector.length + " dimensões, esperado " + dimensions);
+        }
+    }
+
+    record Match<T>(T value, double score) {}
+
+    private record Item<T>(float[] vector, int[] signatures, T value) {}
+}
@@ -0,0 +1,538 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.GitHubRequestPriority;
+import br.com.sistema.github.gateway.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catálogo em memória dos repositórios do usuário, indexado para busca local.
+ *
+ * A busca não vai à rede: cada snapshot do catálogo tem um índice de trigramas
+ * (substring e busca aproximada por nome) e uma lista ordenada de termos
+ * (busca por prefixo, com nomes divididos em partes: {@code spring-boot-api},
+ * {@code pagamentoService}). Filtros de linguagem/visibilidade e ordenação por
+ * estrelas rodam sobre o resultado em memória.
+ *
+ * A atualização é periódica e incremental: só os repositórios com
+ * {@code updated_at} posterior à última sincronização são buscados (Search API
+ * ordenada por atualização). Remoções não aparecem nessa listagem, então de
+ * tempos em tempos a lista completa é recarregada.
+ *
+ * Um catálogo por usuário ({@link TenantContext}). O do usuário configurado é
+ * atualizado em segundo plano; os de quem envia o próprio token, na busca, quando
+ * a última sincronização passou de {@code refresh-interval-ms}.
+ */
+@Service
+@Slf4j
+public class RepositoryCatalog {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    // Margem para relógios e para a indexação da Search API, que não é instantânea
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(2);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}_]+");
+    private static final float MIN_FUZZY_SIMILARITY = 0.5f;
+    private static final int MAX_TENANTS = 256;
+
+    public enum Sort { RELEVANCE, STARS, NAME, UPDATED }
+
+    private final GitHubGateway gateway;
+    private final Duration fullRefreshInterval;
+    private final Clock clock;
+    private final Timer searchTimer;
+
+    @Value("${spring.github.catalog.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    private final LinkedHashMap<String, Shelf> shelves = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public RepositoryCatalog(
+            GitHubGateway gateway,
+            @Value("${spring.github.catalog.full-refresh-minutes:30}") long fullRefreshMinutes,
+            MeterRegistry meterRegistry) {
+        this(gateway, Duration.ofMinutes(fullRefreshMinutes), meterRegistry, Clock.systemUTC());
+    }
+
+    RepositoryCatalog(GitHubGateway gateway, Duration fullRefreshInterval, MeterRegistry meterRegistry, Clock clock) {
+        this.gateway = gateway;
+        this.fullRefreshInterval = fullRefreshInterval;
+        this.clock = clock;
+        this.searchTimer = Timer.builder("github.catalog.search")
+                .description("Tempo de busca no catálogo local de repositórios")
+                .register(meterRegistry);
+        Gauge.builder("github.catalog.repositories", this, RepositoryCatalog::size)
+                .description("Repositórios no catálogo local")
+                .register(meterRegistry);
+    }
+
+    // ====================================
+    // Busca local (carrega o catálogo na primeira vez)
+    // ====================================
+    public List<RepoInfo> search(Query query) throws IOException {
+        Snapshot current = current(shelf());
+
+        long start = System.nanoTime();
+        try {
+            return current.search(query);
+        } finally {
+            searchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    // ====================================
+    // Todos os repositórios do catálogo (em memória depois da primeira carga)
+    // ====================================
+    public List<RepoInfo> repositories() throws IOException {
+        return current(shelf()).repos();
+    }
+
+    private Snapshot current(Shelf shelf) throws IOException {
+        Snapshot current = shelf.snapshot != null ? shelf.snapshot : initialize(shelf);
+        if (TenantContext.current() != null && isStale(current)) {
+            current = refreshIfStale(shelf);
+        }
+        return current;
+    }
+
+    // ====================================
+    // Atualização periódica: incremental, com recarga completa de tempos em tempos
+    // ====================================
+    @Scheduled(fixedDelayString = "${spring.github.catalog.refresh-interval-ms:60000}",
+            initialDelayString = "${spring.github.catalog.initial-delay-ms:5000}")
+    void scheduledRefresh() {
+        try {
+            refresh(false);
+        } catch (IOException e) {
+            log.warn("🗂️ Falha ao atualizar o catálogo de repositórios: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot initialize(Shelf shelf) throws IOException {
+        synchronized (shelf) {
+            return shelf.snapshot != null ? shelf.snapshot : refresh(shelf, true);
+        }
+    }
+
+    // Usuários com token próprio: atualiza na busca; em caso de falha segue com o que tem
+    private Snapshot refreshIfStale(Shelf shelf) {
+        synchronized (shelf) {
+            Snapshot current = shelf.snapshot;
+            if (!isStale(current)) {
+                return current;
+            }
+            try {
+                return refresh(shelf, isFullRefreshDue(shelf));
+            } catch (IOException e) {
+                log.warn("🗂️ Falha ao atualizar o catálogo de {}: {}", TenantContext.id(), e.getMessage());
+                return current;
+            }
+        }
+    }
+
+    private boolean isStale(Snapshot current) {
+        return Duration.between(current.syncedAt(), clock.instant()).toMillis() >= refreshIntervalMs;
+    }
+
+    private boolean isFullRefreshDue(Shelf shelf) {
+        return Duration.between(shelf.lastFullRefresh, clock.instant()).compareTo(fullRefreshInterval) >= 0;
+    }
+
+    // Incremental, a não ser que a última recarga completa tenha passado de full-refresh-minutes
+    public Snapshot refresh(boolean full) throws IOException {
+        Shelf shelf = shelf();
+        synchronized (shelf) {
+            return refresh(shelf, full || isFullRefreshDue(shelf));
+        }
+    }
+
+    private Snapshot refresh(Shelf shelf, boolean full) throws IOException {
+        Instant startedAt = clock.instant();
+        Snapshot previous = shelf.snapshot;
+
+        List<RepoInfo> repos;
+        if (full || previous == null) {
+            repos = batch(gateway::listRepositories);
+            shelf.lastFullRefresh = startedAt;
+        } else {
+            List<RepoInfo> updated = batch(() -> gateway.listRepositoriesUpdatedSince(previous.syncedAt().minus(SYNC_OVERLAP)));
+            if (updated.isEmpty()) {
+                shelf.snapshot = previous.withSyncedAt(startedAt);
+                return shelf.snapshot;
+            }
+            Map<String, RepoInfo> byName = new LinkedHashMap<>();
+            previous.repos().forEach(repo -> byName.put(repo.name(), repo));
+            updated.forEach(repo -> byName.put(repo.name(), repo));
+            repos = new ArrayList<>(byName.values());
+        }
+
+        shelf.snapshot = Snapshot.build(repos, startedAt);
+        log.info("🗂️ Catálogo {} ({}): {} repositórios", full || previous == null ? "recarregado" : "atualizado",
+                TenantContext.id(), repos.size());
+        return shelf.snapshot;
+    }
+
+    // ====================================
+    // Ajustes pontuais (webhooks) sem esperar a próxima atualização
+    // ====================================
+    public void remove(String repositoryName) {
+        Shelf shelf = shelf();
+        synchronized (shelf) {
+            Snapshot current = shelf.snapshot;
+            if (current != null) {
+                shelf.snapshot = Snapshot.build(current.repos().stream()
+                        .filter(repo -> !repo.name().equals(repositoryName))
+                        .toList(), current.syncedAt());
+            }
+        }
+    }
+
+    public void upsert(RepoInfo repo) {
+        Shelf shelf = shelf();
+        synchronized (shelf) {
+            Snapshot current = shelf.snapshot;
+            if (current != null) {
+                Map<String, RepoInfo> byName = new LinkedHashMap<>();
+                current.repos().forEach(existing -> byName.put(existing.name(), existing));
+                byName.put(repo.name(), repo);
+                shelf.snapshot = Snapshot.build(new ArrayList<>(byName.values()), current.syncedAt());
+            }
+        }
+    }
+
+    public void invalidate() {
+        Shelf shelf = shelf();
+        synchronized (shelf) {
+            shelf.lastFullRefresh = Instant.EPOCH;
+        }
+    }
+
+    public int size() {
+        Snapshot current = shelf().snapshot;
+        return current == null ? 0 : current.repos().size();
+    }
+
+    // ====================================
+    // Catálogo do usuário atual (LRU entre usuários; o padrão nunca sai)
+    // ====================================
+    private synchronized Shelf shelf() {
+        Shelf shelf = shelves.computeIfAbsent(TenantContext.id(), tenant -> new Shelf());
+        if (shelves.size() > MAX_TENANTS) {
+            Iterator<String> eldest = shelves.keySet().iterator();
+            while (shelves.size() > MAX_TENANTS && eldest.hasNext()) {
+                if (!TenantContext.DEFAULT.equals(eldest.next())) {
+                    eldest.remove();
+                }
+            }
+        }
+        return shelf;
+    }
+
+    private static final class Shelf {
+        private volatile Snapshot snapshot;
+        private Instant lastFullRefresh = Instant.EPOCH;
+    }
+
+    private static <T> T batch(Callable<T> call) throws IOException {
+        try {
+            return GitHubRequestPriority.runAs(GitHubRequestPriority.BATCH, call);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Consulta: texto (opcional) + filtros + ordenação.
+     */
+    @Builder
+    public record Query(String text, String language, Boolean privateOnly, Integer minStars, Sort sort, Integer limit) {}
+
+    // ====================================
+    // Snapshot imutável: repositórios + índices
+    // ====================================
+    record Snapshot(List<RepoInfo> repos, Instant syncedAt, String[] names, String[] descriptions,
+                    Map<Long, int[]> nameTrigrams, Map<Long, int[]> textTrigrams,
+                    String[] terms, int[][] termRepos, Map<Long, int[]> termTrigrams, int[] termTrigramCounts) {
+
+        static Snapshot build(List<RepoInfo> repos, Instant syncedAt) {
+            List<RepoInfo> list = List.copyOf(repos);
+            String[] names = new String[list.size()];
+            String[] descriptions = new String[list.size()];
+            Map<Long, List<Integer>> nameGrams = new HashMap<>();
+            Map<Long, List<Integer>> textGrams = new HashMap<>();
+            TreeMap<String, List<Integer>> termLists = new TreeMap<>();
+
+            for (int id = 0; id < list.size(); id++) {
+                RepoInfo repo = list.get(id);
+                names[id] = normalize(repo.name());
+                descriptions[id] = normalize(repo.description());
+
+                for (long gram : trigrams(names[id])) {
+                    nameGrams.computeIfAbsent(gram, key -> new ArrayList<>()).add(id);
+                }
+                for (long gram : trigrams(descriptions[id])) {
+                    textGrams.computeIfAbsent(gram, key -> new ArrayList<>()).add(id);
+                }
+
+                // Nome dividido em partes (camelCase, kebab/snake_case) + nome inteiro + palavras da descrição
+                Set<String> terms = new LinkedHashSet<>();
+                CodeTokenizer.tokenize(repo.name() == null ? "" : repo.name()).forEach(term -> terms.add(normalize(term)));
+                terms.add(names[id]);
+                terms.addAll(CodeTokenizer.tokenize(descriptions[id]));
+                for (String term : terms) {
+                    termLists.computeIfAbsent(term, key -> new ArrayList<>()).add(id);
+                }
+            }
+
+            String[] terms = termLists.keySet().toArray(new String[0]);
+            int[][] termRepos = new int[terms.length][];
+            int[] termGramCounts = new int[terms.length];
+            Map<Long, List<Integer>> termGrams = new HashMap<>();
+            for (int t = 0; t < terms.length; t++) {
+                termRepos[t] = termLists.get(terms[t]).stream().mapToInt(Integer::intValue).toArray();
+                long[] grams = trigrams(terms[t]);
+                termGramCounts[t] = grams.length;
+                for (long gram : grams) {
+                    termGrams.computeIfAbsent(gram, key -> new ArrayList<>()).add(t);
+                }
+            }
+
+            return new Snapshot(list, syncedAt, names, descriptions, toArrays(nameGrams), toArrays(textGrams),
+                    terms, termRepos, toArrays(termGrams), termGramCounts);
+        }
+
+        Snapshot withSyncedAt(Instant instant) {
+            return new Snapshot(repos, instant, names, descriptions, nameTrigrams, textTrigrams,
+                    terms, termRepos, termTrigrams, termTrigramCounts);
+        }
+
+        List<RepoInfo> search(Query query) {
+            String text = normalize(query.text()).strip();
+            float[] scores = new float[repos.size()];
+
+            if (text.isEmpty()) {
+                Arrays.fill(scores, 1);
+            } else {
+                scoreName(text, scores);
+                scoreSubstring(text, scores);
+                for (String token : TOKEN_SEPARATOR.split(text)) {
+                    if (!token.isEmpty()) {
+                        scoreTerms(token, scores);
+                    }
+                }
+            }
+
+            List<Integer> matches = new ArrayList<>();
+            for (int id = 0; id < scores.length; id++) {
+                if (scores[id] > 0 && accepts(repos.get(id), query)) {
+                    matches.add(id);
+                }
+            }
+
+            matches.sort(comparator(query.sort(), scores));
+            int limit = query.limit() != null && query.limit() > 0 ? Math.min(query.limit(), matches.size()) : matches.size();
+            List<RepoInfo> result = new ArrayList<>(limit);
+            for (int i = 0; i < limit; i++) {
+                result.add(repos.get(matches.get(i)));
+            }
+            return result;
+        }
+
+        private void scoreName(String text, float[] scores) {
+            for (int id = 0; id < names.length; id++) {
+                if (names[id].equals(text)) {
+                    scores[id] += 100;
+                } else if (names[id].startsWith(text)) {
+                    scores[id] += 50;
+                }
+            }
+        }
+
+        // Substring exata (semântica antiga): candidatos pelos trigramas, confirmados com contains
+        private void scoreSubstring(String text, float[] scores) {
+            if (text.length() < 3) {
+                return;
+            }
+            for (int id : candidates(text, nameTrigrams)) {
+                if (names[id].contains(text)) {
+                    scores[id] += 30;
+                }
+            }
+            for (int id : candidates(text, textTrigrams)) {
+                if (descriptions[id].contains(text)) {
+                    scores[id] += 5;
+                }
+            }
+        }
+
+        // Termos com o token como prefixo (busca binária) ou parecidos (erros de digitação)
+        private void scoreTerms(String token, float[] scores) {
+            float[] best = new float[repos.size()];
+
+            for (int t = lowerBound(token); t < terms.length && terms[t].startsWith(token); t++) {
+                float score = terms[t].length() == token.length() ? 20 : 10;
+                for (int id : termRepos[t]) {
+                    best[id] = Math.max(best[id], score);
+                }
+            }
+
+            long[] queryGrams = trigrams(token);
+            if (queryGrams.length > 0) {
+                int[] shared = new int[terms.length];
+                for (long gram : queryGrams) {
+                    int[] termIds = termTrigrams.get(gram);
+                    if (termIds != null) {
+                        for (int t : termIds) {
+                            shared[t]++;
+                        }
+                    }
+                }
+                for (int t = 0; t < shared.length; t++) {
+                    if (shared[t] == 0) {
+                        continue;
+                    }
+                    // Similaridade de Dice entre os trigramas do token e do termo
+                    float similarity = 2f * shared[t] / (queryGrams.length + termTrigramCounts[t]);
+                    if (similarity >= MIN_FUZZY_SIMILARITY) {
+                        for (int id : termRepos[t]) {
+                            best[id] = Math.max(best[id], similarity * 8);
+                        }
+                    }
+                }
+            }
+
+            for (int id = 0; id < best.length; id++) {
+                scores[id] += best[id];
+            }
+        }
+
+        // Interseção das listas (ordenadas) de todos os trigramas do texto
+        private static int[] candidates(String text, Map<Long, int[]> index) {
+            int[] result = null;
+            for (long gram : trigrams(text)) {
+                int[] ids = index.get(gram);
+                if (ids == null) {
+                    return new int[0];
+                }
+                result = result == null ? ids : intersect(result, ids);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result == null ? new int[0] : result;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int n = 0;
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] == b[j]) {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        private int lowerBound(String token) {
+            int low = 0;
+            int high = terms.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid].compareTo(token) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static boolean accepts(RepoInfo repo, Query query) {
+            if (query.language() != null && !query.language().isBlank()
+                    && !query.language().equalsIgnoreCase(repo.language())) {
+                return false;
+            }
+            if (query.privateOnly() != null && !query.privateOnly().equals(repo.isPrivate())) {
+                return false;
+            }
+            return query.minStars() == null || (repo.stars() != null && repo.stars() >= query.minStars());
+        }
+
+        private Comparator<Integer> comparator(Sort sort, float[] scores) {
+            Comparator<Integer> byStars = Comparator.comparing((Integer id) -> repos.get(id).stars(),
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+            Comparator<Integer> byName = Comparator.comparing(id -> names[id]);
+            return switch (sort == null ? Sort.RELEVANCE : sort) {
+                case RELEVANCE -> Comparator.comparingDouble((Integer id) -> -scores[id]).thenComparing(byStars).thenComparing(byName);
+                case STARS -> byStars.thenComparing(byName);
+                case NAME -> byName;
+                case UPDATED -> Comparator.comparing((Integer id) -> repos.get(id).updatedAt(),
+                        Comparator.nullsLast(Comparator.reverseOrder())).thenComparing(byName);
+            };
+        }
+
+        // Trigramas distintos, cada um codificado sem perda num long (3 chars de 16 bits)
+        private static long[] trigrams(String text) {
+            if (text.length() < 3) {
+                return new long[0];
+            }
+            Set<Long> grams = new LinkedHashSet<>();
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+            }
+            return grams.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        private static Map<Long, int[]> toArrays(Map<Long, List<Integer>> lists) {
+            Map<Long, int[]> arrays = new HashMap<>(lists.size() * 2);
+            lists.forEach((gram, ids) -> arrays.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return arrays;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse;
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.gateway.BlobShaIndex;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.models.TreeEntry;
+import br.com.sistema.github.models.TreeListing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Árvore completa do repositório montada no servidor a partir de uma única
+ * chamada recursiva à Git Trees API.
+ *
+ * Árvores são imutáveis, então o resultado fica em cache pelo SHA da árvore:
+ * abrir de novo o mesmo commit custa só a resolução do branch. Quando o GitHub
+ * trunca a resposta (monorepos grandes), a árvore é percorrida diretório a
+ * diretório até um orçamento de requests; o que sobrar volta com
+ * {@code loaded=false} para ser carregado sob demanda pelo endpoint de arquivos.
+ *
+ * Os {@link FileNode} em cache são compartilhados entre respostas e não devem
+ * ser alterados por quem os recebe.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RepositoryTreeService {
+
+    private static final int MAX_COMMIT_MAPPINGS = 1024;
+
+    @Value("${spring.github.tree.cache-max-nodes:300000}")
+    private int cacheMaxNodes;
+
+    @Value("${spring.github.tree.truncated-max-requests:100}")
+    private int truncatedMaxRequests;
+
+    @Value("${spring.github.tree.truncated-max-entries:50000}")
+    private int truncatedMaxEntries;
+
+    private final GitHubGateway gateway;
+    private final BlobShaIndex blobShaIndex;
+
+    private final LinkedHashMap<String, String> treeShaByCommit = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, CachedTree> treesBySha = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedNodes;
+
+    // ====================================
+    // Árvore completa do branch padrão
+    // ====================================
+    public GitHubFilesResponse getRepositoryTree(String repositoryName) throws IOException {
+        String commitSha = gateway.getDefaultBranchHead(repositoryName);
+
+        CachedTree tree = lookup(commitSha);
+        if (tree != null) {
+            log.info("🌳 Árvore em cache: {} @ {}", repositoryName, shortSha(commitSha));
+        } else {
+            TreeListing listing = gateway.getTree(repositoryName, commitSha, true);
+
+            if (listing.truncated()) {
+                log.warn("🌳 Árvore truncada pelo GitHub: {} @ {} - percorrendo por diretório", repositoryName, shortSha(commitSha));
+                tree = walkTree(repositoryName, listing.sha());
+            } else {
+                tree = buildTree(listing);
+            }
+
+            store(commitSha, tree);
+            log.info("🌳 Árvore montada: {} @ {} ({} nós)", repositoryName, shortSha(commitSha), tree.nodeCount());
+        }
+
+        // Caminho -> SHA do commit recém-confirmado: leituras seguintes saem do blob store
+        blobShaIndex.confirm(repositoryName, commitSha, tree.blobShas());
+
+        return GitHubFilesResponse.builder()
+                .repositoryName(repositoryName)
+                .totalFiles(tree.totalFiles())
+                .files(tree.roots())
+                .commitSha(commitSha)
+                .treeSha(tree.treeSha())
+                .truncated(tree.truncated())
+                .build();
+    }
+
+    // ====================================
+    // Monta a hierarquia a partir da listagem recursiva (plana)
+    // ====================================
+    CachedTree buildTree(TreeListing listing) {
+        List<FileNode> roots = new ArrayList<>();
+        Map<String, FileNode> directories = new HashMap<>();
+        Map<String, String> blobShas = new HashMap<>();
+        int totalFiles = 0;
+
+        for (TreeEntry entry : listing.entries()) {
+            FileNode node = toNode(entry.path(), entry, true);
+            childrenOf(parentPath(entry.path()), roots, directories).add(node);
+
+            if (entry.isTree()) {
+                directories.put(entry.path(), node);
+            } else {
+                blobShas.put(entry.path(), entry.sha());
+                totalFiles++;
+            }
+        }
+
+        sortRecursively(roots);
+        return new CachedTree(listing.sha(), false, roots, totalFiles, listing.entries().size(), blobShas);
+    }
+
+    // ====================================
+    // Percorre a árvore por diretório (fallback para respostas truncadas)
+    // ====================================
+    private CachedTree walkTree(String repositoryName, String rootTreeSha) throws IOException {
+        List<FileNode> roots = new ArrayList<>();
+        Map<String, String> blobShas = new HashMap<>();
+        Deque<PendingDirectory> pending = new ArrayDeque<>();
+        pending.add(new PendingDirectory(null, rootTreeSha, roots));
+
+        int requests = 0;
+        int nodes = 0;
+        int totalFiles = 0;
+
+        while (!pending.isEmpty()) {
+            PendingDirectory directory = pending.poll();
+
+            if (directory.node() != null && (requests >= truncatedMaxRequests || nodes >= truncatedMaxEntries)) {
+                continue;
+            }
+
+            TreeListing listing = gateway.getTree(repositoryName, directory.sha(), false);
+            requests++;
+
+            String prefix = directory.node() == null ? "" : directory.node().getPath() + "/";
+            for (TreeEntry entry : listing.entries()) {
+                FileNode node = toNode(prefix + entry.path(), entry, false);
+                directory.children().add(node);
+                nodes++;
+
+                if (entry.isTree()) {
+                    pending.add(new PendingDirectory(node, entry.sha(), node.getChildren()));
+                } else {
+                    blobShas.put(node.getPath(), entry.sha());
+                    totalFiles++;
+                }
+            }
+
+            if (directory.node() != null) {
+                directory.node().setLoaded(true);
+            }
+        }
+
+        sortRecursively(roots);
+        return new CachedTree(rootTreeSha, true, roots, totalFiles, nodes, blobShas);
+    }
+
+    private static FileNode toNode(String path, TreeEntry entry, boolean loaded) {
+        return FileNode.builder()
+                .name(path.substring(path.lastIndexOf('/') + 1))
+                .path(path)
+                .isDirectory(entry.isTree())
+                .size(entry.size())
+                .sha(entry.sha())
+                .loaded(!entry.isTree() || loaded)
+                .build();
+    }
+
+    // O GitHub lista pais antes dos filhos; se faltar algum, cria o diretório
+    private static List<FileNode> childrenOf(String directoryPath, List<FileNode> roots, Map<String, FileNode> directories) {
+        if (directoryPath.isEmpty()) {
+            return roots;
+        }
+
+        FileNode directory = directories.get(directoryPath);
+        if (directory == null) {
+            directory = FileNode.builder()
+                    .name(directoryPath.substring(directoryPath.lastIndexOf('/') + 1))
+                    .path(directoryPath)
+                    .isDirectory(true)
+                    .loaded(true)
+                    .build();
+            childrenOf(parentPath(directoryPath), roots, directories).add(directory);
+            directories.put(directoryPath, directory);
+        }
+        return directory.getChildren();
+    }
+
+    private static String parentPath(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    private static void sortRecursively(List<FileNode> nodes) {
+        nodes.sort(GitHubDataStructureService.DIRECTORIES_FIRST);
+        for (FileNode node : nodes) {
+            if (!node.getChildren().isEmpty()) {
+                sortRecursively(node.getChildren());
+            }
+        }
+    }
+
+    // ====================================
+    // Cache: commit -> SHA da árvore -> árvore montada
+    // ====================================
+    private synchronized CachedTree lookup(String commitSha) {
+        String treeSha = treeShaByCommit.get(commitSha);
+        return treeSha == null ? null : treesBySha.get(treeSha);
+    }
+
+    private synchronized void store(String commitSha, CachedTree tree) {
+        treeShaByCommit.put(commitSha, tree.treeSha());
+        if (treeShaByCommit.size() > MAX_COMMIT_MAPPINGS) {
+            Iterator<String> eldest = treeShaByCommit.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+
+        CachedTree previous = treesBySha.put(tree.treeSha(), tree);
+        if (previous != null) {
+            cachedNodes -= previous.nodeCount();
+        }
+        cachedNodes += tree.nodeCount();
+
+        Iterator<CachedTree> eldest = treesBySha.values().iterator();
+        while (cachedNodes > cacheMaxNodes && treesBySha.size() > 1 && eldest.hasNext()) {
+            cachedNodes -= eldest.next().nodeCount();
+            eldest.remove();
+        }
+    }
+
+    private static String shortSha(String sha) {
+        return sha.substring(0, Math.min(7, sha.length()));
+    }
+
+    record CachedTree(String treeSha, boolean truncated, List<FileNode> roots, int totalFiles, int nodeCount,
+                      Map<String, String> blobShas) {}
+
+    private record PendingDirectory(FileNode node, String sha, List<FileNode> children) {}
+}
@@ -0,0 +1,209 @@
+package br.com.sistema.github.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.sistema.github.gateway.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Execução dos endpoints caros (Gemini + GitHub) fora das threads do Tomcat.
+ *
+ * Cada endpoint tem dois limites:
+ * <ul>
+ *   <li>admissão: {@code max-concurrent + max-queued} vagas, tomadas sem esperar
+ *       na thread do request. Sem vaga, o request é recusado na hora
+ *       ({@link RequestRejectedException} -> 429 com {@code Retry-After});</li>
+ *   <li>execução: no máximo {@code max-concurrent} tarefas rodando; as demais
+ *       esperam numa virtual thread, sem ocupar thread do servidor.</li>
+ * </ul>
+ * Assim uma rajada de análises lentas não trava o pool do Tomcat nem atrasa o
+ * {@code /health} e as listagens.
+ */
+@Service
+@Slf4j
+public class RequestExecutor {
+
+    public enum Endpoint {
+        CHAT("/chat"), CHAT_STREAM("/chat/stream"), ANALYZE("/analyze");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        public String path() {
+            return path;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("assistant-request-", 0).factory());
+    private final Map<Endpoint, Limits> limits = new EnumMap<>(Endpoint.class);
+    private final MeterRegistry meterRegistry;
+    private volatile boolean shuttingDown;
+
+    public RequestExecutor(
+            @Value("${spring.github.async.chat.max-concurrent:16}") int chatConcurrent,
+            @Value("${spring.github.async.chat.max-queued:32}") int chatQueued,
+            @Value("${spring.github.async.chat.retry-after-seconds:5}") long chatRetryAfter,
+            @Value("${spring.github.async.chat-stream.max-concurrent:16}") int streamConcurrent,
+            @Value("${spring.github.async.chat-stream.retry-after-seconds:5}") long streamRetryAfter,
+            @Value("${spring.github.async.analyze.max-concurrent:4}") int analyzeConcurrent,
+            @Value("${spring.github.async.analyze.max-queued:8}") int analyzeQueued,
+            @Value("${spring.github.async.analyze.retry-after-seconds:30}") long analyzeRetryAfter,
+            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // O stream já roda nas threads do cliente do Gemini: só há vagas de admissão
+        register(Endpoint.CHAT, chatConcurrent, chatQueued, chatRetryAfter);
+        register(Endpoint.CHAT_STREAM, streamConcurrent, 0, streamRetryAfter);
+        register(Endpoint.ANALYZE, analyzeConcurrent, analyzeQueued, analyzeRetryAfter);
+    }
+
+    private void register(Endpoint endpoint, int maxConcurrent, int maxQueued, long retryAfterSeconds) {
+        String tag = endpoint.path();
+        Limits endpointLimits = new Limits(
+                new Semaphore(maxConcurrent + maxQueued), maxConcurrent + maxQueued,
+                new Semaphore(maxConcurrent), maxConcurrent,
+                retryAfterSeconds,
+                Counter.builder("github.requests.rejected")
+                        .description("Requests recusados por falta de vaga")
+                        .tag("endpoint", tag)
+                        .register(meterRegistry),
+                Timer.builder("github.requests.queue.wait")
+                        .description("Espera entre a admissão e o início da execução")
+                        .tag("endpoint", tag)
+                        .register(meterRegistry));
+        limits.put(endpoint, endpointLimits);
+
+        Gauge.builder("github.requests.admitted", endpointLimits, Limits::admitted)
+                .description("Requests admitidos (executando + na fila)")
+                .tag("endpoint", tag)
+                .register(meterRegistry);
+        Gauge.builder("github.requests.active", endpointLimits, Limits::active)
+                .description("Requests executando")
+                .tag("endpoint", tag)
+                .register(meterRegistry);
+
+        log.info("🚪 {}: {} simultâneos + {} na fila (Retry-After {}s)",
+                endpoint.path(), maxConcurrent, maxQueued, retryAfterSeconds);
+    }
+
+    // ====================================
+    // Executa a tarefa numa virtual thread (ou recusa na hora)
+    // ====================================
+    public <T> CompletableFuture<T> submit(Endpoint endpoint, Callable<T> request) {
+        Permit permit = admit(endpoint);
+        // A virtual thread atende em nome do mesmo usuário do request HTTP
+        Callable<T> task = TenantContext.wrap(request);
+        Limits endpointLimits = limits.get(endpoint);
+        long admittedAt = System.nanoTime();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    endpointLimits.running().acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    permit.release();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                endpointLimits.queueWait().record(System.nanoTime() - admittedAt, TimeUnit.NANOSECONDS);
+
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = task.call();
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    // Vagas devolvidas antes de responder: o próximo request já encontra lugar
+                    endpointLimits.running().release();
+                    permit.release();
+                }
+
+                if (failure == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permit.release();
+            throw new RequestRejectedException(endpoint, true, endpointLimits.retryAfterSeconds());
+        }
+        return future;
+    }
+
+    // ====================================
+    // Só a vaga de admissão (quem chama libera ao terminar)
+    // ====================================
+    public Permit admit(Endpoint endpoint) {
+        Limits endpointLimits = limits.get(endpoint);
+        if (shuttingDown) {
+            throw new RequestRejectedException(endpoint, true, endpointLimits.retryAfterSeconds());
+        }
+        if (!endpointLimits.admission().tryAcquire()) {
+            endpointLimits.rejected().increment();
+            log.warn("🚪 {} lotado: request recusado", endpoint.path());
+            throw new RequestRejectedException(endpoint, false, endpointLimits.retryAfterSeconds());
+        }
+        return new Permit(endpointLimits.admission());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        executor.shutdown();
+    }
+
+    /**
+     * Vaga de admissão; liberar mais de uma vez não tem efeito.
+     */
+    public static final class Permit {
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+
+    private record Limits(Semaphore admission, int maxAdmitted, Semaphore running, int maxRunning,
+                          long retryAfterSeconds, Counter rejected, Timer queueWait) {
+
+        int admitted() {
+            return maxAdmitted - admission.availablePermits();
+        }
+
+        int active() {
+            return maxRunning - running.availablePermits();
+        }
+    }
+}
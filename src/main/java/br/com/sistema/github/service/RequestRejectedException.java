@@ -0,0 +1,25 @@
+package br.com.sistema.github.service;
+
+import lombok.Getter;
+
+/**
+ * Request recusado na admissão: o endpoint já está com a fila cheia (ou o
+ * serviço está desligando). O controller responde 429/503 com {@code Retry-After}.
+ */
+@Getter
+public class RequestRejectedException extends RuntimeException {
+
+    private final RequestExecutor.Endpoint endpoint;
+    private final boolean shuttingDown;
+    private final long retryAfterSeconds;
+
+    public RequestRejectedException(RequestExecutor.Endpoint endpoint, boolean shuttingDown, long retryAfterSeconds) {
+        super(shuttingDown
+                ? "Serviço em desligamento"
+                : "Muitas requisições simultâneas em " + endpoint.path() + ", tente novamente em " + retryAfterSeconds + "s",
+                null, false, false);
+        this.endpoint = endpoint;
+        this.shuttingDown = shuttingDown;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
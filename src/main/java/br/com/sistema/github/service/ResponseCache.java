@@ -0,0 +1,397 @@
+package br.com.sistema.github.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.models.FileFetchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache de respostas do modelo para perguntas repetidas (correspondência exata).
+ *
+ * A chave é o prompt normalizado (minúsculas, sem acentos, espaços colapsados)
+ * mais o estado do conteúdo usado:
+ * <ul>
+ *   <li>/analyze: tipo de análise + SHA do blob de cada arquivo. Se um arquivo
+ *       muda, o SHA muda e a chave também;</li>
+ *   <li>/chat: impressão digital da lista de repositórios do usuário (do
+ *       {@link RepositoryCatalog}, sem listar na rede a cada mensagem) + SHA do
+ *       commit mais recente de cada repositório citado no prompt. Só vale para
+ *       a primeira mensagem de uma conversa, e só entra no cache quando nenhuma
+ *       tool de escrita foi executada. Repositórios lidos pelas tools sem estar
+ *       citados no prompt entram na entrada com o commit do momento; no
+ *       {@link #get}, se algum commit mudou, a resposta é descartada.</li>
+ * </ul>
+ * Limitado por entradas e bytes (LRU), com TTL. Cada entrada guarda os
+ * repositórios envolvidos para invalidação explícita ({@link #invalidateRepository}).
+ * Chaves e repositórios são por usuário ({@link TenantContext}): respostas de um
+ * token nunca são servidas a outro.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s.!?;:]+$");
+
+    public enum Kind { CHAT, ANALYZE }
+
+    private final GitHubGateway gateway;
+    private final RepositoryCatalog catalog;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Duration chatTtl;
+    private final Duration analyzeTtl;
+    private final Clock clock;
+    private final Map<Kind, Counter> hits = new EnumMap<>(Kind.class);
+    private final Map<Kind, Counter> misses = new EnumMap<>(Kind.class);
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    @Autowired
+    public ResponseCache(
+            GitHubGateway gateway,
+            RepositoryCatalog catalog,
+            @Value("${spring.github.response-cache.enabled:true}") boolean enabled,
+            @Value("${spring.github.response-cache.max-entries:1000}") int maxEntries,
+            @Value("${spring.github.response-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${spring.github.response-cache.chat-ttl-seconds:600}") long chatTtlSeconds,
+            @Value("${spring.github.response-cache.analyze-ttl-seconds:86400}") long analyzeTtlSeconds,
+            MeterRegistry meterRegistry) {
+        this(gateway, catalog, enabled, maxEntries, maxBytes, Duration.ofSeconds(chatTtlSeconds),
+                Duration.ofSeconds(analyzeTtlSeconds), meterRegistry, Clock.systemUTC());
+    }
+
+    ResponseCache(GitHubGateway gateway, RepositoryCatalog catalog, boolean enabled, int maxEntries, long maxBytes,
+                  Duration chatTtl, Duration analyzeTtl, MeterRegistry meterRegistry, Clock clock) {
+        this.gateway = gateway;
+        this.catalog = catalog;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.chatTtl = chatTtl;
+        this.analyzeTtl = analyzeTtl;
+        this.clock = clock;
+
+        for (Kind kind : Kind.values()) {
+            hits.put(kind, requestCounter(meterRegistry, kind, "hit"));
+            misses.put(kind, requestCounter(meterRegistry, kind, "miss"));
+        }
+
+        Gauge.builder("github.response.cache.entries", this, ResponseCache::size)
+                .description("Respostas do modelo em cache")
+                .register(meterRegistry);
+        Gauge.builder("github.response.cache.bytes", this, ResponseCache::bytes)
+                .description("Bytes ocupados pelo cache de respostas do modelo")
+                .register(meterRegistry);
+
+        log.info("💾 Cache de respostas: enabled={}, maxEntries={}, maxBytes={}, chatTtl={}s",
+                enabled, maxEntries, maxBytes, chatTtl.toSeconds());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ====================================
+    // Chave do /analyze: prompt + tipo + SHA de cada arquivo (null se algum falhou)
+    // ====================================
+    public Key analyzeKey(String repositoryName, String analysisType, List<FileFetchResult> files) {
+        StringBuilder key = new StringBuilder("analyze|")
+                .append(TenantContext.id()).append('|')
+                .append(repositoryName).append('|')
+                .append(normalizePrompt(analysisType));
+
+        for (FileFetchResult file : files) {
+            if (!file.isSuccess() || file.file().sha() == null) {
+                return null;
+            }
+            key.append('|').append(file.path()).append('@').append(file.file().sha());
+        }
+
+        return new Key(Kind.ANALYZE, TenantContext.id(), sha256(key.toString()), Set.of(TenantContext.scope(repositoryName)));
+    }
+
+    // ====================================
+    // Chave do /chat: prompt + estado dos repositórios do usuário
+    // ====================================
+    public Key chatKey(String prompt) throws IOException {
+        return chatKey(chatState(prompt));
+    }
+
+    public Key chatKey(ChatState state) {
+        return new Key(Kind.CHAT, TenantContext.id(), sha256("chat|" + state.normalizedPrompt() + "|" + state.stateHash()),
+                state.repositories());
+    }
+
+    // ====================================
+    // Estado dos repositórios de que a resposta de um prompt depende
+    // ====================================
+    public ChatState chatState(String prompt) throws IOException {
+        String normalized = normalizePrompt(prompt);
+        List<RepoInfo> repos = catalog.repositories();
+
+        // O token entra no estado: o mesmo login com outro token pode ver outros repositórios
+        StringBuilder state = new StringBuilder(TenantContext.id()).append('|').append(gateway.getUsername());
+        Set<String> mentioned = new TreeSet<>();
+
+        // Lista de repositórios (catálogo em memória): muda com repo novo, stars, issues...
+        for (RepoInfo repo : repos) {
+            state.append('|').append(repo.name())
+                    .append(':').append(repo.stars())
+                    .append(':').append(repo.forks())
+                    .append(':').append(repo.openIssues())
+                    .append(':').append(repo.isPrivate())
+                    .append(':').append(repo.description());
+
+            if (mentions(normalized, repo.name())) {
+                mentioned.add(repo.name());
+            }
+        }
+
+        // Repositórios citados: o commit mais recente entra no estado
+        Set<String> scoped = new TreeSet<>();
+        for (String repositoryName : mentioned) {
+            state.append("|head:").append(repositoryName).append('@').append(gateway.getDefaultBranchHead(repositoryName));
+            scoped.add(TenantContext.scope(repositoryName));
+        }
+
+        return new ChatState(normalized, sha256(state.toString()), scoped);
+    }
+
+    // ====================================
+    // Leitura / escrita
+    // ====================================
+    public String get(Key key) {
+        if (!enabled || key == null) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key.hash());
+            if (entry != null && entry.expiresAt().isBefore(clock.instant())) {
+                remove(key.hash());
+                entry = null;
+            }
+        }
+
+        // Fora do lock: confere o commit dos repositórios lidos pelas tools
+        if (entry != null && !headsUnchanged(entry)) {
+            synchronized (this) {
+                if (entries.get(key.hash()) == entry) {
+                    remove(key.hash());
+                }
+            }
+            entry = null;
+        }
+
+        (entry != null ? hits : misses).get(key.kind()).increment();
+        return entry == null ? null : entry.response();
+    }
+
+    public void put(Key key, String response) {
+        store(key, response, Map.of());
+    }
+
+    // ====================================
+    // /chat: guarda também o commit atual de cada repositório lido pelas tools
+    // que não está na chave (não citado no prompt)
+    // ====================================
+    public void put(Key key, String response, Set<String> toolRepositories) {
+        if (!enabled || key == null || response == null) {
+            return;
+        }
+
+        Map<String, String> heads = new TreeMap<>();
+        for (String repositoryName : toolRepositories) {
+            if (key.repositories().contains(TenantContext.scope(repositoryName))) {
+                continue;
+            }
+            try {
+                heads.put(repositoryName, gateway.getDefaultBranchHead(repositoryName));
+            } catch (IOException e) {
+                // Sem o commit não há como saber quando a resposta fica velha
+                log.debug("💾 Resposta não guardada: commit de {} indisponível ({})", repositoryName, e.getMessage());
+                return;
+            }
+        }
+        store(key, response, heads);
+    }
+
+    private void store(Key key, String response, Map<String, String> heads) {
+        if (!enabled || key == null || response == null) {
+            return;
+        }
+
+        long size = (long) response.length() * 2;
+        if (size > maxBytes) {
+            return;
+        }
+
+        Duration ttl = key.kind() == Kind.CHAT ? chatTtl : analyzeTtl;
+        // Os repositórios das tools também entram na invalidação por webhook
+        Set<String> repositories = new TreeSet<>(key.repositories());
+        heads.keySet().forEach(repositoryName -> repositories.add(TenantContext.scope(repositoryName)));
+
+        synchronized (this) {
+            remove(key.hash());
+            entries.put(key.hash(), new Entry(key.kind(), key.tenant(), response, Set.copyOf(repositories),
+                    Map.copyOf(heads), clock.instant().plus(ttl), size));
+            totalBytes += size;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+                totalBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    // ====================================
+    // Remove as respostas que envolvem um repositório
+    // ====================================
+    public synchronized int invalidateRepository(String repositoryName) {
+        String scoped = TenantContext.scope(repositoryName);
+        int removed = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.repositories().contains(scoped)) {
+                totalBytes -= entry.size();
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Toda resposta de /chat depende da lista de repositórios do usuário
+    public synchronized int invalidateChat() {
+        String tenant = TenantContext.id();
+        int removed = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.kind() == Kind.CHAT && entry.tenant().equals(tenant)) {
+                totalBytes -= entry.size();
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return totalBytes;
+    }
+
+    private void remove(String hash) {
+        Entry previous = entries.remove(hash);
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+    }
+
+    private boolean headsUnchanged(Entry entry) {
+        for (Map.Entry<String, String> head : entry.heads().entrySet()) {
+            try {
+                if (!head.getValue().equals(gateway.getDefaultBranchHead(head.getKey()))) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, Kind kind, String result) {
+        return Counter.builder("github.response.cache.requests")
+                .description("Consultas ao cache de respostas do modelo")
+                .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // ====================================
+    // Normalização: "Liste meus repositórios!" == "liste  meus repositorios"
+    // ====================================
+    static String normalizePrompt(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(prompt, Normalizer.Form.NFD);
+        text = DIACRITICS.matcher(text).replaceAll("");
+        text = WHITESPACE.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return TRAILING_PUNCTUATION.matcher(text).replaceAll("");
+    }
+
+    private static boolean mentions(String normalizedPrompt, String repositoryName) {
+        String name = repositoryName.toLowerCase(Locale.ROOT);
+        int index = normalizedPrompt.indexOf(name);
+        while (index >= 0) {
+            int end = index + name.length();
+            boolean startsWord = index == 0 || !isNameChar(normalizedPrompt.charAt(index - 1));
+            boolean endsWord = end == normalizedPrompt.length() || !isNameChar(normalizedPrompt.charAt(end));
+            if (startsWord && endsWord) {
+                return true;
+            }
+            index = normalizedPrompt.indexOf(name, index + 1);
+        }
+        return false;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.';
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    public record Key(Kind kind, String tenant, String hash, Set<String> repositories) {}
+
+    public record ChatState(String normalizedPrompt, String stateHash, Set<String> repositories) {}
+
+    private record Entry(Kind kind, String tenant, String response, Set<String> repositories, Map<String, String> heads,
+                         Instant expiresAt, long size) {}
+}
@@ -0,0 +1,176 @@
+package br.com.sistema.github.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.sistema.github.gateway.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache semântico de respostas do /chat: perguntas parecidas (não só idênticas)
+ * reaproveitam a resposta.
+ *
+ * O prompt é transformado em embedding pelo {@link LocalEmbeddingModel} (ONNX,
+ * sem rede), carregado só no primeiro uso. A busca usa um índice
+ * {@link LshIndex} em memória, limitado e com LRU. Só valem respostas do mesmo
+ * escopo: usuário + estado dos repositórios citados ({@link ResponseCache.ChatState}),
+ * então uma mudança no repositório invalida as respostas antigas naturalmente.
+ * Como no cache exato, cada resposta vale por {@code chat-ttl-seconds}: o escopo
+ * não cobre repositórios que a pergunta não cita pelo nome.
+ */
+@Component
+@Slf4j
+public class SemanticResponseCache {
+
+    private static final long SEED = 0x5EED_CAFEL;
+
+    @Value("${spring.github.semantic-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.github.semantic-cache.similarity-threshold:0.95}")
+    private double similarityThreshold;
+
+    @Value("${spring.github.semantic-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${spring.github.semantic-cache.lsh-tables:8}")
+    private int lshTables;
+
+    @Value("${spring.github.semantic-cache.lsh-bits:12}")
+    private int lshBits;
+
+    @Value("${spring.github.response-cache.chat-ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final LocalEmbeddingModel embeddingModel;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private LshIndex<CachedAnswer> index;
+
+    private Counter hits;
+    private Counter misses;
+    private Timer embeddingTimer;
+    private Timer lookupTimer;
+
+    @Autowired
+    public SemanticResponseCache(LocalEmbeddingModel embeddingModel, MeterRegistry meterRegistry) {
+        this(embeddingModel, meterRegistry, Clock.systemUTC());
+    }
+
+    SemanticResponseCache(LocalEmbeddingModel embeddingModel, MeterRegistry meterRegistry, Clock clock) {
+        this.embeddingModel = embeddingModel;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void init() {
+        index = new LshIndex<>(LocalEmbeddingModel.DIMENSIONS, lshTables, lshBits, maxEntries, SEED);
+
+        hits = requestCounter("hit");
+        misses = requestCounter("miss");
+        embeddingTimer = Timer.builder("github.semantic.cache.embedding")
+                .description("Tempo para gerar o embedding do prompt (modelo local)")
+                .register(meterRegistry);
+        lookupTimer = Timer.builder("github.semantic.cache.lookup")
+                .description("Tempo de busca no índice vetorial do cache semântico")
+                .register(meterRegistry);
+        Gauge.builder("github.semantic.cache.entries", this, SemanticResponseCache::size)
+                .description("Respostas no cache semântico")
+                .register(meterRegistry);
+
+        log.info("🧭 Cache semântico: enabled={}, threshold={}, maxEntries={}, lsh={}x{}, ttl={}s",
+                enabled, similarityThreshold, maxEntries, lshTables, lshBits, ttlSeconds);
+    }
+
+    private Counter requestCounter(String result) {
+        return Counter.builder("github.semantic.cache.requests")
+                .description("Consultas ao cache semântico de respostas")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ====================================
+    // Embedding do prompt normalizado (reaproveitado no put)
+    // ====================================
+    public float[] embed(ResponseCache.ChatState state) {
+        long start = System.nanoTime();
+        try {
+            float[] vector = embeddingModel.embed(state.normalizedPrompt());
+            return LshIndex.normalize(vector);
+        } finally {
+            embeddingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // ====================================
+    // Resposta de uma pergunta parecida no mesmo escopo, se houver
+    // ====================================
+    public String get(ResponseCache.ChatState state, float[] embedding) {
+        long start = System.nanoTime();
+        Instant now = clock.instant();
+        LshIndex.Match<CachedAnswer> match;
+        synchronized (this) {
+            match = index.nearest(embedding, answer -> answer.scope().equals(state.stateHash()) && answer.isValidAt(now));
+        }
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (match == null || match.score() < similarityThreshold) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        log.info("🧭 Cache semântico: similaridade {} com \"{}\"",
+                String.format("%.3f", match.score()), abbreviate(match.value().prompt()));
+        return match.value().response();
+    }
+
+    public void put(ResponseCache.ChatState state, float[] embedding, String response) {
+        Instant now = clock.instant();
+        synchronized (this) {
+            // Expiradas saem aqui; até lá o get já as ignora
+            index.removeIf(answer -> !answer.isValidAt(now));
+            index.add(embedding, new CachedAnswer(state.stateHash(), state.normalizedPrompt(), state.repositories(),
+                    response, now.plusSeconds(ttlSeconds)));
+        }
+    }
+
+    public synchronized int invalidateRepository(String repositoryName) {
+        int before = index.size();
+        String scoped = TenantContext.scope(repositoryName);
+        index.removeIf(answer -> answer.repositories().contains(scoped));
+        return before - index.size();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 60 ? text.substring(0, 60) + "..." : text;
+    }
+
+    private record CachedAnswer(String scope, String prompt, Set<String> repositories, String response, Instant expiresAt) {
+
+        boolean isValidAt(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.sistema.github.service;
+
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+
+/**
+ * Estimativa local (sem rede) de tokens de um texto.
+ *
+ * Usa a média conservadora de ~3,5 caracteres por token, que cobre código-fonte
+ * (mais denso que prosa). Serve para dimensionar prompts e janelas de memória,
+ * não para cobrança.
+ */
+@Component
+public class TokenEstimator implements TokenCountEstimator {
+
+    private static final double CHARS_PER_TOKEN = 3.5;
+    private static final int TOKENS_PER_MESSAGE = 4;
+
+    public int estimate(CharSequence text) {
+        return text == null ? 0 : (int) Math.ceil(text.length() / CHARS_PER_TOKEN);
+    }
+
+    public int maxCharsFor(int tokens) {
+        return (int) (tokens * CHARS_PER_TOKEN);
+    }
+
+    // ====================================
+    // TokenCountEstimator (janela de memória do chat)
+    // ====================================
+    @Override
+    public int estimateTokenCountInText(String text) {
+        return estimate(text);
+    }
+
+    @Override
+    public int estimateTokenCountInMessage(ChatMessage message) {
+        int tokens = TOKENS_PER_MESSAGE;
+
+        if (message instanceof SystemMessage system) {
+            tokens += estimate(system.text());
+
+        } else if (message instanceof UserMessage user) {
+            for (Content content : user.contents()) {
+                if (content instanceof TextContent text) {
+                    tokens += estimate(text.text());
+                }
+            }
+
+        } else if (message instanceof AiMessage ai) {
+            tokens += estimate(ai.text());
+            if (ai.hasToolExecutionRequests()) {
+                for (ToolExecutionRequest request : ai.toolExecutionRequests()) {
+                    tokens += estimate(request.name()) + estimate(request.arguments());
+                }
+            }
+
+        } else if (message instanceof ToolExecutionResultMessage result) {
+            tokens += estimate(result.text());
+        }
+
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+        int tokens = 0;
+        for (ChatMessage message : messages) {
+            tokens += estimateTokenCountInMessage(message);
+        }
+        return tokens;
+    }
+}
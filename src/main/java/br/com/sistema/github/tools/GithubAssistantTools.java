@@ -1,93 +1,81 @@
 package br.com.sistema.github.tools;
 
+import br.com.sistema.github.dtos.response.CodeSearchResponse;
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.models.CodeSnippet;
+import br.com.sistema.github.models.CommitPage;
+import br.com.sistema.github.models.CommitQuery;
+import br.com.sistema.github.models.CommitResult;
+import br.com.sistema.github.models.FileChange;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.IssueInfo;
+import br.com.sistema.github.service.CodeIndexService;
+import br.com.sistema.github.service.CodeSearchService;
+import br.com.sistema.github.service.RepositoryCatalog;
+import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.kohsuke.github.*;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class GithubAssistantTools {
     
-    @Value("${spring.github.token}")
-    private String githubToken;
+    private static final int MAX_COMMITS = 100;
+    private static final int MAX_SNIPPETS = 20;
+    private static final int CODE_SEARCH_RESULTS = 10;
     
-    @Value("${spring.github.username}")
-    private String githubUsername;
+    /**
+     * Tools que só leem do GitHub: respostas que usaram apenas estas podem ir para o cache.
+     */
+    public static final Set<String> READ_ONLY_TOOLS = Set.of(
+            "listRepositories", "listRepositoryFiles", "listRepositoryFilesInDirectory",
+            "readFile", "listCommits", "listOpenIssues", "searchRepository", "searchCodeSnippets", "searchCode");
     
-    private GitHub github;
+    private final GitHubGateway gateway;
+    private final ToolOutputFormatter formatter;
+    private final CodeIndexService codeIndex;
+    private final CodeSearchService codeSearch;
+    private final RepositoryCatalog catalog;
+    private final MeterRegistry meterRegistry;
     
-    // ====================================
-    // Conecta ao GitHub (lazy initialization)
-    // ====================================
-    private GitHub getGitHub() throws IOException {
-        if (github == null) {
-            if (githubToken == null || githubToken.isEmpty()) {
-                throw new IOException("❌ github.token não configurado");
-            }
-            if (githubUsername == null || githubUsername.isEmpty()) {
-                throw new IOException("❌ github.username não configurado");
-            }
-            
-            log.info("🔌 Conectando ao GitHub: {}", githubUsername);
-            github = GitHub.connectUsingOAuth(githubToken);
-            log.info("✅ Conectado ao GitHub");
-        }
-        return github;
-    }
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
     
     // ====================================
     // Lista todos os repositórios do usuário
     // ====================================
     @Tool("Lista todos os repositórios do usuário no GitHub")
     public String listRepositories() {
-        try {
-            log.info("📂 Listando repositórios: {}", githubUsername);
+        return run("listRepositories", "listar repositórios", () -> {
+            log.info("📂 Listando repositórios: {}", gateway.getUsername());
             
-            GitHub gh = getGitHub();
-            List<GHRepository> repos = gh.getUser(githubUsername)
-                    .listRepositories()
-                    .toList();
+            List<RepoInfo> repos = gateway.listRepositories();
             
             if (repos.isEmpty()) {
                 return "Nenhum repositório encontrado.";
             }
             
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("✅ Total: %d repositórios\n\n", repos.size()));
-            
-            for (GHRepository repo : repos) {
-                sb.append(String.format("📦 %s\n", repo.getName()));
-                
-                if (repo.getDescription() != null) {
-                    sb.append(String.format("   Descrição: %s\n", repo.getDescription()));
-                }
-                
-                sb.append(String.format("   URL: %s\n", repo.getHtmlUrl()));
-                
-                if (repo.getLanguage() != null) {
-                    sb.append(String.format("   Linguagem: %s\n", repo.getLanguage()));
-                }
-                
-                sb.append(String.format("   ⭐ %d | 🔱 %d | 🐛 %d issues\n",
-                        repo.getStargazersCount(),
-                        repo.getForksCount(),
-                        repo.getOpenIssueCount()));
-                
-                sb.append(String.format("   %s\n\n",
-                        repo.isPrivate() ? "🔒 Privado" : "🌐 Público"));
-            }
-            
-            return sb.toString();
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao listar repositórios", e);
-            return formatError(e);
-        }
+            return formatter.repositories(repos);
+        });
     }
     
     // ====================================
@@ -95,38 +83,17 @@ public class GithubAssistantTools {
     // ====================================
     @Tool("Lista arquivos de um repositório específico")
     public String listRepositoryFiles(String repositoryName) {
-        try {
+        return run("listRepositoryFiles", "listar arquivos", () -> {
             log.info("📂 Listando arquivos: {}", repositoryName);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            List<GHContent> contents = repo.getDirectoryContent("/");
+            List<FileNode> contents = gateway.listDirectory(repositoryName, "/");
             
             if (contents.isEmpty()) {
                 return "Repositório vazio.";
             }
             
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("✅ Arquivos de %s:\n\n", repositoryName));
-            
-            for (GHContent content : contents) {
-                String icon = content.isDirectory() ? "📁" : "📄";
-                sb.append(String.format("%s %s", icon, content.getName()));
-                
-                if (content.isFile()) {
-                    sb.append(String.format(" (%d bytes)", content.getSize()));
-                }
-                
-                sb.append("\n");
-            }
-            
-            return sb.toString();
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao listar arquivos", e);
-            return formatError(e);
-        }
+            return formatter.files(repositoryName, null, contents);
+        });
     }
     
     // ====================================
@@ -134,38 +101,17 @@ public class GithubAssistantTools {
     // ====================================
     @Tool("Lista arquivos de um diretório específico do repositório")
     public String listRepositoryFilesInDirectory(String repositoryName, String directoryPath) {
-        try {
+        return run("listRepositoryFilesInDirectory", "listar diretório", () -> {
             log.info("📂 Listando: {} / {}", repositoryName, directoryPath);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            List<GHContent> contents = repo.getDirectoryContent(directoryPath);
+            List<FileNode> contents = gateway.listDirectory(repositoryName, directoryPath);
             
             if (contents.isEmpty()) {
                 return String.format("Diretório %s está vazio.", directoryPath);
             }
             
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("✅ %s / %s:\n\n", repositoryName, directoryPath));
-            
-            for (GHContent content : contents) {
-                String icon = content.isDirectory() ? "📁" : "📄";
-                sb.append(String.format("%s %s", icon, content.getName()));
-                
-                if (content.isFile()) {
-                    sb.append(String.format(" (%d bytes)", content.getSize()));
-                }
-                
-                sb.append("\n");
-            }
-            
-            return sb.toString();
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao listar diretório", e);
-            return formatError(e);
-        }
+            return formatter.files(repositoryName, directoryPath, contents);
+        });
     }
     
     // ====================================
@@ -173,39 +119,64 @@ public class GithubAssistantTools {
     // ====================================
     @Tool("Lê o conteúdo completo de um arquivo do repositório")
     public String readFile(String repositoryName, String filePath) {
-        try {
+        return run("readFile", "ler arquivo", () -> {
             log.info("📖 Lendo: {} / {}", repositoryName, filePath);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
+            FileContent content = gateway.readFile(repositoryName, filePath);
             
-            GHContent content = repo.getFileContent(filePath);
+            return formatter.file(content);
+        });
+    }
+    
+    // ====================================
+    // Busca trechos de código relevantes (índice semântico local)
+    // ====================================
+    @Tool("Busca trechos de código relevantes para uma pergunta, com caminho e linhas. Prefira esta ferramenta a ler arquivos inteiros")
+    public String searchCodeSnippets(
+            String repositoryName,
+            @P("O que procurar, em linguagem natural ou nomes de classes/métodos") String query,
+            @P(value = "Quantidade de trechos (padrão 5, máximo 20)", required = false) Integer topK) {
+        return run("searchCodeSnippets", "buscar código", () -> {
+            if (!codeIndex.isEnabled()) {
+                return "❌ Índice de código desativado: use readFile";
+            }
+            int maxResults = topK != null && topK > 0 ? Math.min(topK, MAX_SNIPPETS) : 5;
+            
+            log.info("🔎 Buscando código: {} / \"{}\" (top {})", repositoryName, query, maxResults);
             
-            if (content.isDirectory()) {
-                return String.format("❌ %s é um diretório, não um arquivo.", filePath);
+            List<CodeSnippet> snippets = codeIndex.search(repositoryName, query, maxResults);
+            
+            if (snippets.isEmpty()) {
+                return String.format("Nenhum trecho indexado em %s.", repositoryName);
             }
             
-            String fileContent = content.getContent();
-            
-            return String.format("""
-                    ✅ Arquivo: %s
-                    Tamanho: %d bytes
-                    Encoding: %s
-                    
-                    Conteúdo:
-                    ─────────────────────────────────
-                    %s
-                    ─────────────────────────────────
-                    """,
-                    filePath,
-                    content.getSize(),
-                    content.getEncoding(),
-                    fileContent);
+            return formatter.snippets(repositoryName, query, snippets);
+        });
+    }
+    
+    // ====================================
+    // Busca textual no código (índice BM25 local)
+    // ====================================
+    @Tool("Busca arquivos do repositório que contêm os termos ou identificadores informados (ex: getUserById, max_retry)")
+    public String searchCode(String repositoryName, String query) {
+        return run("searchCode", "buscar no código", () -> {
+            if (!codeSearch.isEnabled()) {
+                return "❌ Busca de código desativada";
+            }
+            log.info("🔤 Buscando no código: {} / \"{}\"", repositoryName, query);
             
-        } catch (IOException e) {
-            log.error("❌ Erro ao ler arquivo", e);
-            return formatError(e);
-        }
+            CodeSearchResponse result = codeSearch.search(repositoryName, query, CODE_SEARCH_RESULTS);
+            
+            if (result.hits().isEmpty() && Boolean.TRUE.equals(result.indexing())) {
+                return String.format("⏳ Índice de código de %s ainda em construção (%d arquivos até agora); tente de novo em instantes",
+                        repositoryName, result.indexedFiles());
+            }
+            if (result.hits().isEmpty()) {
+                return String.format("❌ Nenhum arquivo de %s contém: %s", repositoryName, query);
+            }
+            
+            return formatter.codeHits(result);
+        });
     }
     
     // ====================================
@@ -214,24 +185,13 @@ public class GithubAssistantTools {
     @Tool("Cria um novo arquivo no repositório")
     public String createFile(String repositoryName, String filePath, 
                            String content, String commitMessage) {
-        try {
+        return run("createFile", "criar arquivo", () -> {
             log.info("📝 Criando arquivo: {} / {}", repositoryName, filePath);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            repo.createContent()
-                    .path(filePath)
-                    .content(content)
-                    .message(commitMessage)
-                    .commit();
+            gateway.createFile(repositoryName, filePath, content, commitMessage);
             
             return String.format("✅ Arquivo %s criado com sucesso!", filePath);
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao criar arquivo", e);
-            return formatError(e);
-        }
+        });
     }
     
     // ====================================
@@ -240,22 +200,13 @@ public class GithubAssistantTools {
     @Tool("Atualiza o conteúdo de um arquivo existente")
     public String updateFile(String repositoryName, String filePath, 
                            String content, String commitMessage) {
-        try {
+        return run("updateFile", "atualizar arquivo", () -> {
             log.info("✏️ Atualizando: {} / {}", repositoryName, filePath);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            GHContent oldContent = repo.getFileContent(filePath);
-            
-            oldContent.update(content, commitMessage);
+            gateway.updateFile(repositoryName, filePath, content, commitMessage);
             
             return String.format("✅ Arquivo %s atualizado com sucesso!", filePath);
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao atualizar arquivo", e);
-            return formatError(e);
-        }
+        });
     }
     
     // ====================================
@@ -263,62 +214,81 @@ public class GithubAssistantTools {
     // ====================================
     @Tool("Deleta um arquivo do repositório")
     public String deleteFile(String repositoryName, String filePath, String commitMessage) {
-        try {
+        return run("deleteFile", "deletar arquivo", () -> {
             log.info("🗑️ Deletando: {} / {}", repositoryName, filePath);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            GHContent content = repo.getFileContent(filePath);
-            content.delete(commitMessage);
+            gateway.deleteFile(repositoryName, filePath, commitMessage);
             
             return String.format("✅ Arquivo %s deletado com sucesso!", filePath);
+        });
+    }
+    
+    // ====================================
+    // Várias alterações em um único commit
+    // ====================================
+    @Tool("Cria, atualiza e deleta vários arquivos em um único commit. Prefira esta ferramenta a chamar createFile/updateFile/deleteFile várias vezes")
+    public String commitFiles(
+            String repositoryName,
+            String commitMessage,
+            @P("Alterações: cada item com operation (CREATE, UPDATE ou DELETE), path e content completo (exceto DELETE)") List<FileChange> changes,
+            @P(value = "Branch de destino (padrão: branch padrão do repositório)", required = false) String branch) {
+        return run("commitFiles", "gravar commit", () -> {
+            log.info("📦 Commit em lote: {} ({} alterações)", repositoryName, changes == null ? 0 : changes.size());
+            
+            String invalid = FileChange.validate(changes);
+            if (invalid != null) {
+                return "❌ " + invalid;
+            }
             
-        } catch (IOException e) {
-            log.error("❌ Erro ao deletar arquivo", e);
-            return formatError(e);
-        }
+            CommitResult result;
+            try {
+                result = gateway.commitFiles(repositoryName, branch, commitMessage, changes);
+            } catch (IllegalArgumentException e) {
+                return "❌ " + e.getMessage();
+            }
+            
+            return String.format("✅ Commit %s em %s: %d criados, %d atualizados, %d deletados",
+                    result.sha().substring(0, 7), result.branch(), result.created(), result.updated(), result.deleted());
+        });
     }
     
     // ====================================
     // Lista últimos commits de um repositório
     // ====================================
-    @Tool("Lista os últimos commits de um repositório")
-    public String listCommits(String repositoryName, Integer limit) {
-        try {
-            int maxCommits = limit != null && limit > 0 ? limit : 10;
+    @Tool("Lista os últimos commits de um repositório, com filtros opcionais de período e caminho e paginação por cursor")
+    public String listCommits(
+            String repositoryName,
+            @P(value = "Quantidade máxima de commits (padrão 10, máximo 100)", required = false) Integer limit,
+            @P(value = "Data inicial ISO-8601, ex: 2025-01-01", required = false) String since,
+            @P(value = "Data final ISO-8601, ex: 2025-01-31", required = false) String until,
+            @P(value = "Caminho de arquivo ou diretório para filtrar", required = false) String path,
+            @P(value = "Cursor retornado pela listagem anterior para continuar", required = false) String cursor) {
+        return run("listCommits", "listar commits", () -> {
+            int maxCommits = limit != null && limit > 0 ? Math.min(limit, MAX_COMMITS) : 10;
             
             log.info("📝 Listando commits: {} (max: {})", repositoryName, maxCommits);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            List<GHCommit> commits = repo.listCommits()
-                    .withPageSize(maxCommits)
-                    .toList()
-                    .subList(0, Math.min(maxCommits, repo.listCommits().toList().size()));
-            
-            if (commits.isEmpty()) {
-                return "Nenhum commit encontrado.";
+            CommitQuery commitQuery;
+            try {
+                commitQuery = CommitQuery.builder()
+                        .limit(maxCommits)
+                        .since(parseDate(since, false))
+                        .until(parseDate(until, true))
+                        .path(path)
+                        .cursor(cursor)
+                        .build();
+            } catch (DateTimeParseException e) {
+                return "❌ Data inválida: use o formato ISO-8601 (ex: 2025-01-31)";
             }
             
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("✅ Últimos %d commits de %s:\n\n", commits.size(), repositoryName));
+            CommitPage page = gateway.listCommits(repositoryName, commitQuery);
             
-            for (GHCommit commit : commits) {
-                GHCommit.ShortInfo info = commit.getCommitShortInfo();
-                sb.append(String.format("📝 %s\n", info.getMessage()));
-                sb.append(String.format("   Autor: %s\n", info.getAuthor().getName()));
-                sb.append(String.format("   Data: %s\n", info.getAuthor().getDate()));
-                sb.append(String.format("   SHA: %s\n\n", commit.getSHA1().substring(0, 7)));
+            if (page.commits().isEmpty()) {
+                return "Nenhum commit encontrado.";
             }
             
-            return sb.toString();
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao listar commits", e);
-            return formatError(e);
-        }
+            return formatter.commits(repositoryName, page);
+        });
     }
     
     // ====================================
@@ -326,84 +296,125 @@ public class GithubAssistantTools {
     // ====================================
     @Tool("Lista issues abertas de um repositório")
     public String listOpenIssues(String repositoryName) {
-        try {
+        return run("listOpenIssues", "listar issues", () -> {
             log.info("🐛 Listando issues: {}", repositoryName);
             
-            GitHub gh = getGitHub();
-            GHRepository repo = gh.getRepository(githubUsername + "/" + repositoryName);
-            
-            List<GHIssue> issues = repo.getIssues(GHIssueState.OPEN);
+            List<IssueInfo> issues = gateway.listOpenIssues(repositoryName);
             
             if (issues.isEmpty()) {
                 return String.format("✅ %s não tem issues abertas.", repositoryName);
             }
             
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("🐛 Issues abertas em %s: %d\n\n", 
-                    repositoryName, issues.size()));
-            
-            for (GHIssue issue : issues) {
-                sb.append(String.format("#%d: %s\n", issue.getNumber(), issue.getTitle()));
-                
-                if (issue.getBody() != null && !issue.getBody().isEmpty()) {
-                    String body = issue.getBody().length() > 100 
-                            ? issue.getBody().substring(0, 100) + "..." 
-                            : issue.getBody();
-                    sb.append(String.format("   %s\n", body));
-                }
-                
-                sb.append(String.format("   Criada em: %s\n", issue.getCreatedAt()));
-                sb.append(String.format("   URL: %s\n\n", issue.getHtmlUrl()));
-            }
-            
-            return sb.toString();
-            
-        } catch (IOException e) {
-            log.error("❌ Erro ao listar issues", e);
-            return formatError(e);
-        }
+            return formatter.issues(repositoryName, issues);
+        });
     }
     
     // ====================================
-    // Busca repositórios por nome ou palavra-chave
+    // Busca repositórios por nome ou palavra-chave (catálogo local)
     // ====================================
-    @Tool("Busca repositórios do usuário por nome ou palavra-chave")
-    public String searchRepository(String query) {
-        try {
+    @Tool("Busca repositórios do usuário por nome, prefixo ou palavra-chave (tolera erros de digitação), com filtros opcionais")
+    public String searchRepository(
+            String query,
+            @P(value = "Linguagem principal, ex: Java", required = false) String language,
+            @P(value = "Visibilidade: public ou private", required = false) String visibility,
+            @P(value = "Ordenação: relevance, stars, name ou updated", required = false) String sort) {
+        return run("searchRepository", "buscar repositórios", () -> {
             log.info("🔍 Buscando: {}", query);
             
-            GitHub gh = getGitHub();
-            List<GHRepository> repos = gh.getUser(githubUsername)
-                    .listRepositories()
-                    .toList();
+            RepositoryCatalog.Query search;
+            try {
+                search = RepositoryCatalog.Query.builder()
+                        .text(query)
+                        .language(language)
+                        .privateOnly(parseVisibility(visibility))
+                        .sort(parseSort(sort))
+                        .build();
+            } catch (IllegalArgumentException e) {
+                return "❌ " + e.getMessage();
+            }
             
-            List<GHRepository> matches = repos.stream()
-                    .filter(repo -> repo.getName().toLowerCase().contains(query.toLowerCase())
-                            || (repo.getDescription() != null && 
-                                repo.getDescription().toLowerCase().contains(query.toLowerCase())))
-                    .toList();
+            List<RepoInfo> matches = catalog.search(search);
             
             if (matches.isEmpty()) {
                 return String.format("❌ Nenhum repositório encontrado para: %s", query);
             }
             
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("✅ Encontrados %d repositórios:\n\n", matches.size()));
-            
-            for (GHRepository repo : matches) {
-                sb.append(String.format("📦 %s\n", repo.getName()));
-                if (repo.getDescription() != null) {
-                    sb.append(String.format("   %s\n", repo.getDescription()));
-                }
-                sb.append(String.format("   %s\n\n", repo.getHtmlUrl()));
-            }
-            
-            return sb.toString();
+            return formatter.repositoryMatches(query, matches);
+        });
+    }
+    
+    static Boolean parseVisibility(String visibility) {
+        if (visibility == null || visibility.isBlank()) {
+            return null;
+        }
+        return switch (visibility.trim().toLowerCase(Locale.ROOT)) {
+            case "private", "privado" -> true;
+            case "public", "publico", "público" -> false;
+            default -> throw new IllegalArgumentException("Visibilidade inválida: use public ou private");
+        };
+    }
+    
+    static RepositoryCatalog.Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return RepositoryCatalog.Sort.RELEVANCE;
+        }
+        try {
+            return RepositoryCatalog.Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ordenação inválida: use relevance, stars, name ou updated");
+        }
+    }
+    
+    // ====================================
+    // Executa uma tool medindo duração e resultado (github.tool.calls)
+    // ====================================
+    private String run(String tool, String action, ToolCall call) {
+        long start = System.nanoTime();
+        String outcome = "exception";
+        try {
+            String result = call.call();
+            outcome = "success";
+            return result;
             
         } catch (IOException e) {
-            log.error("❌ Erro ao buscar repositórios", e);
+            outcome = "error";
+            log.error("❌ Erro ao {}", action, e);
             return formatError(e);
+            
+        } finally {
+            timer(tool, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // Timers criados uma vez por tool/resultado: o caminho quente não aloca builders
+    private Timer timer(String tool, String outcome) {
+        return timers.computeIfAbsent(tool + '|' + outcome, key -> Timer.builder("github.tool.calls")
+                .description("Execuções das @Tool chamadas pelo modelo")
+                .tag("tool", tool)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+    
+    @FunctionalInterface
+    private interface ToolCall {
+        String call() throws IOException;
+    }
+    
+    // ====================================
+    // Converte data ISO-8601 (data ou instante) em Date
+    // ====================================
+    // Data sem hora como limite final inclui o dia inteiro (o GitHub usa "antes de")
+    static Date parseDate(String value, boolean until) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        
+        String trimmed = value.trim();
+        if (trimmed.length() == 10) {
+            LocalDate day = LocalDate.parse(trimmed);
+            return Date.from((until ? day.plusDays(1) : day).atStartOfDay(ZoneOffset.UTC).toInstant());
         }
+        return Date.from(Instant.parse(trimmed));
     }
     
     // ====================================
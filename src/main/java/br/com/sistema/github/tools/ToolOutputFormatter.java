@@ -0,0 +1,492 @@
+package br.com.sistema.github.tools;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.github.dtos.response.CodeSearchResponse;
+import br.com.sistema.github.dtos.response.CodeSearchResponse.CodeHit;
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.models.CodeSnippet;
+import br.com.sistema.github.models.CommitInfo;
+import br.com.sistema.github.models.CommitPage;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.IssueInfo;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renderiza o resultado das {@code @Tool} no texto devolvido ao modelo.
+ *
+ * Todo resultado de tool volta ao Gemini como tokens de entrada, então o formato
+ * padrão ({@code compact}) é colunar: uma linha de cabeçalho com as colunas e uma
+ * linha por item, separada por TAB, sem emojis nem rótulos repetidos. Também há
+ * {@code jsonl} (um objeto JSON por linha) e {@code verbose} (o texto decorado
+ * original). As colunas de cada tipo são configuráveis em
+ * {@code spring.github.tools.fields.*}.
+ */
+@Component
+@Slf4j
+public class ToolOutputFormatter {
+
+    public enum Format { VERBOSE, COMPACT, JSONL }
+
+    private static final int ISSUE_BODY_MAX_CHARS = 100;
+    private static final int CODE_PREVIEW_MAX_CHARS = 160;
+
+    private static final Map<String, Function<RepoInfo, Object>> REPOSITORY_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<FileNode, Object>> FILE_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<CommitInfo, Object>> COMMIT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<IssueInfo, Object>> ISSUE_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<CodeHit, Object>> CODE_HIT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        REPOSITORY_COLUMNS.put("name", RepoInfo::name);
+        REPOSITORY_COLUMNS.put("language", RepoInfo::language);
+        REPOSITORY_COLUMNS.put("stars", RepoInfo::stars);
+        REPOSITORY_COLUMNS.put("forks", RepoInfo::forks);
+        REPOSITORY_COLUMNS.put("issues", RepoInfo::openIssues);
+        REPOSITORY_COLUMNS.put("private", RepoInfo::isPrivate);
+        REPOSITORY_COLUMNS.put("description", RepoInfo::description);
+        REPOSITORY_COLUMNS.put("url", RepoInfo::url);
+        REPOSITORY_COLUMNS.put("updated", repo -> isoDate(repo.updatedAt()));
+
+        FILE_COLUMNS.put("name", FileNode::getName);
+        FILE_COLUMNS.put("type", node -> node.getIsDirectory() ? "d" : "f");
+        FILE_COLUMNS.put("size", node -> node.getIsDirectory() ? null : node.getSize());
+        FILE_COLUMNS.put("path", FileNode::getPath);
+        FILE_COLUMNS.put("sha", node -> shortSha(node.getSha()));
+
+        COMMIT_COLUMNS.put("sha", commit -> shortSha(commit.sha()));
+        COMMIT_COLUMNS.put("date", commit -> isoDate(commit.date()));
+        COMMIT_COLUMNS.put("author", CommitInfo::author);
+        COMMIT_COLUMNS.put("message", commit -> firstLine(commit.message()));
+
+        ISSUE_COLUMNS.put("number", IssueInfo::number);
+        ISSUE_COLUMNS.put("title", IssueInfo::title);
+        ISSUE_COLUMNS.put("created", issue -> isoDate(issue.createdAt()));
+        ISSUE_COLUMNS.put("body", issue -> abbreviate(issue.body(), ISSUE_BODY_MAX_CHARS));
+        ISSUE_COLUMNS.put("url", IssueInfo::url);
+
+        CODE_HIT_COLUMNS.put("path", CodeHit::path);
+        CODE_HIT_COLUMNS.put("score", hit -> Math.round(hit.score() * 100) / 100.0);
+        CODE_HIT_COLUMNS.put("line", CodeHit::line);
+        CODE_HIT_COLUMNS.put("preview", hit -> abbreviate(hit.preview(), CODE_PREVIEW_MAX_CHARS));
+    }
+
+    private final Format format;
+    private final List<String> repositoryFields;
+    private final List<String> fileFields;
+    private final List<String> commitFields;
+    private final List<String> issueFields;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    public ToolOutputFormatter(
+            @Value("${spring.github.tools.output-format:compact}") String format,
+            @Value("${spring.github.tools.fields.repository:name,language,stars,forks,issues,private,description}") List<String> repositoryFields,
+            @Value("${spring.github.tools.fields.file:name,type,size}") List<String> fileFields,
+            @Value("${spring.github.tools.fields.commit:sha,date,author,message}") List<String> commitFields,
+            @Value("${spring.github.tools.fields.issue:number,title,created,body}") List<String> issueFields) {
+        this(Format.valueOf(format.trim().toUpperCase(Locale.ROOT)), repositoryFields, fileFields, commitFields, issueFields);
+    }
+
+    public ToolOutputFormatter(Format format, List<String> repositoryFields, List<String> fileFields,
+                               List<String> commitFields, List<String> issueFields) {
+        this.format = format;
+        this.repositoryFields = project("repository", repositoryFields, REPOSITORY_COLUMNS);
+        this.fileFields = project("file", fileFields, FILE_COLUMNS);
+        this.commitFields = project("commit", commitFields, COMMIT_COLUMNS);
+        this.issueFields = project("issue", issueFields, ISSUE_COLUMNS);
+
+        log.info("🧾 Saída das tools: {} (repo={}, file={}, commit={}, issue={})", format,
+                this.repositoryFields, this.fileFields, this.commitFields, this.issueFields);
+    }
+
+    // Formato com todas as colunas padrão (benchmarks e testes)
+    public static ToolOutputFormatter of(Format format) {
+        return new ToolOutputFormatter(format,
+                List.of("name", "language", "stars", "forks", "issues", "private", "description"),
+                List.of("name", "type", "size"),
+                List.of("sha", "date", "author", "message"),
+                List.of("number", "title", "created", "body"));
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    // ====================================
+    // Repositórios (listagem completa)
+    // ====================================
+    public String repositories(List<RepoInfo> repos) {
+        if (format == Format.VERBOSE) {
+            return verboseRepositories(repos);
+        }
+        return table("repositorios", Map.of("n", repos.size()), repos, repositoryFields, REPOSITORY_COLUMNS, null);
+    }
+
+    // ====================================
+    // Repositórios (resultado de busca)
+    // ====================================
+    public String repositoryMatches(String query, List<RepoInfo> matches) {
+        if (format == Format.VERBOSE) {
+            return verboseRepositoryMatches(matches);
+        }
+        return table("busca", orderedMeta("q", query, "n", matches.size()), matches, repositoryFields, REPOSITORY_COLUMNS, null);
+    }
+
+    // ====================================
+    // Arquivos de um diretório
+    // ====================================
+    public String files(String repositoryName, String directoryPath, List<FileNode> contents) {
+        if (format == Format.VERBOSE) {
+            String header = directoryPath == null
+                    ? String.format("✅ Arquivos de %s:\n\n", repositoryName)
+                    : String.format("✅ %s / %s:\n\n", repositoryName, directoryPath);
+            return verboseFiles(header, contents);
+        }
+        return table("arquivos", orderedMeta("repo", repositoryName, "path", directoryPath == null ? "/" : directoryPath),
+                contents, fileFields, FILE_COLUMNS, null);
+    }
+
+    // ====================================
+    // Conteúdo de um arquivo
+    // ====================================
+    public String file(FileContent content) {
+        return switch (format) {
+            case VERBOSE -> String.format("""
+                    ✅ Arquivo: %s
+                    Tamanho: %d bytes
+                    Encoding: %s
+
+                    Conteúdo:
+                    ─────────────────────────────────
+                    %s
+                    ─────────────────────────────────
+                    """,
+                    content.path(),
+                    content.size(),
+                    content.encoding(),
+                    content.content());
+            case COMPACT -> String.format("#arquivo path=%s bytes=%d\n%s", content.path(), content.size(), content.content());
+            case JSONL -> json(orderedMeta("path", content.path(), "bytes", content.size(), "content", content.content()));
+        };
+    }
+
+    // ====================================
+    // Arquivos encontrados na busca lexical (BM25)
+    // ====================================
+    public String codeHits(CodeSearchResponse result) {
+        if (format == Format.VERBOSE) {
+            return verboseCodeHits(result);
+        }
+        Map<String, Object> meta = orderedMeta("repo", result.repositoryName(), "q", result.query(), "n", result.hits().size());
+        if (Boolean.TRUE.equals(result.indexing())) {
+            meta.put("parcial", true);
+        }
+        return table("codigo", meta, result.hits(), List.copyOf(CODE_HIT_COLUMNS.keySet()), CODE_HIT_COLUMNS, null);
+    }
+
+    // ====================================
+    // Trechos de código (busca semântica)
+    // ====================================
+    public String snippets(String repositoryName, String query, List<CodeSnippet> snippets) {
+        StringBuilder sb = new StringBuilder(256 + snippets.size() * 512);
+
+        switch (format) {
+            case VERBOSE -> {
+                sb.append(String.format("🔎 %d trechos de %s para \"%s\":\n\n", snippets.size(), repositoryName, query));
+                for (CodeSnippet snippet : snippets) {
+                    sb.append(String.format("📄 %s (linhas %d-%d, relevância %.2f)\n", snippet.path(),
+                            snippet.startLine(), snippet.endLine(), snippet.score()));
+                    sb.append("─────────────────────────────────\n")
+                            .append(snippet.content())
+                            .append("\n─────────────────────────────────\n\n");
+                }
+            }
+            case COMPACT -> {
+                sb.append(String.format("#trechos repo=%s q=%s n=%d\n", repositoryName, cell(query), snippets.size()));
+                for (CodeSnippet snippet : snippets) {
+                    sb.append(String.format(Locale.ROOT, "@%s:%d-%d score=%.2f\n", snippet.path(),
+                            snippet.startLine(), snippet.endLine(), snippet.score()));
+                    sb.append(snippet.content()).append('\n');
+                }
+            }
+            case JSONL -> {
+                sb.append(json(orderedMeta("kind", "trechos", "repo", repositoryName, "q", query, "n", snippets.size()))).append('\n');
+                for (CodeSnippet snippet : snippets) {
+                    sb.append(json(orderedMeta("path", snippet.path(), "start", snippet.startLine(), "end", snippet.endLine(),
+                            "score", Math.round(snippet.score() * 100) / 100.0, "content", snippet.content()))).append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    // ====================================
+    // Página de commits
+    // ====================================
+    public String commits(String repositoryName, CommitPage page) {
+        if (format == Format.VERBOSE) {
+            return verboseCommits(repositoryName, page);
+        }
+        String footer = page.hasMore() ? "next cursor=" + page.nextCursor() : null;
+        return table("commits", orderedMeta("repo", repositoryName, "n", page.commits().size()),
+                page.commits(), commitFields, COMMIT_COLUMNS, footer);
+    }
+
+    // ====================================
+    // Issues abertas
+    // ====================================
+    public String issues(String repositoryName, List<IssueInfo> issues) {
+        if (format == Format.VERBOSE) {
+            return verboseIssues(repositoryName, issues);
+        }
+        return table("issues", orderedMeta("repo", repositoryName, "n", issues.size()), issues, issueFields, ISSUE_COLUMNS, null);
+    }
+
+    // ====================================
+    // Tabela compacta (TSV) ou JSON lines
+    // ====================================
+    private <T> String table(String kind, Map<String, Object> meta, List<T> rows, List<String> fields,
+                             Map<String, Function<T, Object>> columns, String footer) {
+        StringBuilder sb = new StringBuilder(64 + rows.size() * 48);
+
+        if (format == Format.JSONL) {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("kind", kind);
+            header.putAll(meta);
+            sb.append(json(header)).append('\n');
+
+            for (T row : rows) {
+                Map<String, Object> object = new LinkedHashMap<>();
+                for (String field : fields) {
+                    Object value = columns.get(field).apply(row);
+                    if (value != null) {
+                        object.put(field, value);
+                    }
+                }
+                sb.append(json(object)).append('\n');
+            }
+            if (footer != null) {
+                sb.append(json(Map.of("next", footer.substring(footer.indexOf('=') + 1)))).append('\n');
+            }
+            return sb.toString();
+        }
+
+        sb.append('#').append(kind);
+        meta.forEach((key, value) -> sb.append(' ').append(key).append('=').append(cell(value)));
+        sb.append('\n').append(String.join("\t", fields)).append('\n');
+
+        for (T row : rows) {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    sb.append('\t');
+                }
+                sb.append(cell(columns.get(fields.get(i)).apply(row)));
+            }
+            sb.append('\n');
+        }
+
+        if (footer != null) {
+            sb.append('#').append(footer).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String cell(Object value) {
+        if (value == null) {
+            return "-";
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\t' || c == '\n' || c == '\r') {
+                return text.replaceAll("[\\t\\r\\n]+", " ");
+            }
+        }
+        return text;
+    }
+
+    private String json(Map<String, Object> object) {
+        try {
+            return objectMapper.writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar saída da tool", e);
+        }
+    }
+
+    private static Map<String, Object> orderedMeta(Object... keyValues) {
+        Map<String, Object> meta = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            meta.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return meta;
+    }
+
+    private static <T> List<String> project(String kind, List<String> fields, Map<String, Function<T, Object>> columns) {
+        List<String> valid = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            String name = field.trim();
+            if (columns.containsKey(name)) {
+                valid.add(name);
+            } else if (!name.isEmpty()) {
+                log.warn("🧾 Campo desconhecido em spring.github.tools.fields.{}: {} (disponíveis: {})", kind, name, columns.keySet());
+            }
+        }
+        return valid.isEmpty() ? List.copyOf(columns.keySet()) : List.copyOf(valid);
+    }
+
+    private static String shortSha(String sha) {
+        return sha == null ? null : sha.substring(0, Math.min(7, sha.length()));
+    }
+
+    private static String isoDate(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+
+    private static String firstLine(String text) {
+        if (text == null) {
+            return null;
+        }
+        int lineBreak = text.indexOf('\n');
+        return lineBreak < 0 ? text : text.substring(0, lineBreak);
+    }
+
+    private static String abbreviate(String text, int maxChars) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        return text.length() > maxChars ? text.substring(0, maxChars) + "..." : text;
+    }
+
+    // ====================================
+    // Formato verbose (texto decorado original)
+    // ====================================
+    private static String verboseRepositories(List<RepoInfo> repos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("✅ Total: %d repositórios\n\n", repos.size()));
+
+        for (RepoInfo repo : repos) {
+            sb.append(String.format("📦 %s\n", repo.name()));
+
+            if (repo.description() != null) {
+                sb.append(String.format("   Descrição: %s\n", repo.description()));
+            }
+
+            sb.append(String.format("   URL: %s\n", repo.url()));
+
+            if (repo.language() != null) {
+                sb.append(String.format("   Linguagem: %s\n", repo.language()));
+            }
+
+            sb.append(String.format("   ⭐ %d | 🔱 %d | 🐛 %d issues\n",
+                    repo.stars(),
+                    repo.forks(),
+                    repo.openIssues()));
+
+            sb.append(String.format("   %s\n\n",
+                    repo.isPrivate() ? "🔒 Privado" : "🌐 Público"));
+        }
+
+        return sb.toString();
+    }
+
+    private static String verboseRepositoryMatches(List<RepoInfo> matches) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("✅ Encontrados %d repositórios:\n\n", matches.size()));
+
+        for (RepoInfo repo : matches) {
+            sb.append(String.format("📦 %s\n", repo.name()));
+            if (repo.description() != null) {
+                sb.append(String.format("   %s\n", repo.description()));
+            }
+            sb.append(String.format("   %s\n\n", repo.url()));
+        }
+
+        return sb.toString();
+    }
+
+    private static String verboseFiles(String header, List<FileNode> contents) {
+        StringBuilder sb = new StringBuilder(header);
+
+        for (FileNode content : contents) {
+            String icon = content.getIsDirectory() ? "📁" : "📄";
+            sb.append(String.format("%s %s", icon, content.getName()));
+
+            if (!content.getIsDirectory()) {
+                sb.append(String.format(" (%d bytes)", content.getSize()));
+            }
+
+            sb.append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    private static String verboseCommits(String repositoryName, CommitPage page) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("✅ Últimos %d commits de %s:\n\n", page.commits().size(), repositoryName));
+
+        for (CommitInfo commit : page.commits()) {
+            sb.append(String.format("📝 %s\n", commit.message()));
+            sb.append(String.format("   Autor: %s\n", commit.author()));
+            sb.append(String.format("   Data: %s\n", commit.date()));
+            sb.append(String.format("   SHA: %s\n\n", commit.sha().substring(0, 7)));
+        }
+
+        if (page.hasMore()) {
+            sb.append(String.format("➡️ Há mais commits. Para continuar use cursor=%s\n", page.nextCursor()));
+        }
+
+        return sb.toString();
+    }
+
+    private static String verboseCodeHits(CodeSearchResponse result) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("🔤 %d arquivos de %s para \"%s\":\n\n", result.hits().size(), result.repositoryName(), result.query()));
+        if (Boolean.TRUE.equals(result.indexing())) {
+            sb.append("⏳ Índice ainda em construção: resultados parciais\n\n");
+        }
+
+        for (CodeHit hit : result.hits()) {
+            sb.append(String.format("📄 %s (relevância %.2f)\n", hit.path(), hit.score()));
+            if (hit.line() != null) {
+                sb.append(String.format("   %d: %s\n", hit.line(), abbreviate(hit.preview(), CODE_PREVIEW_MAX_CHARS)));
+            }
+            sb.append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    private static String verboseIssues(String repositoryName, List<IssueInfo> issues) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("🐛 Issues abertas em %s: %d\n\n", repositoryName, issues.size()));
+
+        for (IssueInfo issue : issues) {
+            sb.append(String.format("#%d: %s\n", issue.number(), issue.title()));
+
+            if (issue.body() != null && !issue.body().isEmpty()) {
+                sb.append(String.format("   %s\n", abbreviate(issue.body(), ISSUE_BODY_MAX_CHARS)));
+            }
+
+            sb.append(String.format("   Criada em: %s\n", issue.createdAt()));
+            sb.append(String.format("   URL: %s\n\n", issue.url()));
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.sistema.github.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.sistema.github.models.FileFetchResult;
+import br.com.sistema.github.service.AnalysisBatcher;
+import br.com.sistema.github.service.TokenEstimator;
+
+/**
+ * Montagem dos prompts do /analyze ({@link AnalysisBatcher}) com o orçamento
+ * padrão de 30.000 tokens por lote:
+ * <ul>
+ *   <li>{@code largeFile}: um arquivo de 1 MB, quebrado por linhas em partes;</li>
+ *   <li>{@code manyFiles}: 200 arquivos de ~5 KB empacotados em lotes;</li>
+ *   <li>{@code mixed}: os dois juntos, com algumas falhas de leitura.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisPromptBenchmark {
+
+    private static final int MAX_BATCH_TOKENS = 30_000;
+    private static final int SMALL_FILES = 200;
+    private static final int SMALL_FILE_BYTES = 5 * 1024;
+
+    private AnalysisBatcher batcher;
+    private List<FileFetchResult> largeFile;
+    private List<FileFetchResult> manyFiles;
+    private List<FileFetchResult> mixed;
+
+    @Setup
+    public void setup() {
+        batcher = new AnalysisBatcher(new TokenEstimator(), MAX_BATCH_TOKENS);
+
+        largeFile = List.of(BenchmarkFixtures.fetched("src/main/java/ProcessadorPagamentos.java",
+                BenchmarkFixtures.sourceFile(BenchmarkFixtures.LARGE_FILE_BYTES)));
+
+        String smallSource = BenchmarkFixtures.sourceFile(SMALL_FILE_BYTES);
+        manyFiles = new ArrayList<>(SMALL_FILES);
+        for (int i = 0; i < SMALL_FILES; i++) {
+            manyFiles.add(BenchmarkFixtures.fetched("src/main/java/servico/Classe" + i + ".java", smallSource));
+        }
+
+        mixed = new ArrayList<>(manyFiles);
+        mixed.addAll(largeFile);
+        for (int i = 0; i < 10; i++) {
+            mixed.add(FileFetchResult.failure("src/main/java/Ausente" + i + ".java", "404 Not Found"));
+        }
+    }
+
+    @Benchmark
+    public List<AnalysisBatcher.Batch> largeFile() {
+        return batcher.batch(largeFile);
+    }
+
+    @Benchmark
+    public List<AnalysisBatcher.Batch> manyFiles() {
+        return batcher.batch(manyFiles);
+    }
+
+    @Benchmark
+    public List<AnalysisBatcher.Batch> mixed() {
+        return batcher.batch(mixed);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AnalysisPromptBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
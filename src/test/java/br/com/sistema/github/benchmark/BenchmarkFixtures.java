@@ -0,0 +1,149 @@
+package br.com.sistema.github.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.FileFetchResult;
+import br.com.sistema.github.models.TreeEntry;
+import br.com.sistema.github.models.TreeListing;
+
+/**
+ * Dados sintéticos de tamanho realista para os benchmarks: contas com 1.000
+ * repositórios, monorepos com 50.000 arquivos e arquivos de 1 MB.
+ *
+ * Tudo é determinístico (semente fixa) para que execuções diferentes meçam
+ * exatamente a mesma carga.
+ */
+final class BenchmarkFixtures {
+
+    static final int REPOSITORIES = 1_000;
+    static final int TREE_FILES = 50_000;
+    static final int LARGE_FILE_BYTES = 1 << 20;
+
+    private static final String[] LANGUAGES = {"Java", "TypeScript", "Python", "Go", "Kotlin", null};
+    private static final String[] MODULES = {"api", "core", "dominio", "infra", "web", "batch", "integracao", "comum"};
+    private static final String[] LAYERS = {"controller", "service", "repository", "model", "config", "util", "dto"};
+    private static final String[] EXTENSIONS = {".java", ".java", ".java", ".ts", ".sql", ".yml", ".md"};
+
+    private BenchmarkFixtures() {
+    }
+
+    // ====================================
+    // Repositórios de uma conta grande
+    // ====================================
+    static List<RepoInfo> repositories(int count) {
+        Random random = new Random(42);
+        long now = 1_760_000_000_000L;
+        List<RepoInfo> repos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String module = MODULES[i % MODULES.length];
+            repos.add(RepoInfo.builder()
+                    .name("servico-" + module + "-" + i)
+                    .description(i % 7 == 0 ? null : "Serviço de " + module + " ⭐ com Spring Boot, PostgreSQL e Kafka (" + i + ")")
+                    .url("https://github.com/empresa/servico-" + module + "-" + i)
+                    .language(LANGUAGES[random.nextInt(LANGUAGES.length)])
+                    .stars(random.nextInt(2_000))
+                    .forks(random.nextInt(300))
+                    .openIssues(random.nextInt(60))
+                    .isPrivate(random.nextBoolean())
+                    .updatedAt(new Date(now - random.nextInt(365) * 86_400_000L))
+                    .build());
+        }
+        return repos;
+    }
+
+    // ====================================
+    // Listagem recursiva da Git Trees API (pais antes dos filhos, como o GitHub)
+    // ====================================
+    static TreeListing treeListing(int files) {
+        Random random = new Random(7);
+        TreeMap<String, TreeEntry> entries = new TreeMap<>();
+
+        for (int i = 0; i < files; i++) {
+            String directory = MODULES[i % MODULES.length] + "/src/main/java/br/com/empresa/"
+                    + "pacote" + (i / 400 % 60) + "/" + LAYERS[i % LAYERS.length];
+            String path = directory + "/Arquivo" + i + EXTENSIONS[i % EXTENSIONS.length];
+            entries.put(path, new TreeEntry(path, "blob", sha(random), 200L + random.nextInt(40_000)));
+
+            for (int slash = directory.indexOf('/'); slash >= 0; slash = directory.indexOf('/', slash + 1)) {
+                addDirectory(entries, directory.substring(0, slash), random);
+            }
+            addDirectory(entries, directory, random);
+        }
+
+        return new TreeListing(sha(random), false, List.copyOf(entries.values()));
+    }
+
+    private static void addDirectory(TreeMap<String, TreeEntry> entries, String path, Random random) {
+        if (!entries.containsKey(path)) {
+            entries.put(path, new TreeEntry(path, "tree", sha(random), null));
+        }
+    }
+
+    // ====================================
+    // Um diretório grande (listagem de um nível)
+    // ====================================
+    static List<FileNode> directory(String directoryPath, int count) {
+        Random random = new Random(11);
+        List<FileNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean isDirectory = i % 10 == 0;
+            String name = isDirectory ? "modulo-" + i : "Arquivo" + i + EXTENSIONS[i % EXTENSIONS.length];
+            nodes.add(FileNode.builder()
+                    .name(name)
+                    .path(directoryPath + "/" + name)
+                    .isDirectory(isDirectory)
+                    .size(isDirectory ? null : 200L + random.nextInt(40_000))
+                    .sha(sha(random))
+                    .loaded(!isDirectory)
+                    .build());
+        }
+        return nodes;
+    }
+
+    // ====================================
+    // Código-fonte Java de tamanho arbitrário
+    // ====================================
+    static String sourceFile(int bytes) {
+        StringBuilder source = new StringBuilder(bytes + 256)
+                .append("package br.com.empresa.pagamentos;\n\nimport java.math.BigDecimal;\nimport java.util.List;\n\n")
+                .append("public class ProcessadorPagamentos {\n\n");
+        int method = 0;
+        while (source.length() < bytes) {
+            source.append("    /**\n     * Calcula o total do lote ").append(method).append(" aplicando as taxas vigentes.\n     */\n")
+                    .append("    public BigDecimal calcularLote").append(method).append("(List<BigDecimal> valores, BigDecimal taxa) {\n")
+                    .append("        BigDecimal total = BigDecimal.ZERO;\n")
+                    .append("        for (BigDecimal valor : valores) {\n")
+                    .append("            total = total.add(valor.multiply(taxa));\n")
+                    .append("        }\n")
+                    .append("        return total;\n")
+                    .append("    }\n\n");
+            method++;
+        }
+        source.setLength(bytes - 2);
+        return source.append("\n}").toString();
+    }
+
+    static FileFetchResult fetched(String path, String content) {
+        return FileFetchResult.success(path, FileContent.builder()
+                .path(path)
+                .sha(sha(new Random(path.hashCode())))
+                .size((long) content.length())
+                .encoding("utf-8")
+                .content(content)
+                .build());
+    }
+
+    private static String sha(Random random) {
+        byte[] bytes = new byte[20];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
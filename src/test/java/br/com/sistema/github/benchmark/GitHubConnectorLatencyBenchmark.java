@@ -0,0 +1,162 @@
+package br.com.sistema.github.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+
+import br.com.sistema.github.gateway.JdkHttpGitHubConnector;
+
+/**
+ * Latência por request (p50/p99 no modo SampleTime) com 16 threads concorrentes
+ * contra um servidor HTTP local.
+ *
+ * {@code shared}: um único {@link HttpClient} para a aplicação inteira, com as
+ * conexões reaproveitadas do pool. {@code perCall}: um cliente novo a cada
+ * request, o que equivale a abrir uma conexão por chamada (o custo de quem cria
+ * o cliente sob demanda ou por thread). O servidor local é HTTP/1.1 sem TLS, então
+ * a diferença aqui é só o handshake TCP; contra api.github.com somam-se o TLS
+ * e a multiplexação HTTP/2, e o ganho do pool é maior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class GitHubConnectorLatencyBenchmark {
+
+    private static final byte[] BODY = "{\"login\":\"octocat\",\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({"shared", "perCall"})
+    public String client;
+
+    private HttpServer server;
+    private HttpClient sharedClient;
+    private JdkHttpGitHubConnector sharedConnector;
+    private GitHubConnectorRequest request;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+
+        request = new StubRequest(URI.create(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/user").toURL());
+        sharedClient = newClient();
+        sharedConnector = new JdkHttpGitHubConnector(sharedClient, TIMEOUT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sharedClient.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int send() throws IOException {
+        if ("shared".equals(client)) {
+            return call(sharedConnector);
+        }
+        try (HttpClient perCall = newClient()) {
+            return call(new JdkHttpGitHubConnector(perCall, TIMEOUT));
+        }
+    }
+
+    private int call(JdkHttpGitHubConnector connector) throws IOException {
+        try (GitHubConnectorResponse response = connector.send(request);
+             InputStream body = response.bodyStream()) {
+            return body.readAllBytes().length;
+        }
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GitHubConnectorLatencyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // ====================================
+    // GET /user sem corpo
+    // ====================================
+    private record StubRequest(URL url) implements GitHubConnectorRequest {
+
+        @Override
+        public String method() {
+            return "GET";
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return Map.of("Accept", List.of("application/vnd.github+json"));
+        }
+
+        @Override
+        public String header(String name) {
+            return "Accept".equalsIgnoreCase(name) ? "application/vnd.github+json" : null;
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+}
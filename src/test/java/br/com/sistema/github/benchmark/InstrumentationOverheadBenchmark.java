@@ -0,0 +1,167 @@
+package br.com.sistema.github.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.sistema.github.gateway.MeteredGitHubConnector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Custo da instrumentação no caminho quente.
+ *
+ * {@code connectorBare} x {@code connectorMetered}: o mesmo request passando por
+ * um conector que responde da memória, com e sem o {@link MeteredGitHubConnector}
+ * (modelo do endpoint + lookup do timer + record). {@code cachedTimer} é o custo
+ * por execução de @Tool (timer já criado) e {@code timerLookup} o de cada chamada
+ * ao Gemini. Para comparação: um request real ao GitHub leva dezenas de ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+
+    @Param({"simple", "prometheus"})
+    public String registry;
+
+    private MeterRegistry meterRegistry;
+    private GitHubConnector bare;
+    private GitHubConnector metered;
+    private GitHubConnectorRequest request;
+    private Timer timer;
+
+    @Setup
+    public void setup() throws MalformedURLException {
+        meterRegistry = "prometheus".equals(registry)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new SimpleMeterRegistry();
+
+        request = new StubRequest(URI.create(
+                "https://api.github.com/repos/octo/demo/contents/src/main/java/App.java?ref=main").toURL());
+        bare = stub -> new StubResponse(stub);
+        metered = new MeteredGitHubConnector(bare, meterRegistry);
+
+        timer = Timer.builder("github.tool.calls")
+                .tag("tool", "readFile")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+    }
+
+    @Benchmark
+    public GitHubConnectorResponse connectorBare() throws Exception {
+        return bare.send(request);
+    }
+
+    @Benchmark
+    public GitHubConnectorResponse connectorMetered() throws Exception {
+        return metered.send(request);
+    }
+
+    @Benchmark
+    public void cachedTimer() {
+        long start = System.nanoTime();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void timerLookup() {
+        long start = System.nanoTime();
+        Timer.builder("github.gemini.requests")
+                .tag("model", "gemini-2.5-flash")
+                .tag("mode", "blocking")
+                .tag("outcome", "success")
+                .tag("finish", "stop")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InstrumentationOverheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // ====================================
+    // Request/response em memória (sem rede)
+    // ====================================
+    private record StubRequest(URL url) implements GitHubConnectorRequest {
+
+        @Override
+        public String method() {
+            return "GET";
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return Map.of();
+        }
+
+        @Override
+        public String header(String name) {
+            return null;
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+
+    private static final class StubResponse extends GitHubConnectorResponse {
+
+        private static final byte[] BODY = "{}".getBytes();
+
+        StubResponse(GitHubConnectorRequest request) {
+            super(request, 200, Map.of());
+        }
+
+        @Override
+        public InputStream bodyStream() {
+            return new ByteArrayInputStream(BODY);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.sistema.github.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GitHub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.sistema.github.dtos.response.GitHubRepoResponse;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.service.GitHubDataStructureService;
+import br.com.sistema.github.tools.GithubAssistantTools;
+import br.com.sistema.github.tools.ToolOutputFormatter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compara a listagem de 1.000 repositórios pelo caminho antigo (renderiza texto
+ * com {@code String.format} e parseia de volta) com o caminho tipado do
+ * {@link GitHubDataStructureService}. A rede fica fora da medição: o gateway
+ * devolve sempre a mesma lista em memória.
+ *
+ * Execute com {@code -prof gc} para comparar também a taxa de alocação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryListingBenchmark {
+
+    private static final int REPOSITORIES = 1_000;
+
+    private GithubAssistantTools tools;
+    private GitHubDataStructureService dataService;
+
+    @Setup
+    public void setup() {
+        List<RepoInfo> repos = new ArrayList<>(REPOSITORIES);
+        for (int i = 0; i < REPOSITORIES; i++) {
+            repos.add(RepoInfo.builder()
+                    .name("repositorio-" + i)
+                    .description(i % 7 == 0 ? null : "Serviço Privado ⭐ número " + i + " com Spring Boot")
+                    .url("https://github.com/usuario/repositorio-" + i)
+                    .language(i % 3 == 0 ? "Java" : "TypeScript")
+                    .stars(i % 250)
+                    .forks(i % 40)
+                    .openIssues(i % 12)
+                    .isPrivate(i % 2 == 0)
+                    .build());
+        }
+
+        GitHubGateway gateway = new GitHubGateway(GitHub.offline(), null, null, null) {
+            @Override
+            public List<RepoInfo> listRepositories() {
+                return repos;
+            }
+        };
+
+        // O parser legado só entende o texto decorado original
+        tools = new GithubAssistantTools(gateway, ToolOutputFormatter.of(ToolOutputFormatter.Format.VERBOSE),
+                null, null, null, new SimpleMeterRegistry());
+        dataService = new GitHubDataStructureService(gateway);
+    }
+
+    @Benchmark
+    public GitHubRepoResponse formatThenReparse() {
+        return LegacyRepositoryParser.parse(tools.listRepositories());
+    }
+
+    @Benchmark
+    public GitHubRepoResponse typed() throws Exception {
+        return dataService.getRepositories();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RepositoryListingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // ====================================
+    // Parser de texto usado antes da camada tipada (mantido só para comparação)
+    // ====================================
+    static final class LegacyRepositoryParser {
+
+        static GitHubRepoResponse parse(String response) {
+            List<RepoInfo> repos = new ArrayList<>();
+
+            if (response == null || response.isEmpty() || response.contains("Nenhum")) {
+                return new GitHubRepoResponse(0, repos);
+            }
+
+            RepoInfo.RepoInfoBuilder currentRepo = null;
+
+            for (String line : response.split("\n")) {
+                line = line.trim();
+
+                if (line.startsWith("📦")) {
+                    if (currentRepo != null) {
+                        repos.add(currentRepo.build());
+                    }
+                    currentRepo = RepoInfo.builder().name(line.substring(2).trim());
+                } else if (line.startsWith("Descrição:") && currentRepo != null) {
+                    currentRepo.description(line.substring("Descrição:".length()).trim());
+                } else if (line.startsWith("URL:") && currentRepo != null) {
+                    currentRepo.url(line.substring("URL:".length()).trim());
+                } else if (line.startsWith("Linguagem:") && currentRepo != null) {
+                    currentRepo.language(line.substring("Linguagem:".length()).trim());
+                } else if (line.contains("⭐") && currentRepo != null) {
+                    String[] parts = line.split("\\|");
+                    if (parts.length >= 2) {
+                        String stars = parts[0].replaceAll("[^0-9]", "").trim();
+                        String forks = parts[1].replaceAll("[^0-9]", "").trim();
+                        if (!stars.isEmpty()) {
+                            currentRepo.stars(Integer.parseInt(stars));
+                        }
+                        if (!forks.isEmpty()) {
+                            currentRepo.forks(Integer.parseInt(forks));
+                        }
+                    }
+                } else if ((line.contains("Privado") || line.contains("Público")) && currentRepo != null) {
+                    currentRepo.isPrivate(line.contains("Privado"));
+                }
+            }
+
+            if (currentRepo != null) {
+                repos.add(currentRepo.build());
+            }
+
+            repos.sort(Comparator.comparing(RepoInfo::stars, Comparator.nullsLast(Comparator.reverseOrder())));
+            return new GitHubRepoResponse(repos.size(), repos);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.sistema.github.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kohsuke.github.GitHub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse;
+import br.com.sistema.github.gateway.BlobShaIndex;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.models.TreeListing;
+import br.com.sistema.github.service.RepositoryTreeService;
+
+/**
+ * Árvore completa de um monorepo: montagem da hierarquia a partir da listagem
+ * recursiva (5.000 e 50.000 arquivos) e serialização JSON da resposta, como o
+ * endpoint {@code /tree} faz.
+ *
+ * A listagem vem da memória; cada chamada usa um commit novo para não cair no
+ * cache de árvores do {@link RepositoryTreeService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryTreeBenchmark {
+
+    @Param({"5000", "50000"})
+    public int files;
+
+    private RepositoryTreeService treeService;
+    private GitHubFilesResponse tree;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws IOException {
+        TreeListing listing = BenchmarkFixtures.treeListing(files);
+        AtomicLong commits = new AtomicLong();
+
+        GitHubGateway gateway = new GitHubGateway(GitHub.offline(), null, null, null) {
+            @Override
+            public String getDefaultBranchHead(String repositoryName) {
+                return String.format("%040x", commits.incrementAndGet());
+            }
+
+            @Override
+            public TreeListing getTree(String repositoryName, String sha, boolean recursive) {
+                return listing;
+            }
+        };
+
+        treeService = new RepositoryTreeService(gateway, new BlobShaIndex(60));
+        tree = treeService.getRepositoryTree("monorepo");
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+    }
+
+    @Benchmark
+    public GitHubFilesResponse buildTree() throws IOException {
+        return treeService.getRepositoryTree("monorepo");
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    // Como o MVC escreve: direto no stream de saída, sem buffer do documento inteiro
+    @Benchmark
+    public void serializeStreaming() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), tree);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RepositoryTreeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
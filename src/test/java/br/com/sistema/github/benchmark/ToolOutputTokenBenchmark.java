@@ -0,0 +1,183 @@
+package br.com.sistema.github.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.models.CommitInfo;
+import br.com.sistema.github.models.CommitPage;
+import br.com.sistema.github.models.IssueInfo;
+import br.com.sistema.github.service.TokenEstimator;
+import br.com.sistema.github.tools.ToolOutputFormatter;
+import br.com.sistema.github.tools.ToolOutputFormatter.Format;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
+
+/**
+ * Custo das saídas das tools em cada formato ({@code verbose}, {@code compact}, {@code jsonl}).
+ *
+ * O {@code main} imprime os tokens estimados de cada formato para um conjunto
+ * representativo (100 repositórios, diretório com 200 arquivos, 30 commits,
+ * 20 issues). Com {@code GOOGLE_AI_API_KEY} definida, também mede a latência de
+ * ponta a ponta e os tokens de entrada reportados pelo Gemini ao pedir um resumo
+ * de cada saída. Os {@code @Benchmark} medem só o custo de renderização.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolOutputTokenBenchmark {
+
+    private static final int LIVE_RUNS = 3;
+
+    @Param({"VERBOSE", "COMPACT", "JSONL"})
+    public String format;
+
+    private ToolOutputFormatter formatter;
+    private final Fixtures fixtures = new Fixtures();
+
+    @Setup
+    public void setup() {
+        formatter = ToolOutputFormatter.of(Format.valueOf(format));
+    }
+
+    @Benchmark
+    public String repositories() {
+        return formatter.repositories(fixtures.repos);
+    }
+
+    @Benchmark
+    public String directory() {
+        return formatter.files("plataforma-pagamentos", "src/main/java", fixtures.files);
+    }
+
+    @Benchmark
+    public String commits() {
+        return formatter.commits("plataforma-pagamentos", fixtures.commits);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Fixtures fixtures = new Fixtures();
+        TokenEstimator estimator = new TokenEstimator();
+        String apiKey = System.getenv("GOOGLE_AI_API_KEY");
+        GoogleAiGeminiChatModel model = apiKey == null || apiKey.isBlank() ? null
+                : GoogleAiGeminiChatModel.builder().apiKey(apiKey).modelName("gemini-2.5-flash").temperature(0.0).build();
+
+        System.out.printf("%-8s %-12s %8s %10s %12s %12s%n", "formato", "saida", "chars", "tokens~", "tokens(api)", "latencia ms");
+        for (Format format : Format.values()) {
+            ToolOutputFormatter formatter = ToolOutputFormatter.of(format);
+            report(estimator, model, format, "repos", formatter.repositories(fixtures.repos));
+            report(estimator, model, format, "diretorio", formatter.files("plataforma-pagamentos", "src/main/java", fixtures.files));
+            report(estimator, model, format, "commits", formatter.commits("plataforma-pagamentos", fixtures.commits));
+            report(estimator, model, format, "issues", formatter.issues("plataforma-pagamentos", fixtures.issues));
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(ToolOutputTokenBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static void report(TokenEstimator estimator, GoogleAiGeminiChatModel model, Format format, String kind, String output) {
+        String apiTokens = "-";
+        String latency = "-";
+
+        if (model != null) {
+            long totalNanos = 0;
+            Integer inputTokens = null;
+            for (int i = 0; i < LIVE_RUNS; i++) {
+                long start = System.nanoTime();
+                ChatResponse response = model.chat(ChatRequest.builder()
+                        .messages(UserMessage.from("Resuma em 3 linhas o resultado desta ferramenta:\n\n" + output))
+                        .build());
+                totalNanos += System.nanoTime() - start;
+                inputTokens = response.tokenUsage() != null ? response.tokenUsage().inputTokenCount() : null;
+            }
+            apiTokens = String.valueOf(inputTokens);
+            latency = String.valueOf(TimeUnit.NANOSECONDS.toMillis(totalNanos / LIVE_RUNS));
+        }
+
+        System.out.printf("%-8s %-12s %8d %10d %12s %12s%n", format, kind, output.length(), estimator.estimate(output), apiTokens, latency);
+    }
+
+    // ====================================
+    // Dados representativos (nomes, tamanhos e mensagens realistas)
+    // ====================================
+    static final class Fixtures {
+
+        final List<RepoInfo> repos = new ArrayList<>();
+        final List<FileNode> files = new ArrayList<>();
+        final CommitPage commits;
+        final List<IssueInfo> issues = new ArrayList<>();
+
+        Fixtures() {
+            String[] languages = {"Java", "TypeScript", "Python", "Go", null};
+            for (int i = 0; i < 100; i++) {
+                repos.add(RepoInfo.builder()
+                        .name("servico-" + (i % 2 == 0 ? "pagamentos" : "catalogo") + "-" + i)
+                        .description(i % 5 == 0 ? null : "API REST de " + (i % 2 == 0 ? "pagamentos" : "catálogo") + " com Spring Boot e PostgreSQL")
+                        .url("https://github.com/empresa/servico-" + i)
+                        .language(languages[i % languages.length])
+                        .stars(i * 7 % 300)
+                        .forks(i % 25)
+                        .openIssues(i % 9)
+                        .isPrivate(i % 3 == 0)
+                        .build());
+            }
+
+            for (int i = 0; i < 200; i++) {
+                boolean directory = i % 10 == 0;
+                files.add(FileNode.builder()
+                        .name(directory ? "modulo" + i : "PagamentoService" + i + ".java")
+                        .path("src/main/java/" + (directory ? "modulo" + i : "PagamentoService" + i + ".java"))
+                        .isDirectory(directory)
+                        .size(directory ? null : 1_000L + i * 37)
+                        .sha(String.format("%040x", i))
+                        .loaded(!directory)
+                        .build());
+            }
+
+            List<CommitInfo> commitList = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                commitList.add(CommitInfo.builder()
+                        .sha(String.format("%040x", 0xabc000 + i))
+                        .message("fix: corrige validação do cartão no checkout (#" + (400 + i) + ")\n\nDetalhes do ajuste no fluxo de pagamento.")
+                        .author(i % 2 == 0 ? "Maria Souza" : "João Lima")
+                        .date(new Date(1_735_689_600_000L + i * 3_600_000L))
+                        .build());
+            }
+            commits = new CommitPage(commitList, String.format("%040x", 0xabcfff));
+
+            for (int i = 0; i < 20; i++) {
+                issues.add(IssueInfo.builder()
+                        .number(100 + i)
+                        .title("Erro 500 ao consultar pedido com cupom expirado")
+                        .body("Ao aplicar um cupom expirado no carrinho e finalizar a compra, a API retorna 500 em vez de 422. Passos para reproduzir: ...")
+                        .createdAt(new Date(1_735_689_600_000L + i * 86_400_000L))
+                        .url("https://github.com/empresa/servico-pagamentos/issues/" + (100 + i))
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.sistema.github.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GitHub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse;
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse;
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.service.GitHubDataStructureService;
+import br.com.sistema.github.tools.GithubAssistantTools;
+import br.com.sistema.github.tools.ToolOutputFormatter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Caminho completo das tools até o texto enviado ao modelo, em cada formato de
+ * saída: 1.000 repositórios, um diretório com 5.000 entradas e um arquivo de 1 MB.
+ * Os {@code typed*} medem a camada tipada usada pelos endpoints REST
+ * ({@link GitHubDataStructureService}) sobre os mesmos dados.
+ *
+ * O gateway responde da memória: só CPU e alocação entram na medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolRenderingBenchmark {
+
+    private static final int DIRECTORY_ENTRIES = 5_000;
+    private static final String DIRECTORY = "src/main/java/br/com/empresa";
+
+    @Param({"COMPACT", "JSONL", "VERBOSE"})
+    public String format;
+
+    private GithubAssistantTools tools;
+    private GitHubDataStructureService dataService;
+
+    @Setup
+    public void setup() {
+        List<RepoInfo> repos = BenchmarkFixtures.repositories(BenchmarkFixtures.REPOSITORIES);
+        List<FileNode> directory = BenchmarkFixtures.directory(DIRECTORY, DIRECTORY_ENTRIES);
+        String source = BenchmarkFixtures.sourceFile(BenchmarkFixtures.LARGE_FILE_BYTES);
+
+        GitHubGateway gateway = new GitHubGateway(GitHub.offline(), null, null, null) {
+            @Override
+            public List<RepoInfo> listRepositories() {
+                return repos;
+            }
+
+            @Override
+            public List<FileNode> listDirectory(String repositoryName, String directoryPath) {
+                return directory;
+            }
+
+            @Override
+            public FileContent readFile(String repositoryName, String filePath) {
+                return FileContent.builder()
+                        .path(filePath)
+                        .sha("3f2a9c1e8b7d6c5b4a3f2e1d0c9b8a7f6e5d4c3b")
+                        .size((long) source.length())
+                        .encoding("utf-8")
+                        .content(source)
+                        .build();
+            }
+        };
+
+        tools = new GithubAssistantTools(gateway, ToolOutputFormatter.of(ToolOutputFormatter.Format.valueOf(format)),
+                null, null, null, new SimpleMeterRegistry());
+        dataService = new GitHubDataStructureService(gateway);
+    }
+
+    @Benchmark
+    public String listRepositories() {
+        return tools.listRepositories();
+    }
+
+    @Benchmark
+    public String listDirectory() {
+        return tools.listRepositoryFilesInDirectory("monorepo", DIRECTORY);
+    }
+
+    @Benchmark
+    public String readLargeFile() {
+        return tools.readFile("monorepo", DIRECTORY + "/ProcessadorPagamentos.java");
+    }
+
+    @Benchmark
+    public GitHubRepoResponse typedRepositories() throws Exception {
+        return dataService.getRepositories();
+    }
+
+    @Benchmark
+    public GitHubFilesResponse typedDirectory() throws Exception {
+        return dataService.getRepositoryFilesInDirectory("monorepo", DIRECTORY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ToolRenderingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.sistema.github.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.sistema.github.gateway.GitHubClientPool;
+import br.com.sistema.github.gateway.GitHubRateLimiter;
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+class TenantFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GitHubClientPool pool = new GitHubClientPool(TenantFilterTests::alice,
+            new GitHubRateLimiter(10, 20, 500, 1, 60, meterRegistry), 10, 30, meterRegistry);
+    private final TenantFilter filter = new TenantFilter(pool);
+
+    TenantFilterTests() {
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "requireToken", true);
+    }
+
+    @Test
+    void requestWithoutTokenIsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/github/repositories"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void requestRunsAsTokenOwnerAndContextIsClearedAfterwards() throws Exception {
+        AtomicReference<GitHubTenant> during = new AtomicReference<>();
+
+        filter.doFilter(request("token-a"), new MockHttpServletResponse(),
+                (req, res) -> during.set(TenantContext.current()));
+
+        assertThat(during.get().username()).isEqualTo("alice");
+        assertThat(TenantContext.current()).isNull();
+    }
+
+    @Test
+    void contextIsClearedWhenTheRequestFails() {
+        assertThatThrownBy(() -> filter.doFilter(request("token-a"), new MockHttpServletResponse(), (req, res) -> {
+            throw new ServletException("falha no controller");
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(TenantContext.current()).isNull();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/github/chat");
+        request.addHeader(TenantFilter.TOKEN_HEADER, token);
+        return request;
+    }
+
+    // GET /user de qualquer token devolve "alice"
+    private static GitHubConnectorResponse alice(GitHubConnectorRequest request) {
+        byte[] body = "{\"login\":\"alice\",\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        return new GitHubConnectorResponse(request, 200, Map.of("Content-Type", List.of("application/json"))) {
+            @Override
+            public InputStream bodyStream() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BlobStoreTests {
+
+    // git hash-object de "hello\n"
+    private static final String HELLO_SHA = "ce013625030ba8dba906f756967f9e9ca394464a";
+    private static final byte[] HELLO = "hello\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    private final BlobStore store = new BlobStore();
+
+    @BeforeEach
+    void load() throws IOException {
+        ReflectionTestUtils.setField(store, "directory", directory);
+        ReflectionTestUtils.setField(store, "maxBytes", 1L << 20);
+        store.load();
+    }
+
+    @Test
+    void roundTripsBlobAndSurvivesReload() throws IOException {
+        store.write(HELLO_SHA, HELLO);
+
+        assertThat(store.read(HELLO_SHA)).contains("hello\n");
+        assertThat(Files.exists(directory.resolve("ce").resolve(HELLO_SHA.substring(2)))).isTrue();
+
+        BlobStore reloaded = new BlobStore();
+        ReflectionTestUtils.setField(reloaded, "directory", directory);
+        ReflectionTestUtils.setField(reloaded, "maxBytes", 1L << 20);
+        reloaded.load();
+        assertThat(reloaded.read(HELLO_SHA)).contains("hello\n");
+    }
+
+    @Test
+    void contentThatDoesNotMatchTheShaIsNotStored() {
+        store.write(HELLO_SHA, "outro conteúdo\n".getBytes(StandardCharsets.UTF_8));
+        store.write("not-a-sha", HELLO);
+
+        assertThat(store.contains(HELLO_SHA)).isFalse();
+        assertThat(store.read(HELLO_SHA)).isEmpty();
+        assertThat(store.bytes()).isZero();
+    }
+
+    @Test
+    void writeFailureIsLoggedNotThrown() throws IOException {
+        // Arquivo no lugar do diretório "ce/": a gravação falha no disco
+        Files.writeString(directory.resolve("ce"), "bloqueio");
+
+        assertThatCode(() -> store.write(HELLO_SHA, HELLO)).doesNotThrowAnyException();
+        assertThat(store.contains(HELLO_SHA)).isFalse();
+        assertThat(store.read(HELLO_SHA)).isEmpty();
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Exercita o cache contra um servidor HTTP local que imita a GitHub API
+ * (ETag + 304), usando o cliente github-api de verdade.
+ */
+class CachingGitHubConnectorTests {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> conditionalHeaders = new CopyOnWriteArrayList<>();
+
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repos/", this::handleRepository);
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void freshEntryIsServedWithoutNetwork() throws IOException {
+        GitHub github = client(new GitHubHttpCache(Duration.ofMinutes(1), 100, 1 << 20, meterRegistry, clock));
+
+        github.getRepository("octo/demo");
+        String name = github.getRepository("octo/demo").getName();
+
+        assertThat(name).isEqualTo("demo");
+        assertThat(requests).hasValue(1);
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWithConditionalRequest() throws IOException {
+        GitHub github = client(new GitHubHttpCache(Duration.ofMinutes(1), 100, 1 << 20, meterRegistry, clock));
+
+        github.getRepository("octo/demo");
+        clock.advance(Duration.ofMinutes(2));
+        String name = github.getRepository("octo/demo").getName();
+
+        assertThat(name).isEqualTo("demo");
+        assertThat(requests).hasValue(2);
+        assertThat(conditionalHeaders).containsExactly(ETAG);
+        assertThat(count("revalidated")).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() throws IOException {
+        GitHubHttpCache cache = new GitHubHttpCache(Duration.ofMinutes(1), 1, 1 << 20, meterRegistry, clock);
+        GitHub github = client(cache);
+
+        github.getRepository("octo/demo");
+        github.getRepository("octo/other");
+        github.getRepository("octo/demo");
+
+        assertThat(requests).hasValue(3);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("github.http.cache.evictions").counter().count()).isEqualTo(2);
+    }
+
+    private GitHub client(GitHubHttpCache cache) throws IOException {
+        return new GitHubBuilder()
+                .withEndpoint("http://127.0.0.1:" + server.getAddress().getPort())
+                .withConnector(new CachingGitHubConnector(GitHubConnector.DEFAULT, cache))
+                .build();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("github.http.cache.requests").tag("result", result).counter().count();
+    }
+
+    private void handleRepository(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+
+        if (ETAG.equals(ifNoneMatch)) {
+            conditionalHeaders.add(ifNoneMatch);
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        String[] segments = exchange.getRequestURI().getPath().split("/");
+        byte[] body = String.format("{\"name\":\"%s\",\"full_name\":\"%s/%s\"}", segments[3], segments[2], segments[3])
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-22T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
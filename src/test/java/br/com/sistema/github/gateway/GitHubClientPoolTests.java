@@ -0,0 +1,149 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Isolamento entre usuários: cada token tem o seu cliente, as suas chaves de cache
+ * e a sua cota, e nada disso vaza para o usuário padrão.
+ */
+class GitHubClientPoolTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Map<String, String> LOGINS = Map.of("token-a", "alice", "token-b", "bob");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private final GitHubRateLimiter rateLimiter = new GitHubRateLimiter(10, 20, 500, Duration.ofSeconds(1),
+            Duration.ofSeconds(60), meterRegistry, clock);
+    private final AtomicInteger userCalls = new AtomicInteger();
+
+    @Test
+    void twoTokensGetDistinctClientsAndCacheKeys() throws Exception {
+        GitHubClientPool pool = pool(10);
+
+        GitHubTenant alice = pool.resolve("token-a");
+        GitHubTenant bob = pool.resolve("token-b");
+
+        assertThat(alice.username()).isEqualTo("alice");
+        assertThat(bob.username()).isEqualTo("bob");
+        assertThat(alice.id()).isNotEqualTo(bob.id());
+        assertThat(pool.client(alice)).isNotSameAs(pool.client(bob));
+
+        // Mesmo token: mesmo usuário, sem novo GET /user
+        assertThat(pool.resolve("token-a")).isEqualTo(alice);
+        assertThat(userCalls).hasValue(2);
+
+        String aliceKey = TenantContext.callAs(alice, () -> TenantContext.scope("demo"));
+        String bobKey = TenantContext.callAs(bob, () -> TenantContext.scope("demo"));
+        assertThat(aliceKey).isNotEqualTo(bobKey);
+
+        // Um cache de verdade: o que alice confirma bob não enxerga
+        BlobShaIndex blobShaIndex = new BlobShaIndex(60);
+        TenantContext.callAs(alice, () -> {
+            blobShaIndex.confirm("demo", "c0ffee", Map.of("App.java", "aaa"));
+            return null;
+        });
+        assertThat(TenantContext.callAs(alice, () -> blobShaIndex.lookup("demo", "App.java"))).isEqualTo("aaa");
+        assertThat(TenantContext.callAs(bob, () -> blobShaIndex.lookup("demo", "App.java"))).isNull();
+        assertThat(blobShaIndex.lookup("demo", "App.java")).isNull();
+    }
+
+    @Test
+    void defaultTenantKeysArePrefixed() throws Exception {
+        GitHubTenant alice = pool(10).resolve("token-a");
+        String aliceKey = TenantContext.callAs(alice, () -> TenantContext.scope("conversa-1"));
+
+        assertThat(TenantContext.current()).isNull();
+        assertThat(TenantContext.scope("demo")).isEqualTo(TenantContext.DEFAULT + ":demo");
+        // Id montado pelo cliente com o fingerprint de outro usuário não cai na chave dele
+        assertThat(TenantContext.scope(alice.id() + ":conversa-1")).isNotEqualTo(aliceKey);
+    }
+
+    @Test
+    void lruEvictionReleasesTheEvictedClient() throws Exception {
+        GitHubClientPool pool = pool(1);
+        GitHubTenant alice = pool.resolve("token-a");
+        GitHub aliceClient = pool.client(alice);
+
+        // Cota de alice esgotada antes de sair do pool
+        Map<String, String> exhausted = Map.of(
+                "X-RateLimit-Remaining", "0",
+                "X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(600).getEpochSecond()));
+        rateLimiter.onResponse(alice.id(), "core", 200, exhausted::get, null);
+        assertThatThrownBy(() -> rateLimiter.acquire(alice.id(), "core", GitHubRequestPriority.INTERACTIVE))
+                .isInstanceOf(IOException.class);
+
+        pool.resolve("token-b");
+
+        assertThat(pool.size()).isEqualTo(1);
+        assertThat(pool.tenantsOf("alice")).isEmpty();
+        assertThat(meterRegistry.get("github.tenants.evictions").tag("reason", "lru").counter().count()).isEqualTo(1);
+        // Partição de rate limit descartada e cliente recriado do zero se alice voltar
+        assertThatCode(() -> rateLimiter.acquire(alice.id(), "core", GitHubRequestPriority.INTERACTIVE))
+                .doesNotThrowAnyException();
+        assertThat(pool.client(alice)).isNotSameAs(aliceClient);
+    }
+
+    private GitHubClientPool pool(int maxClients) {
+        return new GitHubClientPool(new UserConnector(), rateLimiter, maxClients, Duration.ofMinutes(30), meterRegistry, clock);
+    }
+
+    // ====================================
+    // GET /user responde o login do token do header Authorization
+    // ====================================
+    private final class UserConnector implements GitHubConnector {
+
+        @Override
+        public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+            String authorization = request.header("Authorization");
+            String token = authorization == null ? "" : authorization.substring(authorization.indexOf(' ') + 1);
+            String login = LOGINS.get(token);
+            if (!request.url().getPath().equals("/user") || login == null) {
+                return new JsonResponse(request, 401, "{\"message\":\"Bad credentials\"}");
+            }
+            userCalls.incrementAndGet();
+            return new JsonResponse(request, 200, "{\"login\":\"" + login + "\",\"id\":1}");
+        }
+    }
+
+    private static final class JsonResponse extends GitHubConnectorResponse {
+
+        private final byte[] body;
+
+        JsonResponse(GitHubConnectorRequest request, int statusCode, String body) {
+            super(request, statusCode, Map.of("Content-Type", List.of("application/json")));
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public InputStream bodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
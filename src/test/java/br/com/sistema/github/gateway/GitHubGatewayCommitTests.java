@@ -0,0 +1,187 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.sistema.github.models.CommitResult;
+import br.com.sistema.github.models.FileChange;
+import br.com.sistema.github.models.FileChange.Operation;
+
+/**
+ * Commit em lote pela Git Data API contra um conector que imita o GitHub:
+ * sequência exata de chamadas (ref, árvores, blobs, árvore nova, commit, ref)
+ * e recusa antes de gravar qualquer coisa.
+ */
+class GitHubGatewayCommitTests {
+
+    private static final String REPO = "/repos/octocat/demo";
+    private static final String API = "https://api.github.com" + REPO;
+
+    @TempDir
+    Path blobDirectory;
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final List<String> treeBodies = new CopyOnWriteArrayList<>();
+    private volatile int refUpdateStatus = 200;
+
+    private GitHubGateway gateway;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BlobStore blobStore = new BlobStore();
+        ReflectionTestUtils.setField(blobStore, "directory", blobDirectory);
+        ReflectionTestUtils.setField(blobStore, "maxBytes", 1L << 20);
+
+        GitHub github = new GitHubBuilder().withConnector(new FakeGitHub()).withOAuthToken("token").build();
+        gateway = new GitHubGateway(github, null, blobStore, new BlobShaIndex(60));
+        ReflectionTestUtils.setField(gateway, "githubToken", "token");
+        ReflectionTestUtils.setField(gateway, "githubUsername", "octocat");
+        ReflectionTestUtils.setField(gateway, "maxParallelUploads", 2);
+        // O github-api confere o login do token na primeira chamada: fora da sequência do commit
+        github.getMyself();
+        calls.clear();
+    }
+
+    @Test
+    void createsOneTreeOneCommitAndMovesTheBranch() throws IOException {
+        CommitResult result = gateway.commitFiles("demo", null, "lote", List.of(
+                new FileChange(Operation.CREATE, "src/New.java", "class New {}"),
+                new FileChange(Operation.UPDATE, "/README.md", "# demo"),
+                new FileChange(Operation.DELETE, "src/App.java", null)));
+
+        assertThat(result.sha()).isEqualTo("c1");
+        assertThat(result.branch()).isEqualTo("main");
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.deleted()).isEqualTo(1);
+
+        // Dois blobs em paralelo (ordem livre), depois árvore, commit e ref, nesta ordem
+        assertThat(calls.stream().filter(call -> call.equals("POST " + REPO + "/git/blobs"))).hasSize(2);
+        assertThat(calls.stream().filter(call -> !call.endsWith("/git/blobs")).toList()).containsExactly(
+                "GET " + REPO,
+                "GET " + REPO + "/git/refs/heads/main",
+                "GET " + REPO + "/git/trees/c0",
+                "GET " + REPO + "/git/trees/t-src",
+                "POST " + REPO + "/git/trees",
+                "POST " + REPO + "/git/commits",
+                "PATCH " + REPO + "/git/refs/heads/main");
+        assertThat(calls.indexOf("POST " + REPO + "/git/trees")).isEqualTo(calls.size() - 3);
+
+        assertThat(treeBodies).singleElement().satisfies(body -> assertThat(body)
+                .contains("\"base_tree\":\"t0\"", "src/New.java", "README.md", "src/App.java"));
+    }
+
+    @Test
+    void createOfExistingFileIsRejectedBeforeAnyWrite() {
+        assertThatThrownBy(() -> gateway.commitFiles("demo", "main", "lote", List.of(
+                new FileChange(Operation.CREATE, "README.md", "# outro"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("README.md");
+
+        assertThat(calls).noneMatch(call -> !call.startsWith("GET "));
+    }
+
+    @Test
+    void updateOrDeleteOfMissingFileIsRejectedBeforeAnyWrite() {
+        assertThatThrownBy(() -> gateway.commitFiles("demo", "main", "lote", List.of(
+                new FileChange(Operation.UPDATE, "src/Missing.java", "x"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("src/Missing.java");
+        assertThatThrownBy(() -> gateway.commitFiles("demo", "main", "lote", List.of(
+                new FileChange(Operation.DELETE, "docs/guia.md", null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("docs/guia.md");
+
+        assertThat(calls).noneMatch(call -> !call.startsWith("GET "));
+    }
+
+    @Test
+    void branchMovedDuringTheCommitIsAConflict() {
+        refUpdateStatus = 422;
+
+        assertThatThrownBy(() -> gateway.commitFiles("demo", "main", "lote", List.of(
+                new FileChange(Operation.UPDATE, "README.md", "# demo"))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("recebeu outro commit");
+
+        assertThat(calls).last().isEqualTo("PATCH " + REPO + "/git/refs/heads/main");
+    }
+
+    // ====================================
+    // Repositório "demo": README.md e src/App.java no commit c0 (árvore t0)
+    // ====================================
+    private final class FakeGitHub implements GitHubConnector {
+
+        @Override
+        public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+            String path = request.url().getPath();
+            String call = request.method() + " " + path;
+            calls.add(call);
+
+            return switch (call) {
+                case "GET /user" -> json(request, 200, "{\"login\":\"octocat\",\"id\":1}");
+                case "GET " + REPO -> json(request, 200, """
+                        {"name":"demo","full_name":"octocat/demo","default_branch":"main","owner":{"login":"octocat"}}""");
+                case "GET " + REPO + "/git/refs/heads/main" -> json(request, 200, ref("c0"));
+                case "GET " + REPO + "/git/trees/c0" -> json(request, 200, """
+                        {"sha":"t0","truncated":false,"tree":[
+                          {"path":"README.md","mode":"100644","type":"blob","sha":"b-readme"},
+                          {"path":"src","mode":"040000","type":"tree","sha":"t-src"}]}""");
+                case "GET " + REPO + "/git/trees/t-src" -> json(request, 200, """
+                        {"sha":"t-src","truncated":false,"tree":[
+                          {"path":"App.java","mode":"100644","type":"blob","sha":"b-app"}]}""");
+                case "POST " + REPO + "/git/blobs" -> json(request, 201, "{\"sha\":\"b-new-" + calls.size() + "\"}");
+                case "POST " + REPO + "/git/trees" -> {
+                    try (InputStream in = request.body()) {
+                        treeBodies.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                    yield json(request, 201, "{\"sha\":\"t1\",\"tree\":[]}");
+                }
+                case "POST " + REPO + "/git/commits" -> json(request, 201, """
+                        {"sha":"c1","html_url":"https://github.com/octocat/demo/commit/c1","message":"lote"}""");
+                case "PATCH " + REPO + "/git/refs/heads/main" -> refUpdateStatus == 200
+                        ? json(request, 200, ref("c1"))
+                        : json(request, refUpdateStatus, "{\"message\":\"Update is not a fast forward\"}");
+                default -> json(request, 404, "{\"message\":\"Not Found\"}");
+            };
+        }
+
+        private static String ref(String sha) {
+            return String.format("""
+                    {"ref":"refs/heads/main","url":"%s/git/refs/heads/main","object":{"type":"commit","sha":"%s"}}""", API, sha);
+        }
+    }
+
+    private static GitHubConnectorResponse json(GitHubConnectorRequest request, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new GitHubConnectorResponse(request, status, Map.of("Content-Type", List.of("application/json"))) {
+            @Override
+            public InputStream bodyStream() {
+                return new ByteArrayInputStream(bytes);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
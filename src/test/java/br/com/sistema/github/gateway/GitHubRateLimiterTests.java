@@ -0,0 +1,59 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A cota do GitHub é por token: um usuário que esgota a dele não pode travar os outros.
+ */
+class GitHubRateLimiterTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final GitHubRateLimiter limiter = new GitHubRateLimiter(10, 20, 500, Duration.ofSeconds(1),
+            Duration.ofSeconds(60), new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void exhaustedQuotaOfOneTenantDoesNotBlockAnother() throws IOException {
+        limiter.acquire("tenant-a", "core", GitHubRequestPriority.INTERACTIVE);
+        limiter.acquire("tenant-b", "core", GitHubRequestPriority.INTERACTIVE);
+
+        Map<String, String> exhausted = Map.of(
+                "X-RateLimit-Limit", "5000",
+                "X-RateLimit-Remaining", "0",
+                "X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(600).getEpochSecond()));
+        limiter.onResponse("tenant-a", "core", 403, exhausted::get, "API rate limit exceeded");
+
+        assertThatThrownBy(() -> limiter.acquire("tenant-a", "core", GitHubRequestPriority.INTERACTIVE))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("core");
+        assertThatCode(() -> limiter.acquire("tenant-b", "core", GitHubRequestPriority.INTERACTIVE))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> limiter.acquire(TenantContext.DEFAULT, "core", GitHubRequestPriority.INTERACTIVE))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void forgottenTenantStartsWithFreshQuota() throws IOException {
+        Map<String, String> exhausted = Map.of(
+                "X-RateLimit-Remaining", "0",
+                "X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(600).getEpochSecond()));
+        limiter.onResponse("tenant-a", "core", 200, exhausted::get, null);
+
+        limiter.forget("tenant-a");
+
+        assertThatCode(() -> limiter.acquire("tenant-a", "core", GitHubRequestPriority.INTERACTIVE))
+                .doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * O conector pede gzip ao GitHub: o corpo tem que chegar descomprimido ao parser JSON.
+ */
+class JdkHttpGitHubConnectorTests {
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repos/", this::handleRepository);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void gzipBodyIsDecodedBeforeParsing() throws IOException {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        GitHub github = new GitHubBuilder()
+                .withEndpoint("http://127.0.0.1:" + server.getAddress().getPort())
+                .withConnector(new JdkHttpGitHubConnector(httpClient, Duration.ofSeconds(5)))
+                .build();
+
+        assertThat(github.getRepository("octo/demo").getName()).isEqualTo("demo");
+    }
+
+    private void handleRepository(HttpExchange exchange) throws IOException {
+        byte[] json = "{\"name\":\"demo\",\"full_name\":\"octo/demo\"}".getBytes(StandardCharsets.UTF_8);
+        boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (gzip) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * O endpoint vira modelo: owner, repo, SHAs e caminhos não viram tags.
+ */
+class MeteredGitHubConnectorTests {
+
+    @Test
+    void repositoryPathsKeepOnlyTheResource() {
+        assertThat(MeteredGitHubConnector.endpointOf("/repos/octo/demo")).isEqualTo("/repos/{owner}/{repo}");
+        assertThat(MeteredGitHubConnector.endpointOf("/repos/octo/demo/commits")).isEqualTo("/repos/{owner}/{repo}/commits");
+        assertThat(MeteredGitHubConnector.endpointOf("/repos/octo/demo/contents/src/App.java"))
+                .isEqualTo("/repos/{owner}/{repo}/contents/*");
+        assertThat(MeteredGitHubConnector.endpointOf("/repos/octo/demo/git/trees/abc123"))
+                .isEqualTo("/repos/{owner}/{repo}/git/trees/*");
+    }
+
+    @Test
+    void otherPathsAreTemplatedByFirstSegments() {
+        assertThat(MeteredGitHubConnector.endpointOf("/users/octo/repos")).isEqualTo("/users/{user}/repos");
+        assertThat(MeteredGitHubConnector.endpointOf("/user/repos")).isEqualTo("/user/repos");
+        assertThat(MeteredGitHubConnector.endpointOf("/search/repositories")).isEqualTo("/search/repositories");
+        assertThat(MeteredGitHubConnector.endpointOf("/rate_limit")).isEqualTo("/rate_limit");
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.sistema.github.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Simula a carga de um dashboard: 100 requests idênticos ao mesmo tempo
+ * devem resultar em uma única chamada ao upstream.
+ */
+class SingleFlightTests {
+
+    private static final int CALLERS = 100;
+
+    @Test
+    void concurrentIdenticalCallsShareOneUpstreamCall() throws Exception {
+        SingleFlight<String, List<String>> flight = new SingleFlight<>();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        List<Future<List<String>>> results = runConcurrently(() -> flight.execute("repos", () -> {
+            upstreamCalls.incrementAndGet();
+            awaitSharedCallers(flight, CALLERS - 1);
+            return List.of("repo-a", "repo-b");
+        }));
+
+        for (Future<List<String>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).containsExactly("repo-a", "repo-b");
+        }
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(flight.sharedCount()).isEqualTo(CALLERS - 1);
+        assertThat(flight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void failureIsSharedAndNextCallStartsFresh() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        List<Future<String>> results = runConcurrently(() -> flight.execute("file", () -> {
+            upstreamCalls.incrementAndGet();
+            awaitSharedCallers(flight, CALLERS - 1);
+            throw new IOException("404");
+        }));
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IOException.class);
+        }
+        assertThat(upstreamCalls).hasValue(1);
+
+        // Terminada a chamada, nada fica guardado
+        assertThat(flight.execute("file", () -> "ok")).isEqualTo("ok");
+    }
+
+    private static <T> List<Future<T>> runConcurrently(java.util.concurrent.Callable<T> call) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>(CALLERS);
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            return futures;
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Segura o upstream até todos os outros chamadores estarem esperando por ele
+    private static void awaitSharedCallers(SingleFlight<?, ?> flight, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.sharedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
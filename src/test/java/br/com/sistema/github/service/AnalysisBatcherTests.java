@@ -0,0 +1,49 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.FileFetchResult;
+
+class AnalysisBatcherTests {
+
+    private final AnalysisBatcher batcher = new AnalysisBatcher(new TokenEstimator(), 100);
+
+    @Test
+    void batchesCarryThePathsOfTheirFiles() {
+        List<AnalysisBatcher.Batch> batches = batcher.batch(List.of(
+                file("a.txt", "x".repeat(200)),
+                file("b.txt", "y".repeat(200)),
+                FileFetchResult.failure("c.txt", "404")));
+
+        assertThat(batches).extracting(AnalysisBatcher.Batch::paths)
+                .containsExactly(List.of("a.txt"), List.of("b.txt", "c.txt"));
+    }
+
+    @Test
+    void fileHeaderInsideContentIsNotTakenAsAPath() {
+        List<AnalysisBatcher.Batch> batches = batcher.batch(List.of(
+                file("Parser.java", "// exemplo\nArquivo: fantasma.java\n")));
+
+        assertThat(batches).singleElement().extracting(AnalysisBatcher.Batch::paths)
+                .isEqualTo(List.of("Parser.java"));
+    }
+
+    @Test
+    void splitFileKeepsOnePathAcrossItsParts() {
+        String content = "linha de código\n".repeat(100);
+
+        List<AnalysisBatcher.Batch> batches = batcher.batch(List.of(file("Big.java", content)));
+
+        assertThat(batches).hasSizeGreaterThan(1)
+                .allSatisfy(batch -> assertThat(batch.paths()).containsExactly("Big.java"));
+    }
+
+    private static FileFetchResult file(String path, String content) {
+        return FileFetchResult.success(path, FileContent.builder().path(path).content(content).build());
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.sistema.github.dtos.request.AnalyzeGitHubFilesRequest;
+import br.com.sistema.github.models.AnalysisJob;
+import br.com.sistema.github.models.AnalysisJob.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Fila persistente (retomada após restart), progresso e cancelamento dos jobs.
+ */
+class AnalysisJobServiceTests {
+
+    private static final AnalyzeGitHubFilesRequest REQUEST =
+            new AnalyzeGitHubFilesRequest("repo", List.of("a.java", "b.java"), "geral");
+
+    @TempDir
+    Path dir;
+
+    private AnalysisJobService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void resumesInterruptedJobsFromDisk() throws Exception {
+        AnalysisJobStore store = new AnalysisJobStore(dir.toString());
+        Instant now = Instant.now();
+        store.save(AnalysisJob.builder()
+                .id("interrompido")
+                .request(REQUEST)
+                .status(Status.RUNNING)
+                .attempts(1)
+                .createdAt(now)
+                .startedAt(now)
+                .deadline(now.plusSeconds(60))
+                .build());
+
+        service = newService(store, new GitHubAnalysisService(null, null, null, null, null) {
+            @Override
+            public String analyze(AnalyzeGitHubFilesRequest request, AnalysisProgress progress) {
+                progress.phase(AnalysisProgress.Phase.FETCHING, 2);
+                progress.advanced(true);
+                progress.advanced(false);
+                progress.checkpoint();
+                return "análise";
+            }
+        });
+        service.resume();
+
+        AnalysisJob job = awaitFinished("interrompido");
+        assertThat(job.status()).isEqualTo(Status.SUCCEEDED);
+        assertThat(job.result()).isEqualTo("análise");
+        assertThat(job.attempts()).isEqualTo(2);
+        assertThat(job.filesFetched()).isEqualTo(1);
+        assertThat(job.filesFailed()).isEqualTo(1);
+
+        // O estado final também foi gravado (a gravação vem logo após a mudança em memória)
+        assertThat(awaitStored("interrompido").status()).isEqualTo(Status.SUCCEEDED);
+    }
+
+    @Test
+    void cancelInterruptsRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        service = newService(new AnalysisJobStore(dir.toString()), new GitHubAnalysisService(null, null, null, null, null) {
+            @Override
+            public String analyze(AnalyzeGitHubFilesRequest request, AnalysisProgress progress) {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                progress.checkpoint();
+                return "não deveria terminar";
+            }
+        });
+
+        AnalysisJob job = service.submit(REQUEST, null).orElseThrow();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.cancel(job.id())).get()
+                .satisfies(cancelled -> assertThat(cancelled.status()).isEqualTo(Status.CANCELLED));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.get(job.id()).orElseThrow().result()).isNull();
+    }
+
+    private AnalysisJobService newService(AnalysisJobStore store, GitHubAnalysisService analysisService) {
+        return new AnalysisJobService(analysisService, store, 1, 1, 3, Duration.ofMinutes(5), Duration.ofMinutes(10),
+                Duration.ofMinutes(10), 1000, new SimpleMeterRegistry(), Clock.systemUTC());
+    }
+
+    private AnalysisJob awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            AnalysisJob job = service.get(id).orElseThrow();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " não terminou");
+    }
+
+    private AnalysisJob awaitStored(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            AnalysisJob job = new AnalysisJobStore(dir.toString()).loadAll().stream()
+                    .filter(stored -> stored.id().equals(id))
+                    .findFirst()
+                    .orElseThrow();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " não foi gravado como terminado");
+    }
+}
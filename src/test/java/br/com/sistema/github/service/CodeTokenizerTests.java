@@ -0,0 +1,27 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CodeTokenizerTests {
+
+    @Test
+    void splitsCamelCaseAndKeepsWholeIdentifier() {
+        assertThat(CodeTokenizer.tokenize("user.getUserById(id)"))
+                .containsExactly("user", "getuserbyid", "get", "user", "by", "id", "id");
+    }
+
+    @Test
+    void splitsSnakeCaseAndAcronyms() {
+        assertThat(CodeTokenizer.tokenize("MAX_RETRY_COUNT = new HTTPServer2()"))
+                .containsExactly("max_retry_count", "max", "retry", "count", "new",
+                        "httpserver2", "http", "server", "2");
+    }
+
+    @Test
+    void ignoresPunctuationSingleCharsAndEdgeUnderscores() {
+        assertThat(CodeTokenizer.tokenize("def __init__(self, x): return x + 1;"))
+                .containsExactly("def", "init", "self", "return");
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.memory.chat.TokenWindowChatMemory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Limites da memória de chat: janela de tokens por conversa, expiração por
+ * inatividade, número máximo de conversas e total de tokens (LRU).
+ */
+class ConversationMemoryStoreTests {
+
+    // 35 caracteres = 10 tokens + 4 por mensagem
+    private static final int TOKENS_PER_MESSAGE = 14;
+
+    private final TokenEstimator tokenEstimator = new TokenEstimator();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final List<Object> evicted = new ArrayList<>();
+
+    @Test
+    void conversationWindowKeepsOnlyTheNewestMessagesWithinItsTokenCap() {
+        ConversationMemoryStore store = store(100, 1_000_000);
+        ChatMemory memory = TokenWindowChatMemory.builder()
+                .id("chat-1")
+                .maxTokens(3 * TOKENS_PER_MESSAGE, tokenEstimator)
+                .chatMemoryStore(store)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            memory.add(UserMessage.from(message(i)));
+        }
+
+        assertThat(texts(store.getMessages("chat-1"))).containsExactly(message(2), message(3), message(4));
+        assertThat(store.tokens()).isEqualTo(3 * TOKENS_PER_MESSAGE);
+    }
+
+    @Test
+    void idleConversationsExpireButRecentlyReadOnesStay() {
+        ConversationMemoryStore store = store(100, 1_000_000);
+        store.updateMessages("idle", List.of(UserMessage.from(message(0))));
+        store.updateMessages("active", List.of(UserMessage.from(message(1))));
+
+        clock.advance(Duration.ofMinutes(20));
+        store.getMessages("active");
+        clock.advance(Duration.ofMinutes(15));
+        store.evictIdle();
+
+        assertThat(evicted).containsExactly("idle");
+        assertThat(store.getMessages("idle")).isEmpty();
+        assertThat(store.getMessages("active")).hasSize(1);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.tokens()).isEqualTo(TOKENS_PER_MESSAGE);
+        assertThat(meterRegistry.counter("github.chat.memory.evictions").count()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedConversationIsEvictedOverMaxConversations() {
+        ConversationMemoryStore store = store(2, 1_000_000);
+        store.updateMessages("a", List.of(UserMessage.from(message(0))));
+        store.updateMessages("b", List.of(UserMessage.from(message(1))));
+        store.getMessages("a");
+
+        store.updateMessages("c", List.of(UserMessage.from(message(2))));
+
+        assertThat(evicted).containsExactly("b");
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getMessages("a")).hasSize(1);
+        assertThat(store.getMessages("c")).hasSize(1);
+    }
+
+    @Test
+    void totalTokenCapEvictsOtherConversationsButNeverTheCurrentOne() {
+        ConversationMemoryStore store = store(100, 2 * TOKENS_PER_MESSAGE);
+        store.updateMessages("a", List.of(UserMessage.from(message(0))));
+        store.updateMessages("b", List.of(UserMessage.from(message(1))));
+
+        store.updateMessages("c", List.of(UserMessage.from(message(2)), UserMessage.from(message(3)),
+                UserMessage.from(message(4))));
+
+        assertThat(evicted).containsExactly("a", "b");
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getMessages("c")).hasSize(3);
+        assertThat(store.tokens()).isEqualTo(3 * TOKENS_PER_MESSAGE);
+    }
+
+    private ConversationMemoryStore store(int maxConversations, long maxTotalTokens) {
+        ConversationMemoryStore store = new ConversationMemoryStore(tokenEstimator, maxConversations, maxTotalTokens,
+                Duration.ofMinutes(30), meterRegistry, clock);
+        store.onEviction(evicted::add);
+        return store;
+    }
+
+    private static String message(int index) {
+        return String.format("mensagem %02d ", index) + "x".repeat(23);
+    }
+
+    private static List<String> texts(List<ChatMessage> messages) {
+        return messages.stream().map(message -> ((UserMessage) message).singleText()).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
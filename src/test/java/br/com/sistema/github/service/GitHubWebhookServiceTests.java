@@ -0,0 +1,111 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.sistema.github.gateway.BlobShaIndex;
+import br.com.sistema.github.gateway.GitHubClientPool;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.GitHubHttpCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Reproduz um push gravado (src/test/resources/webhooks) e confere que só os
+ * caminhos alterados saem dos caches.
+ */
+class GitHubWebhookServiceTests {
+
+    private static final String SECRET = "segredo-de-teste";
+    private static final String API = "https://api.github.com/repos/octocat/spring-boot-api";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GitHubHttpCache httpCache = new GitHubHttpCache(3600, 100, 1 << 20, meterRegistry);
+    private final BlobShaIndex blobShaIndex = new BlobShaIndex(3600);
+
+    private GitHubWebhookService service;
+
+    @BeforeEach
+    void setUp() {
+        GitHubGateway gateway = new GitHubGateway(null, null, null, null);
+        ReflectionTestUtils.setField(gateway, "githubUsername", "octocat");
+
+        ResponseCache responseCache = new ResponseCache(null, null, true, 100, 1 << 20, Duration.ofMinutes(10),
+                Duration.ofDays(1), meterRegistry, Clock.systemUTC());
+        SemanticResponseCache semanticCache = new SemanticResponseCache(null, meterRegistry) {
+            @Override
+            public synchronized int invalidateRepository(String repositoryName) {
+                return 0;
+            }
+        };
+
+        GitHubClientPool clientPool = new GitHubClientPool(null, null, 10, 30, meterRegistry);
+
+        service = new GitHubWebhookService(gateway, clientPool, httpCache, blobShaIndex, responseCache, semanticCache,
+                new CodeIndexService(null, null, meterRegistry), new CodeSearchService(null, meterRegistry),
+                new RepositoryCatalog(null, Duration.ofMinutes(30), meterRegistry, Clock.systemUTC()),
+                new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+    }
+
+    @Test
+    void rejectsMissingOrWrongSignature() throws IOException {
+        byte[] body = payload("push.json");
+
+        assertThat(service.isValidSignature(body, null)).isFalse();
+        assertThat(service.isValidSignature(body, "sha256=" + "0".repeat(64))).isFalse();
+        assertThat(service.isValidSignature(body, sign(body))).isTrue();
+    }
+
+    @Test
+    void pushInvalidatesOnlyChangedPaths() throws IOException {
+        cache("service", API + "/contents/src/main/java/app/UserService.java");
+        cache("directory", API + "/contents/src/main/java/app");
+        cache("head", API + "/branches/main");
+        cache("untouched", API + "/contents/pom.xml");
+        cache("tree", API + "/git/trees/f9d2a07e9488b91af2641b26b9407fe22a451433");
+        blobShaIndex.confirm("spring-boot-api", "6113728", Map.of(
+                "src/main/java/app/UserService.java", "aaa",
+                "pom.xml", "bbb"));
+
+        byte[] body = payload("push.json");
+        assertThat(service.isValidSignature(body, sign(body))).isTrue();
+        service.handle("push", body);
+
+        assertThat(httpCache.lookup("service")).isNull();
+        assertThat(httpCache.lookup("directory")).isNull();
+        assertThat(httpCache.lookup("head")).isNull();
+        // Arquivo não alterado e árvore (imutável por SHA) continuam em cache
+        assertThat(httpCache.lookup("untouched")).isNotNull();
+        assertThat(httpCache.lookup("tree")).isNotNull();
+
+        assertThat(blobShaIndex.lookup("spring-boot-api", "src/main/java/app/UserService.java")).isNull();
+        assertThat(blobShaIndex.lookup("spring-boot-api", "pom.xml")).isEqualTo("bbb");
+    }
+
+    private void cache(String key, String url) {
+        httpCache.store(key, new GitHubHttpCache.Entry(url, "\"etag\"", null, Map.of(), new byte[16], Instant.now()));
+    }
+
+    private static String sign(byte[] body) {
+        return "sha256=" + HexFormat.of().formatHex(GitHubWebhookService.hmacSha256(SECRET, body));
+    }
+
+    private static byte[] payload(String name) throws IOException {
+        try (InputStream in = GitHubWebhookServiceTests.class.getResourceAsStream("/webhooks/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GitHub;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.sistema.github.dtos.response.GitHubFilesResponse;
+import br.com.sistema.github.dtos.response.GitHubFilesResponse.FileNode;
+import br.com.sistema.github.gateway.BlobShaIndex;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.models.TreeEntry;
+import br.com.sistema.github.models.TreeListing;
+
+/**
+ * Montagem da árvore a partir da listagem recursiva, cache por commit e o
+ * percurso por diretório (limitado por requests e por entradas) quando o
+ * GitHub trunca a resposta.
+ */
+class RepositoryTreeServiceTests {
+
+    private final Map<String, TreeListing> recursiveByCommit = new HashMap<>();
+    private final Map<String, TreeListing> treesBySha = new HashMap<>();
+    private final List<String> calls = new ArrayList<>();
+
+    private BlobShaIndex blobShaIndex;
+    private RepositoryTreeService treeService;
+
+    @BeforeEach
+    void setUp() {
+        GitHubGateway gateway = new GitHubGateway(GitHub.offline(), null, null, null) {
+            @Override
+            public String getDefaultBranchHead(String repositoryName) {
+                return "c1";
+            }
+
+            @Override
+            public TreeListing getTree(String repositoryName, String sha, boolean recursive) {
+                calls.add(sha + (recursive ? " recursive" : ""));
+                return recursive ? recursiveByCommit.get(sha) : treesBySha.get(sha);
+            }
+        };
+
+        blobShaIndex = new BlobShaIndex(60);
+        treeService = new RepositoryTreeService(gateway, blobShaIndex);
+        ReflectionTestUtils.setField(treeService, "cacheMaxNodes", 300_000);
+        ReflectionTestUtils.setField(treeService, "truncatedMaxRequests", 100);
+        ReflectionTestUtils.setField(treeService, "truncatedMaxEntries", 50_000);
+    }
+
+    @Test
+    void recursiveListingBecomesANestedHierarchy() throws Exception {
+        recursiveByCommit.put("c1", new TreeListing("root", false, List.of(
+                blob("README.md", "b-readme"),
+                tree("src", "t-src"),
+                tree("src/main", "t-main"),
+                blob("src/main/App.java", "b-app"),
+                blob("src/Util.java", "b-util"),
+                blob("docs/guide/intro.md", "b-intro"))));
+
+        GitHubFilesResponse response = treeService.getRepositoryTree("demo");
+
+        assertThat(response.getTruncated()).isFalse();
+        assertThat(response.getCommitSha()).isEqualTo("c1");
+        assertThat(response.getTreeSha()).isEqualTo("root");
+        assertThat(response.getTotalFiles()).isEqualTo(4);
+        assertThat(calls).containsExactly("c1 recursive");
+
+        // Diretórios primeiro; "docs" e "docs/guide" não vieram na listagem e são criados
+        assertThat(names(response.getFiles())).containsExactly("docs", "src", "README.md");
+        FileNode guide = child(response.getFiles(), "docs").getChildren().get(0);
+        assertThat(guide.getPath()).isEqualTo("docs/guide");
+        assertThat(names(guide.getChildren())).containsExactly("intro.md");
+
+        FileNode src = child(response.getFiles(), "src");
+        assertThat(names(src.getChildren())).containsExactly("main", "Util.java");
+        FileNode app = child(src.getChildren(), "main").getChildren().get(0);
+        assertThat(app.getPath()).isEqualTo("src/main/App.java");
+        assertThat(app.getSha()).isEqualTo("b-app");
+        assertThat(src.getLoaded()).isTrue();
+
+        assertThat(blobShaIndex.lookup("demo", "src/main/App.java")).isEqualTo("b-app");
+    }
+
+    @Test
+    void sameCommitIsServedFromTheTreeCache() throws Exception {
+        recursiveByCommit.put("c1", new TreeListing("root", false, List.of(blob("README.md", "b-readme"))));
+
+        GitHubFilesResponse first = treeService.getRepositoryTree("demo");
+        GitHubFilesResponse second = treeService.getRepositoryTree("demo");
+
+        assertThat(calls).containsExactly("c1 recursive");
+        assertThat(second.getFiles()).isSameAs(first.getFiles());
+    }
+
+    @Test
+    void truncatedTreeIsWalkedByDirectoryUntilTheRequestBudget() throws Exception {
+        ReflectionTestUtils.setField(treeService, "truncatedMaxRequests", 2);
+        truncatedRepository();
+
+        GitHubFilesResponse response = treeService.getRepositoryTree("demo");
+
+        assertThat(response.getTruncated()).isTrue();
+        assertThat(calls).containsExactly("c1 recursive", "root", "t-src");
+
+        // Entradas das listagens não recursivas recebem o caminho completo
+        FileNode src = child(response.getFiles(), "src");
+        assertThat(src.getLoaded()).isTrue();
+        assertThat(names(src.getChildren())).containsExactly("main", "Util.java");
+        assertThat(child(src.getChildren(), "Util.java").getPath()).isEqualTo("src/Util.java");
+
+        // Fora do orçamento: fica para o carregamento sob demanda
+        FileNode main = child(src.getChildren(), "main");
+        assertThat(main.getPath()).isEqualTo("src/main");
+        assertThat(main.getLoaded()).isFalse();
+        assertThat(main.getChildren()).isEmpty();
+        assertThat(response.getTotalFiles()).isEqualTo(2);
+    }
+
+    @Test
+    void truncatedWalkStopsDescendingAtTheEntryBudget() throws Exception {
+        ReflectionTestUtils.setField(treeService, "truncatedMaxEntries", 2);
+        truncatedRepository();
+
+        GitHubFilesResponse response = treeService.getRepositoryTree("demo");
+
+        assertThat(calls).containsExactly("c1 recursive", "root");
+        assertThat(names(response.getFiles())).containsExactly("src", "README.md");
+        assertThat(child(response.getFiles(), "src").getLoaded()).isFalse();
+        assertThat(blobShaIndex.lookup("demo", "README.md")).isEqualTo("b-readme");
+    }
+
+    private void truncatedRepository() {
+        recursiveByCommit.put("c1", new TreeListing("root", true, List.of(blob("README.md", "b-readme"))));
+        treesBySha.put("root", new TreeListing("root", false, List.of(
+                tree("src", "t-src"), blob("README.md", "b-readme"))));
+        treesBySha.put("t-src", new TreeListing("t-src", false, List.of(
+                tree("main", "t-main"), blob("Util.java", "b-util"))));
+        treesBySha.put("t-main", new TreeListing("t-main", false, List.of(blob("App.java", "b-app"))));
+    }
+
+    private static TreeEntry blob(String path, String sha) {
+        return new TreeEntry(path, "blob", sha, 10L);
+    }
+
+    private static TreeEntry tree(String path, String sha) {
+        return new TreeEntry(path, "tree", sha, null);
+    }
+
+    private static List<String> names(List<FileNode> nodes) {
+        return nodes.stream().map(FileNode::getName).toList();
+    }
+
+    private static FileNode child(List<FileNode> nodes, String name) {
+        return nodes.stream().filter(node -> node.getName().equals(name)).findFirst().orElseThrow();
+    }
+}
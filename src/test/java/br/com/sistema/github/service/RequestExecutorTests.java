@@ -0,0 +1,75 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.sistema.github.service.RequestExecutor.Endpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Admissão por endpoint: 1 executando + 1 na fila; o terceiro é recusado na hora.
+ */
+class RequestExecutorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestExecutor executor = new RequestExecutor(1, 1, 5, 1, 5, 1, 1, 30, meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsWhenRunningAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = executor.submit(Endpoint.ANALYZE, () -> {
+            release.await();
+            return "primeira";
+        });
+        CompletableFuture<String> queued = executor.submit(Endpoint.ANALYZE, () -> "segunda");
+
+        assertThatThrownBy(() -> executor.submit(Endpoint.ANALYZE, () -> "terceira"))
+                .isInstanceOfSatisfying(RequestRejectedException.class, e -> {
+                    assertThat(e.isShuttingDown()).isFalse();
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(30);
+                });
+        assertThat(meterRegistry.get("github.requests.rejected").tag("endpoint", "/analyze").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("primeira");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("segunda");
+
+        // Vagas devolvidas: o endpoint volta a aceitar
+        assertThat(executor.submit(Endpoint.ANALYZE, () -> "quarta").get(5, TimeUnit.SECONDS)).isEqualTo("quarta");
+    }
+
+    @Test
+    void streamPermitIsReleasedOnlyOnce() {
+        RequestExecutor.Permit permit = executor.admit(Endpoint.CHAT_STREAM);
+        assertThatThrownBy(() -> executor.admit(Endpoint.CHAT_STREAM)).isInstanceOf(RequestRejectedException.class);
+
+        permit.release();
+        permit.release();
+
+        RequestExecutor.Permit next = executor.admit(Endpoint.CHAT_STREAM);
+        assertThatThrownBy(() -> executor.admit(Endpoint.CHAT_STREAM)).isInstanceOf(RequestRejectedException.class);
+        next.release();
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableAfterShutdown() {
+        executor.shutdown();
+
+        assertThatThrownBy(() -> executor.submit(Endpoint.CHAT, () -> "x"))
+                .isInstanceOfSatisfying(RequestRejectedException.class, e -> assertThat(e.isShuttingDown()).isTrue());
+    }
+}
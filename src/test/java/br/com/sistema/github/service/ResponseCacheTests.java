@@ -0,0 +1,168 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.sistema.github.dtos.response.GitHubRepoResponse.RepoInfo;
+import br.com.sistema.github.gateway.GitHubGateway;
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import br.com.sistema.github.models.FileContent;
+import br.com.sistema.github.models.FileFetchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Quando uma resposta do modelo pode ser repetida: TTL, invalidação por
+ * repositório (inclusive os lidos pelas tools) e chaves por usuário e estado.
+ */
+class ResponseCacheTests {
+
+    private static final GitHubTenant ALICE = new GitHubTenant("t0123456789abcdef", "alice", "token-a");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final Map<String, String> heads = new HashMap<>();
+    private final List<RepoInfo> repos = new ArrayList<>();
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        GitHubGateway gateway = new GitHubGateway(null, null, null, null) {
+            @Override
+            public String getDefaultBranchHead(String repositoryName) {
+                return heads.get(repositoryName);
+            }
+        };
+        ReflectionTestUtils.setField(gateway, "githubUsername", "octocat");
+
+        RepositoryCatalog catalog = new RepositoryCatalog(null, Duration.ofMinutes(30), meterRegistry, clock) {
+            @Override
+            public List<RepoInfo> repositories() {
+                return List.copyOf(repos);
+            }
+        };
+
+        cache = new ResponseCache(gateway, catalog, true, 100, 1 << 20, Duration.ofMinutes(10),
+                Duration.ofDays(1), meterRegistry, clock);
+
+        repos.add(repo("api", 1));
+        repos.add(repo("web", 1));
+        heads.put("api", "a1");
+        heads.put("web", "w1");
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws Exception {
+        ResponseCache.Key chat = cache.chatKey("liste meus repositórios");
+        ResponseCache.Key analyze = cache.analyzeKey("api", "segurança", List.of(file("App.java", "s1")));
+        cache.put(chat, "resposta do chat");
+        cache.put(analyze, "resposta da análise");
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(cache.get(chat)).isNull();
+        assertThat(cache.get(analyze)).isEqualTo("resposta da análise");
+        assertThat(meterRegistry.get("github.response.cache.requests").tag("kind", "chat").tag("result", "miss")
+                .counter().count()).isEqualTo(1);
+
+        clock.advance(Duration.ofDays(1));
+        assertThat(cache.get(analyze)).isNull();
+    }
+
+    @Test
+    void invalidatesByNamedAndToolReadRepositories() throws Exception {
+        ResponseCache.Key analyze = cache.analyzeKey("api", "segurança", List.of(file("App.java", "s1")));
+        cache.put(analyze, "análise");
+        // Prompt não cita "web", mas as tools leram
+        ResponseCache.Key chat = cache.chatKey("quantas issues abertas?");
+        cache.put(chat, "3 issues", Set.of("web"));
+
+        assertThat(cache.get(chat)).isEqualTo("3 issues");
+
+        assertThat(cache.invalidateRepository("api")).isEqualTo(1);
+        assertThat(cache.get(analyze)).isNull();
+        assertThat(cache.invalidateRepository("web")).isEqualTo(1);
+        assertThat(cache.get(chat)).isNull();
+    }
+
+    @Test
+    void toolReadRepositoryWithNewCommitIsAMiss() throws Exception {
+        ResponseCache.Key chat = cache.chatKey("qual o último commit?");
+        cache.put(chat, "commit w1", Set.of("web"));
+
+        heads.put("web", "w2");
+
+        assertThat(cache.chatKey("qual o último commit?")).isEqualTo(chat);
+        assertThat(cache.get(chat)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void keysArePartitionedByTenantAndRepositoryState() throws Exception {
+        ResponseCache.Key owner = cache.chatKey("resuma o repositório api");
+        ResponseCache.Key alice = TenantContext.callAs(ALICE, () -> cache.chatKey("resuma o repositório api"));
+        cache.put(owner, "resumo do dono");
+
+        assertThat(alice.hash()).isNotEqualTo(owner.hash());
+        assertThat(TenantContext.callAs(ALICE, () -> cache.get(alice))).isNull();
+        assertThat(owner.repositories()).containsExactly(TenantContext.DEFAULT + ":api");
+
+        // Mesma pergunta normalizada, mesmo estado: mesma chave
+        assertThat(cache.chatKey("Resuma o repositório API!")).isEqualTo(owner);
+
+        // Commit novo no repositório citado ou mudança na lista: outra chave
+        heads.put("api", "a2");
+        ResponseCache.Key afterPush = cache.chatKey("resuma o repositório api");
+        assertThat(afterPush.hash()).isNotEqualTo(owner.hash());
+
+        repos.set(1, repo("web", 2));
+        assertThat(cache.chatKey("resuma o repositório api").hash()).isNotEqualTo(afterPush.hash());
+    }
+
+    private static RepoInfo repo(String name, int stars) {
+        return RepoInfo.builder().name(name).stars(stars).forks(0).openIssues(0).isPrivate(false).build();
+    }
+
+    private static FileFetchResult file(String path, String sha) {
+        return FileFetchResult.success(path, FileContent.builder().path(path).sha(sha).content("x").build());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
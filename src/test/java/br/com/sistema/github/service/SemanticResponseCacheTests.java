@@ -0,0 +1,173 @@
+package br.com.sistema.github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.sistema.github.gateway.GitHubTenant;
+import br.com.sistema.github.gateway.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cache semântico com embeddings fixos (sem o modelo ONNX): acerto acima do
+ * limiar de similaridade, erro abaixo, expiração e separação por usuário.
+ */
+class SemanticResponseCacheTests {
+
+    private static final GitHubTenant ALICE = new GitHubTenant("t0123456789abcdef", "alice", "token-a");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final Map<String, float[]> vectors = new HashMap<>();
+
+    private SemanticResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        LocalEmbeddingModel embeddingModel = new LocalEmbeddingModel() {
+            @Override
+            public float[] embed(String text) {
+                return vectors.get(text);
+            }
+        };
+
+        cache = new SemanticResponseCache(embeddingModel, meterRegistry, clock);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "similarityThreshold", 0.95);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "lshTables", 8);
+        ReflectionTestUtils.setField(cache, "lshBits", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+        cache.init();
+
+        // Cosseno com "resuma o api": 0,98 e 0,71
+        vectors.put("resuma o api", vector(1, 0));
+        vectors.put("faca um resumo do api", vector(1, 0.2f));
+        vectors.put("quais as issues do api", vector(1, 1));
+    }
+
+    @Test
+    void similarPromptAboveTheThresholdIsAHit() {
+        ResponseCache.ChatState stored = state("resuma o api", "s1", "default:api");
+        cache.put(stored, cache.embed(stored), "resumo do api");
+
+        ResponseCache.ChatState similar = state("faca um resumo do api", "s1", "default:api");
+
+        assertThat(cache.get(similar, cache.embed(similar))).isEqualTo("resumo do api");
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void promptBelowTheThresholdIsAMiss() {
+        ResponseCache.ChatState stored = state("resuma o api", "s1", "default:api");
+        cache.put(stored, cache.embed(stored), "resumo do api");
+
+        ResponseCache.ChatState other = state("quais as issues do api", "s1", "default:api");
+
+        assertThat(cache.get(other, cache.embed(other))).isNull();
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void answersExpireAfterTheChatTtl() {
+        ResponseCache.ChatState stored = state("resuma o api", "s1", "default:api");
+        float[] embedding = cache.embed(stored);
+        cache.put(stored, embedding, "resumo do api");
+
+        clock.advance(Duration.ofMinutes(9));
+        assertThat(cache.get(stored, embedding)).isEqualTo("resumo do api");
+
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(cache.get(stored, embedding)).isNull();
+
+        // O próximo put descarta a expirada
+        ResponseCache.ChatState fresh = state("quais as issues do api", "s1", "default:api");
+        cache.put(fresh, cache.embed(fresh), "issues do api");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void answersAreSeparatedByTenant() throws Exception {
+        ResponseCache.ChatState mine = state("resuma o api", "s-default", "default:api");
+        ResponseCache.ChatState alices = state("resuma o api", "s-alice", ALICE.id() + ":api");
+        float[] embedding = cache.embed(mine);
+        cache.put(mine, embedding, "meu resumo");
+        cache.put(alices, embedding, "resumo da alice");
+
+        assertThat(cache.get(mine, embedding)).isEqualTo("meu resumo");
+        assertThat(cache.get(alices, embedding)).isEqualTo("resumo da alice");
+
+        // Invalidação pelo webhook de um usuário não apaga o repositório homônimo de outro
+        assertThat(TenantContext.callAs(ALICE, () -> cache.invalidateRepository("api"))).isEqualTo(1);
+        assertThat(cache.get(alices, embedding)).isNull();
+        assertThat(cache.get(mine, embedding)).isEqualTo("meu resumo");
+    }
+
+    @Test
+    void indexReturnsTheNearestAcceptedCandidateAndEvictsTheLeastRecentlyUsed() {
+        LshIndex<String> index = new LshIndex<>(LocalEmbeddingModel.DIMENSIONS, 8, 2, 2, 42);
+        index.add(vector(1, 0), "a");
+        index.add(vector(1, 0.2f), "b");
+
+        LshIndex.Match<String> nearest = index.nearest(vector(1, 0.05f), value -> true);
+        assertThat(nearest.value()).isEqualTo("a");
+        assertThat(nearest.score()).isGreaterThan(0.99);
+        assertThat(index.nearest(vector(1, 0.05f), "b"::equals).value()).isEqualTo("b");
+
+        // "b" foi o último devolvido; "a" sai quando o terceiro entra
+        index.add(vector(0, 1), "c");
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.nearest(vector(1, 0), "a"::equals)).isNull();
+        assertThat(index.nearest(vector(1, 0), value -> true).value()).isEqualTo("b");
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("github.semantic.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static ResponseCache.ChatState state(String prompt, String stateHash, String repository) {
+        return new ResponseCache.ChatState(prompt, stateHash, Set.of(repository));
+    }
+
+    private static float[] vector(float x, float y) {
+        float[] vector = new float[LocalEmbeddingModel.DIMENSIONS];
+        vector[0] = x;
+        vector[1] = y;
+        return LshIndex.normalize(vector);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
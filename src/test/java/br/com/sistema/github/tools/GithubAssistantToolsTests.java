@@ -0,0 +1,25 @@
+package br.com.sistema.github.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class GithubAssistantToolsTests {
+
+    @Test
+    void dateOnlyUntilIncludesTheWholeDay() {
+        assertThat(GithubAssistantTools.parseDate("2025-01-31", true).toInstant())
+                .isEqualTo(Instant.parse("2025-02-01T00:00:00Z"));
+        assertThat(GithubAssistantTools.parseDate("2025-01-31", false).toInstant())
+                .isEqualTo(Instant.parse("2025-01-31T00:00:00Z"));
+    }
+
+    @Test
+    void fullTimestampIsKeptAsIs() {
+        assertThat(GithubAssistantTools.parseDate("2025-01-31T15:30:00Z", true).toInstant())
+                .isEqualTo(Instant.parse("2025-01-31T15:30:00Z"));
+        assertThat(GithubAssistantTools.parseDate(" ", true)).isNull();
+    }
+}